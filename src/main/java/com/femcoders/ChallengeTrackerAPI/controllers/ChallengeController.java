@@ -1,39 +1,126 @@
 package com.femcoders.ChallengeTrackerAPI.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkUpdateResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCacheStats;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChanges;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeFilter;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengePage;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSearchResult;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatusTransitionRequest;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeEventStream;
 import com.femcoders.ChallengeTrackerAPI.services.ChallengeService;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 import java.util.List;
 
 @RestController
 @RequiredArgsConstructor
 @RequestMapping("/challenges")
 public class ChallengeController {
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+    public static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+    // "eq" when X-Total-Count is exact, "gte" when search pruning made it a lower bound.
+    public static final String TOTAL_COUNT_RELATION_HEADER = "X-Total-Count-Relation";
+    public static final String MERGE_PATCH_JSON_VALUE = "application/merge-patch+json";
+    public static final String LAST_EVENT_ID_HEADER = "Last-Event-ID";
+
     private final ChallengeService challengeService;
+    private final ChallengeEventStream challengeEventStream;
+    private final ChallengeSyncService challengeSyncService;
 
     @GetMapping
-    public ResponseEntity<List<ChallengeResponse>> getAllChallenges() {
-        List<ChallengeResponse> orderedChallenges = challengeService.getChallengesStartingWithCurrentUser();
-        return ResponseEntity.ok(orderedChallenges);
+    public ResponseEntity<List<ChallengeResponse>> getAllChallenges(
+            @Valid ChallengeFilter filter, @RequestParam(required = false) String after, @RequestParam(defaultValue = "20") int limit,
+            @RequestParam(defaultValue = "false") boolean includeArchived, WebRequest webRequest) {
+        if (webRequest.checkNotModified(challengeService.getChallengeListETag(filter, after, limit, includeArchived))) {
+            return null;
+        }
+        ChallengePage page = challengeService.getChallengesStartingWithCurrentUser(filter, after, limit, includeArchived);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.challenges());
+    }
+
+    @GetMapping(value = "/export", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportChallenges() {
+        StreamingResponseBody body = outputStream -> challengeService.exportChallenges(outputStream);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .body(body);
+    }
+
+    @GetMapping(value = "/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChallengeEvents(
+            @RequestParam(required = false) Long userId, @RequestHeader(value = LAST_EVENT_ID_HEADER, required = false) String lastEventId) {
+        return challengeEventStream.subscribe(userId, lastEventId);
+    }
+
+    @GetMapping("/changes")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ChallengeChanges> getChallengeChanges(
+            @RequestParam(required = false) String since, @RequestParam(defaultValue = "100") int limit,
+            @AuthenticationPrincipal UserDetail userDetail) {
+        return ResponseEntity.ok(challengeSyncService.getChanges(userDetail.getId(), since, limit));
+    }
+
+    @GetMapping("/search")
+    public ResponseEntity<List<ChallengeResponse>> searchChallenges(
+            @RequestParam String q, @RequestParam(defaultValue = "0") int page, @RequestParam(defaultValue = "20") int size) {
+        ChallengeSearchResult result = challengeService.searchChallenges(q, page, size);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(result.total()))
+                .header(TOTAL_COUNT_RELATION_HEADER, result.totalExact() ? "eq" : "gte")
+                .body(result.challenges());
+    }
+
+    @GetMapping("/stats")
+    public ResponseEntity<ChallengeStatsResponse> getChallengeStatistics() {
+        return ResponseEntity.ok(challengeService.getChallengeStatistics());
+    }
+
+    @GetMapping("/cache/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChallengeCacheStats> getChallengeCacheStats() {
+        return ResponseEntity.ok(challengeService.getChallengeCacheStats());
     }
 
     @GetMapping("/{id}")
-    public ResponseEntity<ChallengeResponse> getChallengeById(@PathVariable Long id) {
-        ChallengeResponse challenge = challengeService.getChallengeById(id);
-        return ResponseEntity.ok(challenge);
+    public ResponseEntity<ChallengeResponse> getChallengeById(
+            @PathVariable Long id, @RequestParam(defaultValue = "false") boolean includeArchived, WebRequest webRequest) {
+        TaggedResponse<ChallengeResponse> challenge = challengeService.getTaggedChallengeById(id, includeArchived);
+        if (webRequest.checkNotModified(challenge.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok(challenge.body());
     }
 
     @GetMapping("/user/{userId}")
-    public ResponseEntity<List<ChallengeResponse>> getChallengesByUserId(@PathVariable Long userId) {
-        List<ChallengeResponse> challenges = challengeService.getChallengesByUserId(userId);
+    public ResponseEntity<List<ChallengeResponse>> getChallengesByUserId(
+            @PathVariable Long userId, @Valid ChallengeFilter filter, @RequestParam(defaultValue = "false") boolean includeArchived) {
+        List<ChallengeResponse> challenges = challengeService.getChallengesByUserId(userId, filter, includeArchived);
         return ResponseEntity.ok(challenges);
     }
 
@@ -44,12 +131,46 @@ public class ChallengeController {
         return ResponseEntity.status(HttpStatus.CREATED).body(response);
     }
 
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ChallengeBatchResponse> addChallenges(@RequestBody List<ChallengeRequest> requests, @AuthenticationPrincipal UserDetail userDetail) {
+        ChallengeBatchResponse response = challengeService.addChallenges(requests, userDetail);
+        HttpStatus status = response.created().isEmpty() ? HttpStatus.BAD_REQUEST : HttpStatus.CREATED;
+        return ResponseEntity.status(status).body(response);
+    }
+
+    @PatchMapping("/status")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ChallengeBulkUpdateResponse> transitionChallengeStatus(
+            @RequestBody @Valid ChallengeStatusTransitionRequest request, @AuthenticationPrincipal UserDetail userDetail) {
+        ChallengeBulkUpdateResponse response = challengeService.transitionChallengeStatus(request, userDetail);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/bulk-delete")
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ChallengeBulkDeleteResponse> deleteChallenges(
+            @RequestBody @Valid ChallengeBulkDeleteRequest request, @AuthenticationPrincipal UserDetail userDetail) {
+        ChallengeBulkDeleteResponse response = challengeService.deleteChallenges(request, userDetail);
+        return ResponseEntity.ok(response);
+    }
+
     @PutMapping("/{id}")
     @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
     public ResponseEntity<ChallengeResponse> updateChallenge(
-            @PathVariable Long id, @RequestBody @Valid ChallengeRequest request, @AuthenticationPrincipal UserDetail userDetail) {
-        ChallengeResponse updateChallenge = challengeService.updateChallenge(id, request, userDetail);
-        return ResponseEntity.ok(updateChallenge);
+            @PathVariable Long id, @RequestBody @Valid ChallengeRequest request, @AuthenticationPrincipal UserDetail userDetail,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaggedResponse<ChallengeResponse> updateChallenge = challengeService.updateChallenge(id, request, userDetail, ifMatch);
+        return ResponseEntity.ok().eTag(updateChallenge.eTag()).body(updateChallenge.body());
+    }
+
+    @PatchMapping(value = "/{id}", consumes = {MERGE_PATCH_JSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @PreAuthorize("hasRole('USER') or hasRole('ADMIN')")
+    public ResponseEntity<ChallengeResponse> patchChallenge(
+            @PathVariable Long id, @RequestBody JsonNode patch, @AuthenticationPrincipal UserDetail userDetail,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaggedResponse<ChallengeResponse> patched = challengeService.patchChallenge(id, patch, userDetail, ifMatch);
+        return ResponseEntity.ok().eTag(patched.eTag()).body(patched.body());
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,47 @@
+package com.femcoders.ChallengeTrackerAPI.controllers;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportFormat;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportStatus;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeImportService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.URI;
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/challenges/imports")
+public class ChallengeImportController {
+    private final ChallengeImportService challengeImportService;
+
+    @PostMapping(consumes = {ChallengeImportFormat.TEXT_CSV_VALUE, MediaType.APPLICATION_NDJSON_VALUE})
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChallengeImportStatus> startImport(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) String contentType,
+            @RequestHeader(value = HttpHeaders.CONTENT_LENGTH, defaultValue = "-1") long contentLength, InputStream body) throws IOException {
+        ChallengeImportStatus status = challengeImportService.startImport(body, contentLength, ChallengeImportFormat.of(contentType));
+        URI location = ServletUriComponentsBuilder.fromCurrentRequest().path("/{id}").buildAndExpand(status.id()).toUri();
+        return ResponseEntity.accepted().location(location).body(status);
+    }
+
+    @GetMapping("/{id}")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ChallengeImportStatus> getImportStatus(@PathVariable String id) {
+        return ResponseEntity.ok(challengeImportService.getImportStatus(id));
+    }
+
+    @GetMapping("/{id}/errors")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<ChallengeBatchError>> getImportErrors(@PathVariable String id) {
+        return ResponseEntity.ok(challengeImportService.getImportErrors(id));
+    }
+}
@@ -0,0 +1,33 @@
+package com.femcoders.ChallengeTrackerAPI.controllers;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.user.LeaderboardEntry;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
+import com.femcoders.ChallengeTrackerAPI.services.LeaderboardService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/leaderboard")
+public class LeaderboardController {
+    private final LeaderboardService leaderboardService;
+
+    @GetMapping
+    public ResponseEntity<List<LeaderboardEntry>> getLeaderboard(
+            @RequestParam(required = false) Classification classification, @RequestParam(defaultValue = "10") int limit) {
+        List<LeaderboardEntry> leaderboard = leaderboardService.getLeaderboard(classification, limit);
+        return ResponseEntity.ok(leaderboard);
+    }
+
+    @GetMapping("/me")
+    public ResponseEntity<LeaderboardEntry> getMyRanking(
+            @RequestParam(required = false) Classification classification, @AuthenticationPrincipal UserDetail userDetail) {
+        LeaderboardEntry entry = leaderboardService.getUserRanking(userDetail.getId(), classification);
+        return ResponseEntity.ok(entry);
+    }
+}
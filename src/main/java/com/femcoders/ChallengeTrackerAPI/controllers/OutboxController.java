@@ -0,0 +1,21 @@
+package com.femcoders.ChallengeTrackerAPI.controllers;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.outbox.OutboxStats;
+import com.femcoders.ChallengeTrackerAPI.services.OutboxRelay;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/outbox")
+public class OutboxController {
+    private final OutboxRelay outboxRelay;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<OutboxStats> getOutboxStats() {
+        return ResponseEntity.ok(outboxRelay.getStats());
+    }
+}
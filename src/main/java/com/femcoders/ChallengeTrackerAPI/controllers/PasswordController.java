@@ -0,0 +1,21 @@
+package com.femcoders.ChallengeTrackerAPI.controllers;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.password.PasswordHashingStats;
+import com.femcoders.ChallengeTrackerAPI.security.PooledPasswordEncoder;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/passwords")
+public class PasswordController {
+    private final PooledPasswordEncoder pooledPasswordEncoder;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PasswordHashingStats> getPasswordHashingStats() {
+        return ResponseEntity.ok(pooledPasswordEncoder.getStats());
+    }
+}
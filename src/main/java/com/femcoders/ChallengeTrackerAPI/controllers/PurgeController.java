@@ -0,0 +1,21 @@
+package com.femcoders.ChallengeTrackerAPI.controllers;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.purge.PurgeStats;
+import com.femcoders.ChallengeTrackerAPI.services.SoftDeletePurger;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/purge")
+public class PurgeController {
+    private final SoftDeletePurger softDeletePurger;
+
+    @GetMapping("/stats")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<PurgeStats> getPurgeStats() {
+        return ResponseEntity.ok(softDeletePurger.getStats());
+    }
+}
@@ -1,18 +1,25 @@
 package com.femcoders.ChallengeTrackerAPI.controllers;
 
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserPage;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserResponse;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserUpdateRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameAvailabilityResponse;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
 import com.femcoders.ChallengeTrackerAPI.services.UserService;
+import com.femcoders.ChallengeTrackerAPI.services.UsernameAvailability;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.apache.coyote.Response;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -21,12 +28,23 @@ import java.util.List;
 @RequestMapping("/users")
 public class UserController {
     private final UserService userService;
+    private final UsernameAvailability usernameAvailability;
 
     @GetMapping("/all")
     @PreAuthorize("hasRole('ROLE_ADMIN')")
-    public ResponseEntity<List<UserResponse>> getAllUsers() {
-        List<UserResponse> users = userService.getAllUsers();
-        return ResponseEntity.ok(users);
+    public ResponseEntity<List<UserResponse>> getAllUsers(
+            @RequestParam(required = false) String after, @RequestParam(defaultValue = "20") int limit) {
+        UserPage page = userService.getUsers(after, limit);
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok();
+        if (page.nextCursor() != null) {
+            response.header(ChallengeController.NEXT_CURSOR_HEADER, page.nextCursor());
+        }
+        return response.body(page.users());
+    }
+
+    @GetMapping("/available")
+    public ResponseEntity<UsernameAvailabilityResponse> isUsernameAvailable(@RequestParam String username) {
+        return ResponseEntity.ok(usernameAvailability.check(username));
     }
 
     @GetMapping("/username/{username}")
@@ -36,9 +54,18 @@ public class UserController {
     }
 
     @GetMapping("/id/{id}")
-    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id) {
-        UserResponse user = userService.getUserById(id);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserResponse> getUserById(@PathVariable Long id, WebRequest webRequest) {
+        TaggedResponse<UserResponse> user = userService.getTaggedUserById(id);
+        if (webRequest.checkNotModified(user.eTag())) {
+            return null;
+        }
+        return ResponseEntity.ok(user.body());
+    }
+
+    @GetMapping("/{id}/stats")
+    public ResponseEntity<ChallengeStatsResponse> getUserStatistics(@PathVariable Long id) {
+        ChallengeStatsResponse statistics = userService.getUserStatistics(id);
+        return ResponseEntity.ok(statistics);
     }
 
     @PostMapping("/create")
@@ -49,9 +76,10 @@ public class UserController {
     }
 
     @PutMapping("/update/{id}")
-    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateRequest userRequest, @AuthenticationPrincipal UserDetail userDetail) {
-        UserResponse user = userService.updateUser(id, userRequest, userDetail);
-        return ResponseEntity.ok(user);
+    public ResponseEntity<UserResponse> updateUser(@PathVariable Long id, @Valid @RequestBody UserUpdateRequest userRequest, @AuthenticationPrincipal UserDetail userDetail,
+                                                   @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        TaggedResponse<UserResponse> user = userService.updateUser(id, userRequest, userDetail, ifMatch);
+        return ResponseEntity.ok().eTag(user.eTag()).body(user.body());
     }
 
     @DeleteMapping("/delete/{id}")
@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.dtos;
+
+public record TaggedResponse<T>(
+        T body,
+        String eTag
+) {
+}
@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.util.Map;
+
+public record ChallengeBatchError(
+        int index,
+        Map<String, String> details
+) {
+}
@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.util.List;
+
+public record ChallengeBatchResponse(
+        List<ChallengeResponse> created,
+        List<ChallengeBatchError> errors
+) {
+}
@@ -0,0 +1,19 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ChallengeBulkDeleteRequest(
+        @Size(max = 1000, message = "No more than 1000 challenge ids can be given at once")
+        List<Long> ids,
+
+        Long userId,
+
+        Status status,
+
+        Classification classification
+) implements ChallengeSelection {
+}
@@ -0,0 +1,6 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+public record ChallengeBulkDeleteResponse(
+        int deleted
+) {
+}
@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+public record ChallengeCacheStats(
+        long hits,
+        long misses,
+        long evictions,
+        int size
+) {
+}
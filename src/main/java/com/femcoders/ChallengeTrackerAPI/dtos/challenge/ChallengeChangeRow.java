@@ -0,0 +1,22 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+import java.time.Instant;
+
+public record ChallengeChangeRow(
+        Long id,
+        String title,
+        String description,
+        Status status,
+        Classification classification,
+        int difficultyLevel,
+        String prize,
+        String username,
+        Instant updatedAt
+) {
+    public ChallengeResponse response() {
+        return new ChallengeResponse(id, title, description, status, classification, difficultyLevel, prize, username);
+    }
+}
@@ -0,0 +1,12 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.util.List;
+
+public record ChallengeChanges(
+        List<ChallengeResponse> upserted,
+        List<Long> deleted,
+        String token,
+        boolean hasMore,
+        boolean reset
+) {
+}
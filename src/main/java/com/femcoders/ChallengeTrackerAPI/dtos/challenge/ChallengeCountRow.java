@@ -0,0 +1,13 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+public record ChallengeCountRow(
+        Long userId,
+        Status status,
+        Classification classification,
+        Long count,
+        Long difficultySum
+) {
+}
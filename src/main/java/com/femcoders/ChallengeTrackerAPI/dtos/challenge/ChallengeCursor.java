@@ -0,0 +1,33 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record ChallengeCursor(int bucket, long lastId) {
+    public static final int OWN_BUCKET = 0;
+    public static final int OTHERS_BUCKET = 1;
+    public static final ChallengeCursor START = new ChallengeCursor(OWN_BUCKET, 0L);
+
+    public String encode() {
+        String raw = bucket + ":" + lastId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChallengeCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            int bucket = Integer.parseInt(parts[0]);
+            long lastId = Long.parseLong(parts[1]);
+            if (parts.length != 2 || (bucket != OWN_BUCKET && bucket != OTHERS_BUCKET) || lastId < 0) {
+                throw new IllegalArgumentException();
+            }
+            return new ChallengeCursor(bucket, lastId);
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
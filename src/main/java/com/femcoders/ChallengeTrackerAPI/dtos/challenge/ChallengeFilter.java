@@ -0,0 +1,22 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+
+public record ChallengeFilter(
+        Status status,
+
+        Classification classification,
+
+        @Min(value = 1, message = "Difficulty level cannot be lower than 1")
+        @Max(value = 5, message = "Difficulty level cannot be higher than 5")
+        Integer difficultyLevel
+) {
+    public static final ChallengeFilter NONE = new ChallengeFilter(null, null, null);
+
+    public boolean isEmpty() {
+        return status == null && classification == null && difficultyLevel == null;
+    }
+}
@@ -0,0 +1,21 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import org.springframework.http.MediaType;
+
+public enum ChallengeImportFormat {
+    CSV,
+    NDJSON;
+
+    public static final String TEXT_CSV_VALUE = "text/csv";
+
+    public static ChallengeImportFormat of(String contentType) {
+        MediaType mediaType = MediaType.parseMediaType(contentType);
+        if (mediaType.isCompatibleWith(MediaType.parseMediaType(TEXT_CSV_VALUE))) {
+            return CSV;
+        }
+        if (mediaType.isCompatibleWith(MediaType.APPLICATION_NDJSON)) {
+            return NDJSON;
+        }
+        throw new IllegalArgumentException("Imports must be sent as " + TEXT_CSV_VALUE + " or " + MediaType.APPLICATION_NDJSON_VALUE);
+    }
+}
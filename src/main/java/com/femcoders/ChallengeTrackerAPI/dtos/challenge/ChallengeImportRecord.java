@@ -0,0 +1,18 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+public record ChallengeImportRecord(
+        String username,
+        String title,
+        String description,
+        Status status,
+        Classification classification,
+        int difficultyLevel,
+        String prize
+) {
+    public ChallengeRequest request() {
+        return new ChallengeRequest(title, description, status, classification, difficultyLevel, prize);
+    }
+}
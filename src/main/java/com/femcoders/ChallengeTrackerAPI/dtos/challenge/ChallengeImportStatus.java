@@ -0,0 +1,24 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.time.Instant;
+
+public record ChallengeImportStatus(
+        String id,
+        ChallengeImportFormat format,
+        State state,
+        long bytesRead,
+        long totalBytes,
+        long processed,
+        long imported,
+        long failed,
+        Instant startedAt,
+        Instant finishedAt,
+        String failure
+) {
+    public enum State {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        FAILED
+    }
+}
@@ -6,4 +6,5 @@ import com.femcoders.ChallengeTrackerAPI.models.User;
 public interface ChallengeMapper {
     Challenge dtoToEntity(ChallengeRequest dto, User user);
     ChallengeResponse entityToDto(Challenge challenge);
+    ChallengeResponse rowToDto(ChallengeRow row);
 }
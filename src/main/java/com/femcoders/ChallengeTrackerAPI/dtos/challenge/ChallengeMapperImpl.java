@@ -33,4 +33,18 @@ public class ChallengeMapperImpl implements ChallengeMapper {
                 username
         );
     }
+
+    @Override
+    public ChallengeResponse rowToDto(ChallengeRow row) {
+        return new ChallengeResponse(
+                row.getId(),
+                row.getTitle(),
+                row.getDescription(),
+                row.getStatus(),
+                row.getClassification(),
+                row.getDifficultyLevel(),
+                row.getPrize(),
+                row.getUsername()
+        );
+    }
 }
@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.util.List;
+
+public record ChallengePage(
+        List<ChallengeResponse> challenges,
+        String nextCursor
+) {
+}
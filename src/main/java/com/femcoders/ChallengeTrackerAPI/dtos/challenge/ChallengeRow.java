@@ -0,0 +1,16 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+public interface ChallengeRow {
+    Long getId();
+    String getTitle();
+    String getDescription();
+    Status getStatus();
+    Classification getClassification();
+    int getDifficultyLevel();
+    String getPrize();
+    Long getUserId();
+    String getUsername();
+}
@@ -0,0 +1,10 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.util.List;
+
+public record ChallengeSearchResult(
+        long total,
+        boolean totalExact,
+        List<ChallengeResponse> challenges
+) {
+}
@@ -0,0 +1,20 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+import java.util.List;
+
+public interface ChallengeSelection {
+    List<Long> ids();
+
+    Long userId();
+
+    Status status();
+
+    Classification classification();
+
+    default boolean hasCriteria() {
+        return (ids() != null && !ids().isEmpty()) || userId() != null || status() != null || classification() != null;
+    }
+}
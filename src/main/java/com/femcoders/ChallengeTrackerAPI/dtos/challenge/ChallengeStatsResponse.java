@@ -0,0 +1,14 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+import java.util.Map;
+
+public record ChallengeStatsResponse(
+        long total,
+        Map<Status, Long> byStatus,
+        Map<Classification, Long> byClassification,
+        double averageDifficulty
+) {
+}
@@ -0,0 +1,23 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+
+import java.util.List;
+
+public record ChallengeStatusTransitionRequest(
+        @Size(max = 1000, message = "No more than 1000 challenge ids can be given at once")
+        List<Long> ids,
+
+        Long userId,
+
+        Status status,
+
+        Classification classification,
+
+        @NotNull(message = "Choose the status to move the challenges to")
+        Status targetStatus
+) implements ChallengeSelection {
+}
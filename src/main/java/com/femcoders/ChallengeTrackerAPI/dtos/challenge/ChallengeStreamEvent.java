@@ -0,0 +1,16 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent.ChangeType;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+
+public record ChallengeStreamEvent(
+        ChangeType type,
+        Long challengeId,
+        Long userId,
+        ChallengeSnapshot challenge
+) {
+    public static ChallengeStreamEvent of(ChallengeChangedEvent event) {
+        return new ChallengeStreamEvent(event.type(), event.challengeId(), event.userId(), event.current());
+    }
+}
@@ -0,0 +1,38 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+
+// Two keyset positions, one over challenges by (updatedAt, id) and one over tombstones by
+// (deletedAt, challengeId). Timestamps are kept in microseconds, the precision of the columns.
+public record ChallengeSyncToken(Instant upsertedAt, long upsertedId, Instant deletedAt, long deletedId) {
+    public static final long AFTER_ALL_IDS = Long.MAX_VALUE;
+
+    // A first sync downloads every live challenge, but only needs deletes from now on.
+    public static ChallengeSyncToken initial(Instant horizon) {
+        return new ChallengeSyncToken(Instant.EPOCH, 0L, horizon, AFTER_ALL_IDS);
+    }
+
+    public String encode() {
+        String raw = ChronoUnit.MICROS.between(Instant.EPOCH, upsertedAt) + ":" + upsertedId + ":"
+                + ChronoUnit.MICROS.between(Instant.EPOCH, deletedAt) + ":" + deletedId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static ChallengeSyncToken decode(String token) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+            String[] parts = raw.split(":");
+            if (parts.length != 4) {
+                throw new IllegalArgumentException();
+            }
+            return new ChallengeSyncToken(
+                    Instant.EPOCH.plus(Long.parseLong(parts[0]), ChronoUnit.MICROS), Long.parseLong(parts[1]),
+                    Instant.EPOCH.plus(Long.parseLong(parts[2]), ChronoUnit.MICROS), Long.parseLong(parts[3]));
+        } catch (IllegalArgumentException | ArithmeticException exception) {
+            throw new IllegalArgumentException("Invalid sync token: " + token);
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.challenge;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+public record VersionedChallenge(
+        Long id,
+        String title,
+        String description,
+        Status status,
+        Classification classification,
+        int difficultyLevel,
+        String prize,
+        Long userId,
+        String username,
+        long version
+) {
+    public ChallengeResponse response() {
+        return new ChallengeResponse(id, title, description, status, classification, difficultyLevel, prize, username);
+    }
+
+    public ChallengeRequest request() {
+        return new ChallengeRequest(title, description, status, classification, difficultyLevel, prize);
+    }
+
+    public ChallengeSnapshot snapshot() {
+        return new ChallengeSnapshot(id, title, description, status, classification, difficultyLevel, userId);
+    }
+
+    public VersionedChallenge patched(ChallengeRequest request) {
+        return new VersionedChallenge(id, request.title(), request.description(), request.status(), request.classification(),
+                request.difficultyLevel(), request.prize(), userId, username, version + 1);
+    }
+}
@@ -0,0 +1,12 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.outbox;
+
+public record OutboxStats(
+        long published,
+        long batches,
+        long failedBatches,
+        long pending,
+        long lagMillis,
+        double averagePublishedPerSecond,
+        long lastBatchMillis
+) {
+}
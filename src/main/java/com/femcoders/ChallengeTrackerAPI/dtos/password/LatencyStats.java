@@ -0,0 +1,14 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.password;
+
+import java.util.Map;
+
+public record LatencyStats(
+        long count,
+        double meanMillis,
+        double p50Millis,
+        double p95Millis,
+        double p99Millis,
+        double maxMillis,
+        Map<String, Long> bucketsMillis
+) {
+}
@@ -0,0 +1,14 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.password;
+
+public record PasswordHashingStats(
+        int cost,
+        int threads,
+        int active,
+        int queued,
+        int queueCapacity,
+        long completed,
+        long rejected,
+        LatencyStats queueWait,
+        LatencyStats hashTime
+) {
+}
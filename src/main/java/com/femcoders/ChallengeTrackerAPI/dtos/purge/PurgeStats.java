@@ -0,0 +1,12 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.purge;
+
+public record PurgeStats(
+        long purgedChallenges,
+        long purgedUsers,
+        long runs,
+        long challengeBacklog,
+        long userBacklog,
+        double lastRunRowsPerSecond,
+        long lastRunMillis
+) {
+}
@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+public record LeaderboardEntry(
+        Integer rank,
+        Long userId,
+        String username,
+        long score
+) {
+}
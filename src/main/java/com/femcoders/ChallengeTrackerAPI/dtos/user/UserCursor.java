@@ -0,0 +1,27 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+public record UserCursor(long lastId) {
+    public static final UserCursor START = new UserCursor(0L);
+
+    public String encode() {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(Long.toString(lastId).getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static UserCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return START;
+        }
+        try {
+            long lastId = Long.parseLong(new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8));
+            if (lastId < 0) {
+                throw new IllegalArgumentException();
+            }
+            return new UserCursor(lastId);
+        } catch (IllegalArgumentException exception) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor);
+        }
+    }
+}
@@ -9,4 +9,5 @@ import java.util.List;
 public interface UserMapper {
     User dtoToEntity(UserRequest dto, List<Challenge> challenges, List<Role> roles);
     UserResponse entityToDto(User user);
+    UserResponse rowToDto(UserRow row, List<String> challenges, List<String> roles);
 }
\ No newline at end of file
@@ -38,4 +38,15 @@ public class UserMapperImpl implements UserMapper {
         );
     }
 
+    @Override
+    public UserResponse rowToDto(UserRow row, List<String> challenges, List<String> roles) {
+        return new UserResponse(
+                row.getId(),
+                row.getUsername(),
+                row.getEmail(),
+                challenges,
+                roles
+        );
+    }
+
 }
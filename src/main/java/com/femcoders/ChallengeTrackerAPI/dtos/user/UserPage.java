@@ -0,0 +1,9 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+import java.util.List;
+
+public record UserPage(
+        List<UserResponse> users,
+        String nextCursor
+) {
+}
@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+public interface UserRow {
+    Long getId();
+    String getUsername();
+    String getEmail();
+}
@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+public record UserValueRow(
+        Long userId,
+        String value
+) {
+}
@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+public record UsernameAvailabilityResponse(
+        String username,
+        boolean available
+) {
+}
@@ -0,0 +1,6 @@
+package com.femcoders.ChallengeTrackerAPI.dtos.user;
+
+public interface UsernameRow {
+    Long getId();
+    String getUsername();
+}
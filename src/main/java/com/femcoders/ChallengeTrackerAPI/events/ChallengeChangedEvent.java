@@ -0,0 +1,33 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+public record ChallengeChangedEvent(
+        ChangeType type,
+        ChallengeSnapshot previous,
+        ChallengeSnapshot current
+) {
+    public enum ChangeType {
+        CREATED,
+        UPDATED,
+        DELETED
+    }
+
+    public static ChallengeChangedEvent created(ChallengeSnapshot current) {
+        return new ChallengeChangedEvent(ChangeType.CREATED, null, current);
+    }
+
+    public static ChallengeChangedEvent updated(ChallengeSnapshot previous, ChallengeSnapshot current) {
+        return new ChallengeChangedEvent(ChangeType.UPDATED, previous, current);
+    }
+
+    public static ChallengeChangedEvent deleted(ChallengeSnapshot previous) {
+        return new ChallengeChangedEvent(ChangeType.DELETED, previous, null);
+    }
+
+    public Long challengeId() {
+        return (current != null) ? current.id() : previous.id();
+    }
+
+    public Long userId() {
+        return (current != null) ? current.userId() : previous.userId();
+    }
+}
@@ -0,0 +1,32 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+
+public record ChallengeSnapshot(
+        Long id,
+        String title,
+        String description,
+        Status status,
+        Classification classification,
+        int difficultyLevel,
+        Long userId
+) {
+    public static ChallengeSnapshot of(Challenge challenge) {
+        Long userId = (challenge.getUser() != null) ? challenge.getUser().getId() : null;
+        return new ChallengeSnapshot(
+                challenge.getId(),
+                challenge.getTitle(),
+                challenge.getDescription(),
+                challenge.getStatus(),
+                challenge.getClassification(),
+                challenge.getDifficultyLevel(),
+                userId
+        );
+    }
+
+    public ChallengeSnapshot withStatus(Status newStatus) {
+        return new ChallengeSnapshot(id, title, description, newStatus, classification, difficultyLevel, userId);
+    }
+}
@@ -0,0 +1,10 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import java.util.List;
+
+// The challenges still exist, so statistics and the leaderboard keep counting them; only views of
+// live challenges (search, the by-id cache, list ETags) have to drop them.
+public record ChallengesArchivedEvent(
+        List<ChallengeSnapshot> challenges
+) {
+}
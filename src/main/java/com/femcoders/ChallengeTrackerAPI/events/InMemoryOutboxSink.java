@@ -0,0 +1,43 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Profile;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.List;
+
+// Sink for local runs and tests: keeps the latest messages in memory. The relay deletes what it
+// publishes, so anything held here is gone after a restart; that is why it only exists in the dev
+// and test profiles. Anywhere else the application does not start until an OutboxSink bean is
+// registered. Another sink is plugged in by setting outbox.sink and registering that bean.
+@Component
+@Profile({"dev", "test"})
+@ConditionalOnProperty(name = "outbox.sink", havingValue = "memory", matchIfMissing = true)
+public class InMemoryOutboxSink implements OutboxSink {
+    private final int capacity;
+    private final ArrayDeque<OutboxMessage> messages = new ArrayDeque<>();
+
+    public InMemoryOutboxSink(@Value("${outbox.memory-sink.capacity:10000}") int capacity) {
+        this.capacity = capacity;
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxMessage> batch) {
+        for (OutboxMessage message : batch) {
+            if (messages.size() == capacity) {
+                messages.removeFirst();
+            }
+            messages.addLast(message);
+        }
+    }
+
+    public synchronized List<OutboxMessage> messages() {
+        return List.copyOf(messages);
+    }
+
+    public synchronized void clear() {
+        messages.clear();
+    }
+}
@@ -0,0 +1,19 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import com.femcoders.ChallengeTrackerAPI.models.OutboxEvent;
+
+import java.time.Instant;
+
+public record OutboxMessage(
+        Long id,
+        String aggregateType,
+        Long aggregateId,
+        String eventType,
+        String payload,
+        Instant createdAt
+) {
+    public static OutboxMessage of(OutboxEvent event) {
+        return new OutboxMessage(event.getId(), event.getAggregateType(), event.getAggregateId(), event.getEventType(),
+                event.getPayload(), event.getCreatedAt());
+    }
+}
@@ -0,0 +1,10 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import java.util.List;
+
+// Where the outbox relay delivers events. Messages arrive in outbox order, so events of one
+// aggregate arrive in the order they were committed. A batch that throws is retried as a whole,
+// which makes delivery at least once.
+public interface OutboxSink {
+    void publish(List<OutboxMessage> messages);
+}
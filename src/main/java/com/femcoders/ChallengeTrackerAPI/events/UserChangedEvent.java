@@ -0,0 +1,24 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent.ChangeType;
+
+public record UserChangedEvent(
+        ChangeType type,
+        Long userId
+) {
+    public static UserChangedEvent created(Long userId) {
+        return new UserChangedEvent(ChangeType.CREATED, userId);
+    }
+
+    public static UserChangedEvent updated(Long userId) {
+        return new UserChangedEvent(ChangeType.UPDATED, userId);
+    }
+
+    public static UserChangedEvent deleted(Long userId) {
+        return new UserChangedEvent(ChangeType.DELETED, userId);
+    }
+
+    public boolean deleted() {
+        return type == ChangeType.DELETED;
+    }
+}
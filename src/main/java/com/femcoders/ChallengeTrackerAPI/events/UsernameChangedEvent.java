@@ -0,0 +1,19 @@
+package com.femcoders.ChallengeTrackerAPI.events;
+
+// Normalized usernames; previous is null for a new user and current is null for a deleted one.
+public record UsernameChangedEvent(
+        String previous,
+        String current
+) {
+    public static UsernameChangedEvent created(String username) {
+        return new UsernameChangedEvent(null, username);
+    }
+
+    public static UsernameChangedEvent renamed(String previous, String current) {
+        return new UsernameChangedEvent(previous, current);
+    }
+
+    public static UsernameChangedEvent deleted(String username) {
+        return new UsernameChangedEvent(username, null);
+    }
+}
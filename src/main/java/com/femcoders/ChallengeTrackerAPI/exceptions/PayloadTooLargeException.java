@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.exceptions;
+
+public class PayloadTooLargeException extends RuntimeException {
+    public PayloadTooLargeException(String message) {
+        super(message);
+    }
+}
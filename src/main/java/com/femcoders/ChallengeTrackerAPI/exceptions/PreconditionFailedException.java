@@ -0,0 +1,7 @@
+package com.femcoders.ChallengeTrackerAPI.exceptions;
+
+public class PreconditionFailedException extends RuntimeException {
+    public PreconditionFailedException(String entityName, Long id) {
+        super(entityName + " with id " + id + " has been modified since it was last read");
+    }
+}
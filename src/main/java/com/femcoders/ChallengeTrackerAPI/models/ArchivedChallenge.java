@@ -0,0 +1,59 @@
+package com.femcoders.ChallengeTrackerAPI.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Cold copy of a finished challenge, moved here by ChallengeArchiver. It keeps the id, version and
+// timestamps of the live row, so ids never clash between the two tables and ETags stay valid.
+// Archived challenges are read-only.
+@Entity
+@Table(name = "archived_challenges", indexes = {
+        @Index(name = "idx_archived_challenges_user_id_id", columnList = "user_id, id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ArchivedChallenge {
+    @Id
+    private Long id;
+
+    @Column(nullable = false)
+    private String title;
+
+    @Column(nullable = false)
+    private String description;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Status status;
+
+    @Column(nullable = false)
+    @Enumerated(EnumType.STRING)
+    private Classification classification;
+
+    @Column(nullable = false)
+    private int difficultyLevel;
+
+    @Column(nullable = false)
+    private String prize;
+
+    @ManyToOne
+    @JoinColumn(name = "user_id", nullable = false)
+    @ToString.Exclude
+    @EqualsAndHashCode.Exclude
+    private User user;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(nullable = false)
+    private Instant archivedAt;
+}
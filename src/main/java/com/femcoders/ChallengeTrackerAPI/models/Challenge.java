@@ -3,17 +3,40 @@ package com.femcoders.ChallengeTrackerAPI.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.SQLRestriction;
+import org.hibernate.annotations.UpdateTimestamp;
 import org.springframework.boot.autoconfigure.security.SecurityProperties;
 
+import java.time.Instant;
 
 @Entity
-@Table(name = "challenges")
+// The filtered listings are keyset pages in id order. Each filter the endpoints accept has an
+// index that starts with it and ends with id, so a page is a range scan that stops at the limit.
+// Two filters use the index of one of them and check the other on the rows they walk.
+@Table(name = "challenges", indexes = {
+        @Index(name = "idx_challenges_user_id_id", columnList = "user_id, id"),
+        @Index(name = "idx_challenges_status_classification_difficulty", columnList = "status, classification, difficulty_level, id"),
+        @Index(name = "idx_challenges_status_id", columnList = "status, id"),
+        @Index(name = "idx_challenges_classification_id", columnList = "classification, id"),
+        @Index(name = "idx_challenges_difficulty_level_id", columnList = "difficulty_level, id"),
+        @Index(name = "idx_challenges_status_updated_at", columnList = "status, updated_at"),
+        @Index(name = "idx_challenges_user_id_status", columnList = "user_id, status, id"),
+        @Index(name = "idx_challenges_user_id_updated_at", columnList = "user_id, updated_at"),
+        @Index(name = "idx_challenges_deleted_at", columnList = "deleted_at")
+})
+// Deleted challenges stay in the table until SoftDeletePurger removes them. Native queries
+// have to filter them out themselves.
+@SQLRestriction("deleted_at IS NULL")
 @Getter@Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
 public class Challenge {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.TABLE, generator = "challenge_ids")
+    @TableGenerator(name = "challenge_ids", table = "id_generators", pkColumnName = "entity_name",
+            valueColumnName = "next_id", pkColumnValue = "challenges", initialValue = 1, allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -41,4 +64,23 @@ public class Challenge {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private User user;
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @CreationTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(nullable = false, updatable = false)
+    private Instant createdAt;
+
+    // Bulk updates bypass the entity and set this column themselves.
+    @UpdateTimestamp
+    @ColumnDefault("CURRENT_TIMESTAMP(6)")
+    @Column(nullable = false)
+    private Instant updatedAt;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
 }
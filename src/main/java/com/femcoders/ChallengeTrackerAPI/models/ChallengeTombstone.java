@@ -0,0 +1,28 @@
+package com.femcoders.ChallengeTrackerAPI.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Remembers deleted challenges so that delta sync can tell clients to drop them. No foreign
+// keys: the tombstone has to outlive both the challenge and, when a user is removed, its owner.
+@Entity
+@Table(name = "challenge_tombstones", indexes = {
+        @Index(name = "idx_challenge_tombstones_user_id_deleted_at", columnList = "user_id, deleted_at"),
+        @Index(name = "idx_challenge_tombstones_deleted_at", columnList = "deleted_at")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class ChallengeTombstone {
+    @Id
+    @Column(name = "challenge_id")
+    private Long challengeId;
+
+    @Column(nullable = false, name = "user_id")
+    private Long userId;
+
+    @Column(nullable = false, name = "deleted_at")
+    private Instant deletedAt;
+}
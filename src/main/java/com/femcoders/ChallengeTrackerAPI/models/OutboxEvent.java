@@ -0,0 +1,35 @@
+package com.femcoders.ChallengeTrackerAPI.models;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.time.Instant;
+
+// Identity ids follow insert order, which the relay relies on to deliver each aggregate's events in order.
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_events_aggregate", columnList = "aggregate_type, aggregate_id, id")
+})
+@Getter @Setter
+@NoArgsConstructor @AllArgsConstructor
+@Builder
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false, name = "aggregate_type", length = 32)
+    private String aggregateType;
+
+    @Column(nullable = false, name = "aggregate_id")
+    private Long aggregateId;
+
+    @Column(nullable = false, name = "event_type", length = 32)
+    private String eventType;
+
+    @Column(nullable = false, length = 4000)
+    private String payload;
+
+    @Column(nullable = false, name = "created_at")
+    private Instant createdAt;
+}
@@ -1,5 +1,6 @@
 package com.femcoders.ChallengeTrackerAPI.models;
 
+import com.femcoders.ChallengeTrackerAPI.services.RoleChangeListener;
 import jakarta.persistence.*;
 import lombok.*;
 
@@ -8,6 +9,7 @@ import java.util.List;
 
 @Entity
 @Table(name = "roles")
+@EntityListeners(RoleChangeListener.class)
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
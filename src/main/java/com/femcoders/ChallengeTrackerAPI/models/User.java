@@ -2,12 +2,21 @@ package com.femcoders.ChallengeTrackerAPI.models;
 
 import jakarta.persistence.*;
 import lombok.*;
+import org.hibernate.annotations.ColumnDefault;
+import org.hibernate.annotations.SQLRestriction;
 
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Locale;
 
 @Entity
-@Table(name ="users")
+@Table(name ="users", indexes = {
+        @Index(name = "idx_users_deleted_at", columnList = "deleted_at"),
+        @Index(name = "uk_users_username_normalized", columnList = "username_normalized", unique = true),
+        @Index(name = "uk_users_email_normalized", columnList = "email_normalized", unique = true)
+})
+@SQLRestriction("deleted_at IS NULL")
 @Getter @Setter
 @NoArgsConstructor @AllArgsConstructor
 @Builder
@@ -27,6 +36,16 @@ public class User {
     @Column(nullable = false)
     private String password;
 
+    // Lower-cased copies kept by normalize(), so case-insensitive lookups are unique index seeks.
+    // Cleared on soft delete, which frees the name and email for a new account.
+    @Setter(AccessLevel.NONE)
+    @Column(name = "username_normalized")
+    private String usernameNormalized;
+
+    @Setter(AccessLevel.NONE)
+    @Column(name = "email_normalized")
+    private String emailNormalized;
+
     @ManyToMany(fetch = FetchType.EAGER)
     @JoinTable(
             name = "users_roles",
@@ -40,4 +59,23 @@ public class User {
     @ToString.Exclude
     @EqualsAndHashCode.Exclude
     private List<Challenge> challenges = new ArrayList<>();
+
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "deleted_at")
+    private Instant deletedAt;
+
+    public static String normalize(String value) {
+        return value == null ? null : value.toLowerCase(Locale.ROOT);
+    }
+
+    @PrePersist
+    @PreUpdate
+    void normalize() {
+        usernameNormalized = deletedAt == null ? normalize(username) : null;
+        emailNormalized = deletedAt == null ? normalize(email) : null;
+    }
 }
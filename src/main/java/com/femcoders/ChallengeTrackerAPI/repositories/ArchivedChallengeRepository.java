@@ -0,0 +1,87 @@
+package com.femcoders.ChallengeTrackerAPI.repositories;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.ArchivedChallenge;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+// Reads join the owner, so the archived challenges of a soft-deleted user disappear with it.
+public interface ArchivedChallengeRepository extends JpaRepository<ArchivedChallenge, Long> {
+    String ARCHIVED_RESPONSE = "new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse("
+            + "a.id, a.title, a.description, a.status, a.classification, a.difficultyLevel, a.prize, u.username)";
+
+    @Modifying
+    @Query("insert into ArchivedChallenge (id, title, description, status, classification, difficultyLevel, prize, user, version, "
+            + "createdAt, updatedAt, archivedAt) select c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, "
+            + "c.prize, c.user, c.version, c.createdAt, c.updatedAt, :archivedAt from Challenge c where c.id in :ids")
+    int insertFromChallenges(@Param("ids") Collection<Long> ids, @Param("archivedAt") Instant archivedAt);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge("
+            + "a.id, a.title, a.description, a.status, a.classification, a.difficultyLevel, a.prize, u.id, u.username, a.version) "
+            + "from ArchivedChallenge a join a.user u where a.id = :id")
+    Optional<VersionedChallenge> findVersionedById(@Param("id") Long id);
+
+    @Query("select " + ARCHIVED_RESPONSE + " from ArchivedChallenge a join a.user u where u.id = :userId order by a.id")
+    List<ChallengeResponse> findResponsesByUserId(@Param("userId") Long userId);
+
+    @Query("select " + ARCHIVED_RESPONSE + " from ArchivedChallenge a join a.user u where a.id > :afterId "
+            + "and (:userId is null or u.id = :userId) and (:status is null or a.status = :status) "
+            + "and (:classification is null or a.classification = :classification) "
+            + "and (:difficultyLevel is null or a.difficultyLevel = :difficultyLevel) order by a.id")
+    List<ChallengeResponse> findResponsesMatching(@Param("status") Status status, @Param("classification") Classification classification,
+                                                  @Param("difficultyLevel") Integer difficultyLevel, @Param("userId") Long userId,
+                                                  @Param("afterId") long afterId, Limit limit);
+
+    // Same shape as ChallengeRepository.findPageOwnedFirst, so the two pages can be merged.
+    @Query(value = "(SELECT " + ChallengeRepository.CHALLENGE_ROW_COLUMNS + ChallengeRepository.OWNED_FIRST_BUCKET + """
+             FROM archived_challenges c JOIN users u ON u.id = c.user_id
+             WHERE c.user_id = :userId AND :bucket = 0 AND c.id > :afterId AND u.deleted_at IS NULL
+             ORDER BY c.id LIMIT :limit)
+            UNION ALL
+            """ + "(SELECT " + ChallengeRepository.CHALLENGE_ROW_COLUMNS + ChallengeRepository.OWNED_FIRST_BUCKET + """
+             FROM archived_challenges c JOIN users u ON u.id = c.user_id
+             WHERE c.user_id <> :userId AND c.id > CASE WHEN :bucket = 0 THEN 0 ELSE :afterId END AND u.deleted_at IS NULL
+             ORDER BY c.id LIMIT :limit)
+            ORDER BY bucket, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChallengeRow> findPageOwnedFirst(@Param("userId") Long userId, @Param("bucket") int bucket,
+                                          @Param("afterId") long afterId, @Param("limit") int limit);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot("
+            + "a.id, a.title, a.description, a.status, a.classification, a.difficultyLevel, u.id) "
+            + "from ArchivedChallenge a join a.user u where u.id = :userId")
+    List<ChallengeSnapshot> findSnapshotsByUserId(@Param("userId") Long userId);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow("
+            + "u.id, a.status, a.classification, count(a), sum(a.difficultyLevel)) "
+            + "from ArchivedChallenge a join a.user u group by u.id, a.status, a.classification")
+    List<ChallengeCountRow> countByUserStatusAndClassification();
+
+    // Purged by SoftDeletePurger before the soft-deleted owner itself.
+    @Query(value = "SELECT a.id FROM archived_challenges a JOIN users u ON u.id = a.user_id "
+            + "WHERE u.deleted_at IS NOT NULL ORDER BY a.id LIMIT :limit", nativeQuery = true)
+    List<Long> findIdsOwnedBySoftDeletedUsers(@Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM archived_challenges a JOIN users u ON u.id = a.user_id WHERE u.deleted_at IS NOT NULL",
+            nativeQuery = true)
+    long countOwnedBySoftDeletedUsers();
+
+    @Modifying
+    @Query(value = "DELETE FROM archived_challenges WHERE id IN (:ids)", nativeQuery = true)
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -1,11 +1,140 @@
 package com.femcoders.ChallengeTrackerAPI.repositories;
 
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChangeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
 import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
 import com.femcoders.ChallengeTrackerAPI.models.User;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
 
+import java.time.Instant;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
+import java.util.stream.Stream;
+
+public interface ChallengeRepository extends JpaRepository<Challenge, Long>, ChallengeRepositoryCustom {
+    String CHALLENGE_RESPONSE = "new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse("
+            + "c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, c.prize, u.username)";
+    String VERSIONED_CHALLENGE = "new com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge("
+            + "c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, c.prize, u.id, u.username, c.version)";
+    String CHALLENGE_ROW_COLUMNS = "c.id AS id, c.title AS title, c.description AS description, c.status AS status, "
+            + "c.classification AS classification, c.difficulty_level AS difficultyLevel, c.prize AS prize, "
+            + "c.user_id AS userId, u.username AS username";
+    String CHALLENGE_CHANGE = "new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChangeRow("
+            + "c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, c.prize, u.username, c.updatedAt)";
+    int EXPORT_FETCH_SIZE = 1000;
+    String OWNED_FIRST_BUCKET = ", CASE WHEN c.user_id = :userId THEN 0 ELSE 1 END AS bucket";
 
-public interface ChallengeRepository extends JpaRepository<Challenge, Long> {
     List<Challenge> findAllByUser(User user);
+
+    @Query("select " + CHALLENGE_RESPONSE + " from Challenge c join c.user u order by c.id")
+    List<ChallengeResponse> findAllResponses();
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select " + CHALLENGE_RESPONSE + " from Challenge c join c.user u order by c.id")
+    Stream<ChallengeResponse> streamAllResponses();
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow("
+            + "c.user.id, c.status, c.classification, count(c), sum(c.difficultyLevel)) "
+            + "from Challenge c group by c.user.id, c.status, c.classification")
+    List<ChallengeCountRow> countByUserStatusAndClassification();
+
+    @Query("select " + CHALLENGE_RESPONSE + " from Challenge c join c.user u where c.id in :ids")
+    List<ChallengeResponse> findResponsesByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Query("select " + VERSIONED_CHALLENGE + " from Challenge c join c.user u where c.id = :id")
+    Optional<VersionedChallenge> findVersionedById(@Param("id") Long id);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse("
+            + "c.id, c.title, c.description, c.status, c.classification, coalesce(c.difficultyLevel, 0), c.prize, u.username) "
+            + "from User u left join u.challenges c where u.id = :userId order by c.id")
+    List<ChallengeResponse> findResponsesByUserIdWithOwner(@Param("userId") Long userId);
+
+    @Query("select " + CHALLENGE_RESPONSE + " from Challenge c join c.user u where c.id > :afterId order by c.id")
+    List<ChallengeResponse> findResponsesAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow(c.user.id, c.title) "
+            + "from Challenge c where c.user.id in :userIds order by c.id")
+    List<UserValueRow> findTitlesByUserIdIn(@Param("userIds") Collection<Long> userIds);
+
+    @Query(value = "(SELECT " + CHALLENGE_ROW_COLUMNS + OWNED_FIRST_BUCKET + """
+             FROM challenges c JOIN users u ON u.id = c.user_id
+             WHERE c.user_id = :userId AND :bucket = 0 AND c.id > :afterId AND c.deleted_at IS NULL
+             ORDER BY c.id LIMIT :limit)
+            UNION ALL
+            """ + "(SELECT " + CHALLENGE_ROW_COLUMNS + OWNED_FIRST_BUCKET + """
+             FROM challenges c JOIN users u ON u.id = c.user_id
+             WHERE c.user_id <> :userId AND c.id > CASE WHEN :bucket = 0 THEN 0 ELSE :afterId END AND c.deleted_at IS NULL
+             ORDER BY c.id LIMIT :limit)
+            ORDER BY bucket, id
+            LIMIT :limit
+            """, nativeQuery = true)
+    List<ChallengeRow> findPageOwnedFirst(@Param("userId") Long userId, @Param("bucket") int bucket,
+                                       @Param("afterId") long afterId, @Param("limit") int limit);
+
+    // Keyset over (updatedAt, id), served by idx_challenges_user_id_updated_at. Rows newer than the
+    // horizon are left for the next sync so that transactions still committing are not skipped.
+    @Query("select " + CHALLENGE_CHANGE + " from Challenge c join c.user u where u.id = :userId and c.updatedAt <= :horizon "
+            + "and (c.updatedAt > :after or (c.updatedAt = :after and c.id > :afterId)) order by c.updatedAt, c.id")
+    List<ChallengeChangeRow> findChangesAfter(@Param("userId") Long userId, @Param("after") Instant after, @Param("afterId") long afterId,
+                                              @Param("horizon") Instant horizon, Limit limit);
+
+    // FOR UPDATE SKIP LOCKED: a finished challenge that someone is editing right now is archived by a later run.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = OutboxEventRepository.SKIP_LOCKED))
+    @Query("select new com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot("
+            + "c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, c.user.id) "
+            + "from Challenge c where c.status in :statuses and c.updatedAt < :before order by c.id")
+    List<ChallengeSnapshot> lockArchivable(@Param("statuses") Collection<Status> statuses, @Param("before") Instant before, Limit limit);
+
+    // Only used once the rows have been copied to archived_challenges.
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("delete from Challenge c where c.id in :ids")
+    int deleteArchivedByIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Challenge c set c.deletedAt = :deletedAt, c.version = c.version + 1 "
+            + "where c.id in :ids and c.deletedAt is null and (:ownerId is null or c.user.id = :ownerId)")
+    int softDeleteByIdIn(@Param("ids") Collection<Long> ids, @Param("ownerId") Long ownerId, @Param("deletedAt") Instant deletedAt);
+
+    // A user's challenges as snapshots for their DELETED events, without loading the entities. Locked
+    // because the same transaction soft deletes them next.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select new com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot("
+            + "c.id, c.title, c.description, c.status, c.classification, c.difficultyLevel, c.user.id) "
+            + "from Challenge c where c.user.id = :userId")
+    List<ChallengeSnapshot> lockSnapshotsByUserId(@Param("userId") Long userId);
+
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("update Challenge c set c.deletedAt = :deletedAt, c.version = c.version + 1 where c.user.id = :userId and c.deletedAt is null")
+    int softDeleteByUserId(@Param("userId") Long userId, @Param("deletedAt") Instant deletedAt);
+
+    // The purge queries are native because the entity restriction hides soft-deleted rows from JPQL.
+    @Query(value = "SELECT id FROM challenges WHERE deleted_at IS NOT NULL ORDER BY deleted_at, id LIMIT :limit", nativeQuery = true)
+    List<Long> findSoftDeletedIds(@Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM challenges WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countSoftDeleted();
+
+    @Modifying
+    @Query(value = "DELETE FROM challenges WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
 }
@@ -0,0 +1,22 @@
+package com.femcoders.ChallengeTrackerAPI.repositories;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeFilter;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSelection;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.springframework.data.domain.Limit;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ChallengeRepositoryCustom {
+    List<ChallengeResponse> findResponsesMatching(ChallengeFilter filter, Long userId, long afterId, Limit limit);
+
+    List<ChallengeSnapshot> lockSnapshotsMatching(ChallengeSelection selection, Status excludedStatus, Long ownerId, Limit limit);
+
+    int updateStatusMatching(ChallengeSelection selection, Collection<Long> lockedIds, Status targetStatus, Long ownerId);
+
+    int patchById(Long id, long expectedVersion, Map<String, Object> changes, Long ownerId);
+}
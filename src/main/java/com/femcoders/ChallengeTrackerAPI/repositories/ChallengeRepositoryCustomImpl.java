@@ -0,0 +1,163 @@
+package com.femcoders.ChallengeTrackerAPI.repositories;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeFilter;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSelection;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.CriteriaUpdate;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Limit;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public class ChallengeRepositoryCustomImpl implements ChallengeRepositoryCustom {
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public List<ChallengeResponse> findResponsesMatching(ChallengeFilter filter, Long userId, long afterId, Limit limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChallengeResponse> query = builder.createQuery(ChallengeResponse.class);
+        Root<Challenge> challenge = query.from(Challenge.class);
+        Join<Challenge, User> user = challenge.join("user");
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (userId != null) {
+            predicates.add(builder.equal(challenge.get("user").get("id"), userId));
+        }
+        if (filter.status() != null) {
+            predicates.add(builder.equal(challenge.get("status"), filter.status()));
+        }
+        if (filter.classification() != null) {
+            predicates.add(builder.equal(challenge.get("classification"), filter.classification()));
+        }
+        if (filter.difficultyLevel() != null) {
+            predicates.add(builder.equal(challenge.get("difficultyLevel"), filter.difficultyLevel()));
+        }
+        if (afterId > 0) {
+            predicates.add(builder.greaterThan(challenge.get("id"), afterId));
+        }
+
+        query.select(builder.construct(ChallengeResponse.class,
+                        challenge.get("id"),
+                        challenge.get("title"),
+                        challenge.get("description"),
+                        challenge.get("status"),
+                        challenge.get("classification"),
+                        challenge.get("difficultyLevel"),
+                        challenge.get("prize"),
+                        user.get("username")))
+                .where(predicates.toArray(Predicate[]::new))
+                .orderBy(builder.asc(challenge.get("id")));
+
+        TypedQuery<ChallengeResponse> typedQuery = entityManager.createQuery(query);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    @Override
+    public List<ChallengeSnapshot> lockSnapshotsMatching(ChallengeSelection selection, Status excludedStatus, Long ownerId, Limit limit) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ChallengeSnapshot> query = builder.createQuery(ChallengeSnapshot.class);
+        Root<Challenge> challenge = query.from(Challenge.class);
+
+        query.select(builder.construct(ChallengeSnapshot.class,
+                        challenge.get("id"),
+                        challenge.get("title"),
+                        challenge.get("description"),
+                        challenge.get("status"),
+                        challenge.get("classification"),
+                        challenge.get("difficultyLevel"),
+                        challenge.get("user").get("id")))
+                .where(selectionPredicates(builder, challenge, selection, excludedStatus, ownerId).toArray(Predicate[]::new))
+                .orderBy(builder.asc(challenge.get("id")));
+
+        TypedQuery<ChallengeSnapshot> typedQuery = entityManager.createQuery(query)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE);
+        if (limit.isLimited()) {
+            typedQuery.setMaxResults(limit.max());
+        }
+        return typedQuery.getResultList();
+    }
+
+    // The selection, the owner and the target status are all in the WHERE clause, so the statement enforces
+    // them on its own. The locked ids only keep it to the rows whose snapshots the caller holds.
+    @Override
+    public int updateStatusMatching(ChallengeSelection selection, Collection<Long> lockedIds, Status targetStatus, Long ownerId) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Challenge> update = builder.createCriteriaUpdate(Challenge.class);
+        Root<Challenge> challenge = update.from(Challenge.class);
+
+        update.set(challenge.<Status>get("status"), targetStatus);
+        update.set(challenge.<Long>get("version"), builder.sum(challenge.<Long>get("version"), 1L));
+        update.set(challenge.<Instant>get("updatedAt"), Instant.now());
+
+        List<Predicate> predicates = selectionPredicates(builder, challenge, selection, targetStatus, ownerId);
+        predicates.add(challenge.get("id").in(lockedIds));
+        update.where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+
+    private static List<Predicate> selectionPredicates(CriteriaBuilder builder, Root<Challenge> challenge, ChallengeSelection selection,
+                                                       Status excludedStatus, Long ownerId) {
+        List<Predicate> predicates = new ArrayList<>();
+        if (excludedStatus != null) {
+            predicates.add(builder.notEqual(challenge.get("status"), excludedStatus));
+        }
+        if (selection.ids() != null && !selection.ids().isEmpty()) {
+            predicates.add(challenge.get("id").in(selection.ids()));
+        }
+        if (selection.userId() != null) {
+            predicates.add(builder.equal(challenge.get("user").get("id"), selection.userId()));
+        }
+        if (ownerId != null) {
+            predicates.add(builder.equal(challenge.get("user").get("id"), ownerId));
+        }
+        if (selection.status() != null) {
+            predicates.add(builder.equal(challenge.get("status"), selection.status()));
+        }
+        if (selection.classification() != null) {
+            predicates.add(builder.equal(challenge.get("classification"), selection.classification()));
+        }
+        return predicates;
+    }
+
+    // Only the given columns are written. The version and ownership checks are part of the same statement,
+    // so a row changed or owned by someone else is simply not matched.
+    @Override
+    public int patchById(Long id, long expectedVersion, Map<String, Object> changes, Long ownerId) {
+        CriteriaBuilder builder = entityManager.getCriteriaBuilder();
+        CriteriaUpdate<Challenge> update = builder.createCriteriaUpdate(Challenge.class);
+        Root<Challenge> challenge = update.from(Challenge.class);
+
+        changes.forEach(update::set);
+        update.set(challenge.<Long>get("version"), builder.sum(challenge.<Long>get("version"), 1L));
+        update.set(challenge.<Instant>get("updatedAt"), Instant.now());
+
+        List<Predicate> predicates = new ArrayList<>();
+        predicates.add(builder.equal(challenge.get("id"), id));
+        predicates.add(builder.equal(challenge.get("version"), expectedVersion));
+        if (ownerId != null) {
+            predicates.add(builder.equal(challenge.get("user").get("id"), ownerId));
+        }
+        update.where(predicates.toArray(Predicate[]::new));
+        return entityManager.createQuery(update).executeUpdate();
+    }
+}
@@ -0,0 +1,34 @@
+package com.femcoders.ChallengeTrackerAPI.repositories;
+
+import com.femcoders.ChallengeTrackerAPI.models.ChallengeTombstone;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface ChallengeTombstoneRepository extends JpaRepository<ChallengeTombstone, Long> {
+    // Written with INSERT ... SELECT before the rows are deleted, one statement per delete.
+    @Modifying
+    @Query("insert into ChallengeTombstone (challengeId, userId, deletedAt) "
+            + "select c.id, c.user.id, :deletedAt from Challenge c where c.id in :ids")
+    int insertForChallenges(@Param("ids") Collection<Long> ids, @Param("deletedAt") Instant deletedAt);
+
+    @Modifying
+    @Query("insert into ChallengeTombstone (challengeId, userId, deletedAt) "
+            + "select c.id, c.user.id, :deletedAt from Challenge c where c.user.id = :userId")
+    int insertForUser(@Param("userId") Long userId, @Param("deletedAt") Instant deletedAt);
+
+    @Query("select t from ChallengeTombstone t where t.userId = :userId and t.deletedAt <= :horizon "
+            + "and (t.deletedAt > :after or (t.deletedAt = :after and t.challengeId > :afterId)) order by t.deletedAt, t.challengeId")
+    List<ChallengeTombstone> findChangesAfter(@Param("userId") Long userId, @Param("after") Instant after, @Param("afterId") long afterId,
+                                              @Param("horizon") Instant horizon, Limit limit);
+
+    @Modifying
+    @Query("delete from ChallengeTombstone t where t.deletedAt < :cutoff")
+    int deleteOlderThan(@Param("cutoff") Instant cutoff);
+}
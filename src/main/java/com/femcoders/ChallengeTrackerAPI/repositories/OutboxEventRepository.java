@@ -0,0 +1,32 @@
+package com.femcoders.ChallengeTrackerAPI.repositories;
+
+import com.femcoders.ChallengeTrackerAPI.models.OutboxEvent;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    String SKIP_LOCKED = "-2";
+
+    // FOR UPDATE SKIP LOCKED: concurrent relays each take a different batch instead of waiting.
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @QueryHints(@QueryHint(name = AvailableHints.HINT_SPEC_LOCK_TIMEOUT, value = SKIP_LOCKED))
+    @Query("select o from OutboxEvent o order by o.id")
+    List<OutboxEvent> lockNextBatch(Limit limit);
+
+    // Older events of the same aggregates that another relay has locked and not yet delivered.
+    @Query("select o from OutboxEvent o where o.id < :before and o.id not in :locked and o.aggregateId in :aggregateIds")
+    List<OutboxEvent> findPendingBefore(Long before, Collection<Long> locked, Collection<Long> aggregateIds);
+
+    @Query("select min(o.createdAt) from OutboxEvent o")
+    Instant findOldestCreatedAt();
+}
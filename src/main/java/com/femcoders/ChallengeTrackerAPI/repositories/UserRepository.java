@@ -1,12 +1,71 @@
 package com.femcoders.ChallengeTrackerAPI.repositories;
 
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameRow;
 import com.femcoders.ChallengeTrackerAPI.models.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.AvailableHints;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 public interface UserRepository extends JpaRepository<User, Long> {
-    Optional<User> findByUsernameIgnoreCase(String username);
-    Optional<User> findByEmailIgnoreCase(String email);
-    boolean existsByUsername(String username);
-    boolean existsByEmail(String email);
-}
\ No newline at end of file
+    // Callers pass User.normalize(value), so these hit the unique indexes.
+    Optional<User> findByUsernameNormalized(String usernameNormalized);
+    Optional<User> findByEmailNormalized(String emailNormalized);
+    boolean existsByUsernameNormalized(String usernameNormalized);
+    boolean existsByEmailNormalized(String emailNormalized);
+
+    @Query("select u.id as id, u.username as username from User u where u.id in :ids")
+    List<UsernameRow> findUsernamesByIdIn(Collection<Long> ids);
+
+    @Query("select u.id as id, u.username as username from User u where u.usernameNormalized in :usernames")
+    List<UsernameRow> findUsernamesByUsernameIn(Collection<String> usernames);
+
+    @QueryHints({
+            @QueryHint(name = AvailableHints.HINT_FETCH_SIZE, value = "" + ChallengeRepository.EXPORT_FETCH_SIZE),
+            @QueryHint(name = AvailableHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("select u.usernameNormalized from User u where u.usernameNormalized is not null")
+    Stream<String> streamUsernamesNormalized();
+
+    // A projection, so the EAGER roles are not loaded one user at a time.
+    @Query("select u.id as id, u.username as username, u.email as email from User u where u.id > :afterId order by u.id")
+    List<UserRow> findRowsAfter(@Param("afterId") Long afterId, Limit limit);
+
+    @Query("select new com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow(u.id, r.roleName) "
+            + "from User u join u.roles r where u.id in :ids order by r.id")
+    List<UserValueRow> findRoleNamesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    // A soft-deleted user is purged once none of its challenges are left, so the foreign keys never block it.
+    @Query(value = "SELECT u.id FROM users u WHERE u.deleted_at IS NOT NULL "
+            + "AND NOT EXISTS (SELECT 1 FROM challenges c WHERE c.user_id = u.id) "
+            + "AND NOT EXISTS (SELECT 1 FROM archived_challenges a WHERE a.user_id = u.id) "
+            + "ORDER BY u.deleted_at, u.id LIMIT :limit", nativeQuery = true)
+    List<Long> findPurgeableIds(@Param("limit") int limit);
+
+    @Query(value = "SELECT COUNT(*) FROM users WHERE deleted_at IS NOT NULL", nativeQuery = true)
+    long countSoftDeleted();
+
+    // Only replaces the hash that was just checked, so a password changed meanwhile is kept.
+    @Modifying
+    @Query("update User u set u.password = :password where u.usernameNormalized = :username and u.password = :previous")
+    int updatePassword(@Param("username") String usernameNormalized, @Param("previous") String previous, @Param("password") String password);
+
+    @Modifying
+    @Query(value = "DELETE FROM users_roles WHERE user_id IN (:ids)", nativeQuery = true)
+    int purgeRolesByUserIdIn(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    @Query(value = "DELETE FROM users WHERE id IN (:ids) AND deleted_at IS NOT NULL", nativeQuery = true)
+    int purgeByIdIn(@Param("ids") Collection<Long> ids);
+}
@@ -0,0 +1,63 @@
+package com.femcoders.ChallengeTrackerAPI.security;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.password.LatencyStats;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+// Fixed millisecond buckets: coarse, but recording is a couple of adds, and they are enough to
+// tell a queue that is building up from a cost that is set too high.
+final class LatencyHistogram {
+    static final long[] BOUNDS_MILLIS = {1, 2, 5, 10, 25, 50, 100, 250, 500, 1000, 2500, 5000};
+
+    private final LongAdder[] counts = new LongAdder[BOUNDS_MILLIS.length + 1];
+    private final LongAdder totalNanos = new LongAdder();
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0);
+
+    LatencyHistogram() {
+        for (int i = 0; i < counts.length; i++) {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    void record(long nanos) {
+        int bucket = 0;
+        while (bucket < BOUNDS_MILLIS.length && nanos > BOUNDS_MILLIS[bucket] * 1_000_000) {
+            bucket++;
+        }
+        counts[bucket].increment();
+        totalNanos.add(nanos);
+        maxNanos.accumulate(nanos);
+    }
+
+    LatencyStats snapshot() {
+        long[] snapshot = new long[counts.length];
+        long count = 0;
+        Map<String, Long> buckets = new LinkedHashMap<>();
+        for (int i = 0; i < counts.length; i++) {
+            snapshot[i] = counts[i].sum();
+            count += snapshot[i];
+            buckets.put(i < BOUNDS_MILLIS.length ? String.valueOf(BOUNDS_MILLIS[i]) : "+Inf", snapshot[i]);
+        }
+        double maxMillis = maxNanos.get() / 1e6;
+        double meanMillis = count == 0 ? 0 : totalNanos.sum() / 1e6 / count;
+        return new LatencyStats(count, meanMillis, percentile(snapshot, count, 0.50, maxMillis),
+                percentile(snapshot, count, 0.95, maxMillis), percentile(snapshot, count, 0.99, maxMillis),
+                maxMillis, buckets);
+    }
+
+    // The upper bound of the bucket holding the requested rank, never more than the largest value seen.
+    private static double percentile(long[] counts, long total, double quantile, double maxMillis) {
+        long rank = (long) Math.ceil(quantile * total);
+        long seen = 0;
+        for (int i = 0; i < BOUNDS_MILLIS.length && total > 0; i++) {
+            seen += counts[i];
+            if (seen >= rank) {
+                return Math.min(BOUNDS_MILLIS[i], maxMillis);
+            }
+        }
+        return maxMillis;
+    }
+}
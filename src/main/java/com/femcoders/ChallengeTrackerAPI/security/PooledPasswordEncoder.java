@@ -0,0 +1,116 @@
+package com.femcoders.ChallengeTrackerAPI.security;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.password.PasswordHashingStats;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+// BCrypt is slow on purpose, so every hash and check (signups, password changes and /login through
+// the authentication provider) runs on a small pool of its own. The caller still waits for the
+// result, but only the pool burns CPU, and the bounded queue caps how many request threads can be
+// parked behind it: once it is full the request is rejected with a 503 straight away, and the
+// remaining request threads stay free for cheap reads.
+@Component
+public class PooledPasswordEncoder implements PasswordEncoder {
+    private static final Pattern BCRYPT_COST = Pattern.compile("^\\$2[aby]?\\$(\\d\\d)\\$");
+
+    private final PasswordEncoder delegate;
+    private final int cost;
+    private final int queueCapacity;
+    private final ThreadPoolExecutor executor;
+    private final LatencyHistogram queueWait = new LatencyHistogram();
+    private final LatencyHistogram hashTime = new LatencyHistogram();
+    private final LongAdder rejected = new LongAdder();
+
+    @Autowired
+    public PooledPasswordEncoder(@Value("${passwords.bcrypt.cost:12}") int cost,
+                                 @Value("${passwords.hashing.threads:4}") int threads,
+                                 @Value("${passwords.hashing.queue-capacity:50}") int queueCapacity) {
+        this(new BCryptPasswordEncoder(cost), cost, threads, queueCapacity);
+    }
+
+    PooledPasswordEncoder(PasswordEncoder delegate, int cost, int threads, int queueCapacity) {
+        this.delegate = delegate;
+        this.cost = cost;
+        this.queueCapacity = queueCapacity;
+        this.executor = new ThreadPoolExecutor(threads, threads, 0L, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), Thread.ofPlatform().name("password-hashing-", 0).factory());
+    }
+
+    @Override
+    public String encode(CharSequence rawPassword) {
+        return run(() -> delegate.encode(rawPassword));
+    }
+
+    @Override
+    public boolean matches(CharSequence rawPassword, String encodedPassword) {
+        return run(() -> delegate.matches(rawPassword, encodedPassword));
+    }
+
+    // Any other cost, lower or higher, is rehashed after the next successful login, so the cost
+    // can be turned down again if logins get too expensive.
+    @Override
+    public boolean upgradeEncoding(String encodedPassword) {
+        if (encodedPassword == null) {
+            return false;
+        }
+        Matcher matcher = BCRYPT_COST.matcher(encodedPassword);
+        return matcher.find() && Integer.parseInt(matcher.group(1)) != cost;
+    }
+
+    public PasswordHashingStats getStats() {
+        return new PasswordHashingStats(cost, executor.getMaximumPoolSize(), executor.getActiveCount(),
+                executor.getQueue().size(), queueCapacity, executor.getCompletedTaskCount(), rejected.sum(),
+                queueWait.snapshot(), hashTime.snapshot());
+    }
+
+    @PreDestroy
+    void shutdown() {
+        executor.shutdownNow();
+    }
+
+    private <T> T run(Supplier<T> hashing) {
+        long submitted = System.nanoTime();
+        Future<T> result;
+        try {
+            result = executor.submit(() -> {
+                long started = System.nanoTime();
+                queueWait.record(started - submitted);
+                try {
+                    return hashing.get();
+                } finally {
+                    hashTime.record(System.nanoTime() - started);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            rejected.increment();
+            throw new RejectedExecutionException("Too many password checks are waiting, try again later", e);
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting for a password hash", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+}
@@ -31,17 +31,36 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.POST, "/register").permitAll()
                         .requestMatchers(HttpMethod.POST, "/login").permitAll()
                         .requestMatchers(HttpMethod.GET, "/challenges").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/challenges/export").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/challenges/events").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/challenges/changes").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/challenges/search").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/challenges/stats").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/challenges/cache/stats").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/challenges/imports").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/challenges/imports/**").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/challenges/{id}").permitAll()
                         .requestMatchers(HttpMethod.GET, "/challenges/user/{id}").permitAll()
                         .requestMatchers(HttpMethod.POST, "/challenges").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/challenges/batch").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.POST, "/challenges/bulk-delete").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/challenges").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/challenges/status").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.PATCH, "/challenges/{id}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/challenges").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/leaderboard").permitAll()
+                        .requestMatchers(HttpMethod.GET, "/leaderboard/me").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/users/all").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/users/available").permitAll()
                         .requestMatchers(HttpMethod.GET, "/users/{id}").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/users/{id}/stats").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.GET, "/users/username/{username}").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.POST, "/users/create").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.PUT, "/users/update/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers(HttpMethod.DELETE, "/users/delete/{id}").hasAnyRole("USER", "ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/outbox/stats").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/purge/stats").hasRole("ADMIN")
+                        .requestMatchers(HttpMethod.GET, "/passwords/stats").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/roles").hasRole("ADMIN")
                         .requestMatchers(HttpMethod.GET, "/roles/{id}").hasRole("ADMIN")
                         .anyRequest().authenticated()
@@ -0,0 +1,83 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengesArchivedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+// Moves finished challenges that have not changed for min-age into archived_challenges, so the
+// live table and its indexes only hold challenges that are still being worked on. Each batch is
+// copied with INSERT ... SELECT and deleted in the same transaction. Like the purge, it runs in
+// the off-peak window and stops after max-run-time.
+@Slf4j
+@Component
+public class ChallengeArchiver {
+    static final List<Status> FINISHED_STATUSES = List.of(Status.COMPLETED_SATISFACTORILY, Status.NOT_COMPLETED_SATISFACTORILY);
+
+    private final ChallengeRepository challengeRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+    private final Duration minAge;
+    private final int batchSize;
+    private final Duration maxRunTime;
+
+    public ChallengeArchiver(ChallengeRepository challengeRepository, ArchivedChallengeRepository archivedChallengeRepository,
+                             ApplicationEventPublisher eventPublisher, TransactionTemplate transactionTemplate,
+                             @Value("${archive.min-age:P90D}") Duration minAge,
+                             @Value("${archive.batch-size:500}") int batchSize,
+                             @Value("${archive.max-run-time:PT5S}") Duration maxRunTime) {
+        this.challengeRepository = challengeRepository;
+        this.archivedChallengeRepository = archivedChallengeRepository;
+        this.eventPublisher = eventPublisher;
+        this.transactionTemplate = transactionTemplate;
+        this.minAge = minAge;
+        this.batchSize = batchSize;
+        this.maxRunTime = maxRunTime;
+    }
+
+    @Scheduled(cron = "${archive.cron:15 * 1-4 * * *}")
+    public int archive() {
+        long deadline = System.nanoTime() + maxRunTime.toNanos();
+        Instant before = Instant.now().minus(minAge);
+        int archived = 0;
+        int moved;
+        do {
+            moved = archiveBatch(before);
+            archived += moved;
+        } while (moved == batchSize && System.nanoTime() < deadline);
+        if (archived > 0) {
+            log.info("Archived {} finished challenges last updated before {}", archived, before);
+        }
+        return archived;
+    }
+
+    int archiveBatch(Instant before) {
+        Integer moved = transactionTemplate.execute(status -> {
+            List<ChallengeSnapshot> batch = challengeRepository.lockArchivable(FINISHED_STATUSES, before, Limit.of(batchSize));
+            if (batch.isEmpty()) {
+                return 0;
+            }
+            List<Long> ids = batch.stream()
+                    .map(ChallengeSnapshot::id)
+                    .toList();
+            archivedChallengeRepository.insertFromChallenges(ids, Instant.now());
+            challengeRepository.deleteArchivedByIdIn(ids);
+            eventPublisher.publishEvent(new ChallengesArchivedEvent(batch));
+            return batch.size();
+        });
+        return moved == null ? 0 : moved;
+    }
+}
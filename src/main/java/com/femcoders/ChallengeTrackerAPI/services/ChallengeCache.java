@@ -0,0 +1,117 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCacheStats;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent.ChangeType;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengesArchivedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+
+@Component
+public class ChallengeCache {
+    private final int maxSize;
+    private final long ttlNanos;
+    private final LongSupplier ticker;
+    private final LinkedHashMap<Long, Entry> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private long generation;
+
+    private record Entry(VersionedChallenge value, long expiresAt) {
+    }
+
+    @Autowired
+    public ChallengeCache(@Value("${challenges.cache.max-size:1000}") int maxSize,
+                          @Value("${challenges.cache.ttl:PT5M}") Duration ttl) {
+        this(maxSize, ttl, System::nanoTime);
+    }
+
+    ChallengeCache(int maxSize, Duration ttl, LongSupplier ticker) {
+        if (maxSize < 1 || ttl.isNegative() || ttl.isZero()) {
+            throw new IllegalArgumentException("Challenge cache needs a positive size and TTL");
+        }
+        this.maxSize = maxSize;
+        this.ttlNanos = ttl.toNanos();
+        this.ticker = ticker;
+    }
+
+    public Optional<VersionedChallenge> get(Long id, Function<Long, Optional<VersionedChallenge>> loader) {
+        long loadGeneration;
+        synchronized (this) {
+            Entry entry = entries.get(id);
+            if (entry != null) {
+                if (entry.expiresAt() - ticker.getAsLong() > 0) {
+                    hits.increment();
+                    return Optional.of(entry.value());
+                }
+                entries.remove(id);
+                evictions.increment();
+            }
+            loadGeneration = generation;
+        }
+        misses.increment();
+        Optional<VersionedChallenge> loaded = loader.apply(id);
+        loaded.ifPresent(value -> put(id, value, loadGeneration));
+        return loaded;
+    }
+
+    // A load that overlapped an invalidation may have read the old row, so it is not cached.
+    private synchronized void put(Long id, VersionedChallenge value, long loadGeneration) {
+        if (loadGeneration != generation) {
+            return;
+        }
+        entries.put(id, new Entry(value, ticker.getAsLong() + ttlNanos));
+        Iterator<Map.Entry<Long, Entry>> eldest = entries.entrySet().iterator();
+        while (entries.size() > maxSize) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    public synchronized void invalidate(Long id) {
+        generation++;
+        entries.remove(id);
+    }
+
+    public synchronized void invalidateAll() {
+        generation++;
+        entries.clear();
+    }
+
+    public synchronized ChallengeCacheStats stats() {
+        return new ChallengeCacheStats(hits.sum(), misses.sum(), evictions.sum(), entries.size());
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        invalidate(event.challengeId());
+    }
+
+    @TransactionalEventListener
+    public void onChallengesArchived(ChallengesArchivedEvent event) {
+        event.challenges().forEach(challenge -> invalidate(challenge.id()));
+    }
+
+    // Challenge responses embed the owner's username.
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        if (event.type() != ChangeType.CREATED) {
+            invalidateAll();
+        }
+    }
+}
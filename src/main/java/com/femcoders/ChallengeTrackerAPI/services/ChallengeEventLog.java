@@ -0,0 +1,70 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStreamEvent;
+
+import java.util.ArrayList;
+import java.util.List;
+
+// Fixed-size ring of the latest stream events, addressed by sequence number. Event ids
+// carry the boot epoch so an id from before a restart is never mistaken for a current one.
+final class ChallengeEventLog {
+    static final long UNKNOWN = -1L;
+
+    record Entry(long sequence, ChallengeStreamEvent event) {
+    }
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final Entry[] ring;
+    private long head;
+
+    ChallengeEventLog(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("The event buffer needs room for at least one event");
+        }
+        ring = new Entry[capacity];
+    }
+
+    synchronized long append(ChallengeStreamEvent event) {
+        head++;
+        ring[(int) (head % ring.length)] = new Entry(head, event);
+        return head;
+    }
+
+    synchronized long head() {
+        return head;
+    }
+
+    // Events published after the cursor, or null when some of them have already been overwritten.
+    synchronized List<Entry> after(long cursor) {
+        if (cursor < 0 || cursor < head - ring.length) {
+            return null;
+        }
+        List<Entry> entries = new ArrayList<>((int) (head - cursor));
+        for (long sequence = cursor + 1; sequence <= head; sequence++) {
+            entries.add(ring[(int) (sequence % ring.length)]);
+        }
+        return entries;
+    }
+
+    String id(long sequence) {
+        return epoch + "-" + sequence;
+    }
+
+    // Where to resume for a Last-Event-ID header: the head when there is none, UNKNOWN when
+    // the id was not issued by this ring.
+    long cursorOf(String lastEventId) {
+        if (lastEventId == null || lastEventId.isBlank()) {
+            return head();
+        }
+        int separator = lastEventId.lastIndexOf('-');
+        if (separator < 0 || !lastEventId.substring(0, separator).equals(epoch)) {
+            return UNKNOWN;
+        }
+        try {
+            long sequence = Long.parseLong(lastEventId.substring(separator + 1));
+            return sequence >= 0 && sequence <= head() ? sequence : UNKNOWN;
+        } catch (NumberFormatException e) {
+            return UNKNOWN;
+        }
+    }
+}
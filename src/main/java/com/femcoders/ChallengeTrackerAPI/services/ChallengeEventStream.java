@@ -0,0 +1,142 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStreamEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Pushes committed challenge changes to SSE subscribers. Emitters are async requests, so an
+// idle subscriber holds no thread, and sends run on virtual threads. A subscriber is only a
+// cursor into the shared ring: a slow client costs no memory, and one that falls a whole
+// ring behind gets a reset event telling it to reload the list.
+@Slf4j
+@Component
+public class ChallengeEventStream {
+    public static final String RESET_EVENT = "reset";
+
+    private final ChallengeEventLog events;
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService senders = Executors.newVirtualThreadPerTaskExecutor();
+
+    public ChallengeEventStream(@Value("${challenges.events.buffer-size:1024}") int bufferSize) {
+        this.events = new ChallengeEventLog(bufferSize);
+    }
+
+    public SseEmitter subscribe(Long userId, String lastEventId) {
+        SseEmitter emitter = new SseEmitter();
+        Subscriber subscriber = new Subscriber(emitter, userId, events.cursorOf(lastEventId));
+        emitter.onCompletion(() -> subscribers.remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(e -> subscribers.remove(subscriber));
+        subscribers.add(subscriber);
+        // Replays whatever was published after Last-Event-ID, including anything since the cursor was read.
+        subscriber.schedule();
+        return emitter;
+    }
+
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        events.append(ChallengeStreamEvent.of(event));
+        subscribers.forEach(Subscriber::schedule);
+    }
+
+    // Comments keep idle connections from being closed by proxies and reveal clients that went away.
+    @Scheduled(fixedDelayString = "${challenges.events.heartbeat-interval:PT30S}",
+            initialDelayString = "${challenges.events.heartbeat-interval:PT30S}")
+    public void heartbeat() {
+        subscribers.forEach(Subscriber::heartbeat);
+    }
+
+    @PreDestroy
+    void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        senders.shutdownNow();
+    }
+
+    private final class Subscriber {
+        private final SseEmitter emitter;
+        private final Long userId;
+        private final AtomicInteger pending = new AtomicInteger();
+        private volatile boolean heartbeatDue;
+        // Only read and written by drain, which never runs twice at the same time.
+        private long cursor;
+
+        Subscriber(SseEmitter emitter, Long userId, long cursor) {
+            this.emitter = emitter;
+            this.userId = userId;
+            this.cursor = cursor;
+        }
+
+        void schedule() {
+            if (pending.getAndIncrement() == 0) {
+                senders.execute(this::drain);
+            }
+        }
+
+        void heartbeat() {
+            heartbeatDue = true;
+            schedule();
+        }
+
+        private void drain() {
+            int seen = pending.get();
+            do {
+                try {
+                    send();
+                } catch (IOException | IllegalStateException e) {
+                    // The client went away or the emitter already completed.
+                    subscribers.remove(this);
+                    pending.set(0);
+                    return;
+                }
+            } while ((seen = pending.addAndGet(-seen)) != 0);
+        }
+
+        private void send() throws IOException {
+            boolean sent = false;
+            List<ChallengeEventLog.Entry> entries = events.after(cursor);
+            if (entries == null) {
+                cursor = events.head();
+                emitter.send(SseEmitter.event().id(events.id(cursor)).name(RESET_EVENT).data(""));
+                sent = true;
+                // Anything published since reading the head has scheduled another pass.
+                entries = List.of();
+            }
+            for (ChallengeEventLog.Entry entry : entries) {
+                ChallengeStreamEvent event = entry.event();
+                if (userId == null || userId.equals(event.userId())) {
+                    emitter.send(SseEmitter.event()
+                            .id(events.id(entry.sequence()))
+                            .name(event.type().name().toLowerCase(Locale.ROOT))
+                            .data(event));
+                    sent = true;
+                }
+                cursor = entry.sequence();
+            }
+            if (heartbeatDue) {
+                heartbeatDue = false;
+                if (!sent) {
+                    emitter.send(SseEmitter.event().comment("heartbeat"));
+                }
+            }
+        }
+    }
+}
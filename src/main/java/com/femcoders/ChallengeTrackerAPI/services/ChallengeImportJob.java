@@ -0,0 +1,97 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportFormat;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportStatus;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportStatus.State;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Progress of one import. Only the first MAX_REPORTED_ERRORS errors are kept; the
+// failed counter still covers all of them.
+final class ChallengeImportJob {
+    static final int MAX_REPORTED_ERRORS = 1000;
+
+    private final String id;
+    private final ChallengeImportFormat format;
+    private final long totalBytes;
+    private final AtomicLong bytesRead = new AtomicLong();
+    private final AtomicLong processed = new AtomicLong();
+    private final AtomicLong imported = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private final List<ChallengeBatchError> errors = new ArrayList<>();
+    private volatile State state = State.QUEUED;
+    private volatile Instant startedAt;
+    private volatile Instant finishedAt;
+    private volatile String failure;
+
+    ChallengeImportJob(String id, ChallengeImportFormat format, long totalBytes) {
+        this.id = id;
+        this.format = format;
+        this.totalBytes = totalBytes;
+    }
+
+    String id() {
+        return id;
+    }
+
+    ChallengeImportFormat format() {
+        return format;
+    }
+
+    void start() {
+        startedAt = Instant.now();
+        state = State.RUNNING;
+    }
+
+    synchronized void complete() {
+        if (state == State.RUNNING) {
+            finishedAt = Instant.now();
+            state = State.COMPLETED;
+        }
+    }
+
+    synchronized void fail(String reason) {
+        if (state == State.RUNNING || state == State.QUEUED) {
+            failure = reason;
+            finishedAt = Instant.now();
+            state = State.FAILED;
+        }
+    }
+
+    boolean isFailed() {
+        return state == State.FAILED;
+    }
+
+    void bytesRead(long count) {
+        bytesRead.addAndGet(count);
+    }
+
+    void recordProcessed() {
+        processed.incrementAndGet();
+    }
+
+    void recordImported(int count) {
+        imported.addAndGet(count);
+    }
+
+    synchronized void recordError(int index, Map<String, String> details) {
+        failed.incrementAndGet();
+        if (errors.size() < MAX_REPORTED_ERRORS) {
+            errors.add(new ChallengeBatchError(index, details));
+        }
+    }
+
+    synchronized List<ChallengeBatchError> errors() {
+        return List.copyOf(errors);
+    }
+
+    ChallengeImportStatus status() {
+        return new ChallengeImportStatus(id, format, state, bytesRead.get(), totalBytes, processed.get(), imported.get(),
+                failed.get(), startedAt, finishedAt, failure);
+    }
+}
@@ -0,0 +1,445 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportFormat;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportRecord;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportStatus;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PayloadTooLargeException;
+import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import jakarta.annotation.PreDestroy;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+// Imports run one at a time as a three stage pipeline: parse and validate on the job thread,
+// resolve owners and insert batches on two stage threads. The stages hand over batches through
+// small bounded queues, so a slow database makes the parser wait instead of buffering the file.
+// The upload is spooled to a temporary file first, which keeps the heap independent of its size
+// and lets the request return while the import runs. A slot in the queue is taken before a byte
+// is read, so a full queue turns an upload away at once, and the file is capped at MAX_UPLOAD_BYTES.
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ChallengeImportService {
+    public static final int IMPORT_BATCH_SIZE = 500;
+    public static final int MAX_QUEUED_IMPORTS = 4;
+    public static final long MAX_UPLOAD_BYTES = 256L * 1024 * 1024;
+    static final int MAX_RECORD_LENGTH = 8192;
+    static final int OWNER_CACHE_SIZE = 1024;
+    private static final int STAGE_QUEUE_CAPACITY = 2;
+    private static final int RETAINED_IMPORTS = 20;
+    private static final long STAGE_POLL_MILLIS = 200;
+    private static final long UNKNOWN_USER = -1L;
+    private static final Set<String> CSV_COLUMNS = Set.of("username", "title", "description", "status", "classification", "difficultyLevel", "prize");
+
+    private final ChallengeRepository challengeRepository;
+    private final UserRepository userRepository;
+    private final ChallengeMapperImpl challengeMapperImpl;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    private final ExecutorService jobExecutor = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+            new ArrayBlockingQueue<>(MAX_QUEUED_IMPORTS), Thread.ofPlatform().name("challenge-import-", 0).factory());
+    private final ExecutorService stageExecutor = Executors.newFixedThreadPool(2,
+            Thread.ofPlatform().name("challenge-import-stage-", 0).factory());
+    // One permit for the running import and one per queue slot, so execute() is never rejected.
+    private final Semaphore admissions = new Semaphore(MAX_QUEUED_IMPORTS + 1);
+    private final Map<String, ChallengeImportJob> jobs = Collections.synchronizedMap(new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<String, ChallengeImportJob> eldest) {
+            return size() > RETAINED_IMPORTS;
+        }
+    });
+
+    private record ParsedRow(int index, String username, ChallengeRequest request) {
+    }
+
+    private record OwnedRow(int index, long userId, ChallengeRequest request) {
+    }
+
+    private record RawRecord(ObjectNode fields, String problem) {
+    }
+
+    private interface RecordSource {
+        RawRecord next() throws IOException;
+    }
+
+    private interface Stage {
+        void run() throws Exception;
+    }
+
+    // contentLength is -1 when the client did not declare one; the copy enforces the cap either way.
+    public ChallengeImportStatus startImport(InputStream body, long contentLength, ChallengeImportFormat format) throws IOException {
+        if (contentLength > MAX_UPLOAD_BYTES) {
+            throw tooLarge();
+        }
+        if (!admissions.tryAcquire()) {
+            throw new RejectedExecutionException("Too many imports are waiting, try again later");
+        }
+        Path file = null;
+        try {
+            file = Files.createTempFile("challenge-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            long size = spool(body, file);
+            ChallengeImportJob job = new ChallengeImportJob(UUID.randomUUID().toString(), format, size);
+            jobs.put(job.id(), job);
+            Path spooled = file;
+            jobExecutor.execute(() -> {
+                try {
+                    runImport(job, spooled);
+                } finally {
+                    admissions.release();
+                }
+            });
+            return job.status();
+        } catch (IOException | RuntimeException e) {
+            admissions.release();
+            if (file != null) {
+                Files.deleteIfExists(file);
+            }
+            throw e;
+        }
+    }
+
+    private static long spool(InputStream body, Path file) throws IOException {
+        long written = 0;
+        try (OutputStream out = Files.newOutputStream(file)) {
+            byte[] buffer = new byte[8192];
+            int read;
+            while ((read = body.read(buffer)) != -1) {
+                written += read;
+                if (written > MAX_UPLOAD_BYTES) {
+                    throw tooLarge();
+                }
+                out.write(buffer, 0, read);
+            }
+        }
+        return written;
+    }
+
+    private static PayloadTooLargeException tooLarge() {
+        return new PayloadTooLargeException("Imports are limited to " + MAX_UPLOAD_BYTES + " bytes");
+    }
+
+    public ChallengeImportStatus getImportStatus(String id) {
+        return findJob(id).status();
+    }
+
+    public List<ChallengeBatchError> getImportErrors(String id) {
+        return findJob(id).errors();
+    }
+
+    private ChallengeImportJob findJob(String id) {
+        ChallengeImportJob job = jobs.get(id);
+        if (job == null) {
+            throw new NoSuchElementException("No import found with id " + id);
+        }
+        return job;
+    }
+
+    void runImport(ChallengeImportJob job, Path file) {
+        job.start();
+        BlockingQueue<List<ParsedRow>> parsed = new ArrayBlockingQueue<>(STAGE_QUEUE_CAPACITY);
+        BlockingQueue<List<OwnedRow>> owned = new ArrayBlockingQueue<>(STAGE_QUEUE_CAPACITY);
+        try {
+            Future<?> resolver = stageExecutor.submit(() -> runStage(job, () -> resolveOwners(job, parsed, owned)));
+            Future<?> writer = stageExecutor.submit(() -> runStage(job, () -> insertBatches(job, owned)));
+            runStage(job, () -> parse(job, file, parsed));
+            resolver.get();
+            writer.get();
+            job.complete();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import was interrupted");
+        } catch (ExecutionException e) {
+            job.fail(e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import file {}", file, e);
+            }
+        }
+        log.info("Challenge import {} finished: {}", job.id(), job.status());
+    }
+
+    private static void runStage(ChallengeImportJob job, Stage stage) {
+        try {
+            stage.run();
+        } catch (CancellationException e) {
+            // Another stage failed the job.
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.fail("Import was interrupted");
+        } catch (Exception e) {
+            log.warn("Challenge import {} failed", job.id(), e);
+            job.fail(e.getMessage());
+        }
+    }
+
+    private void parse(ChallengeImportJob job, Path file, BlockingQueue<List<ParsedRow>> parsed) throws IOException, InterruptedException {
+        try (InputStream input = new CountingInputStream(Files.newInputStream(file), job);
+             BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            ImportRecordReader records = new ImportRecordReader(reader, MAX_RECORD_LENGTH);
+            RecordSource source = job.format() == ChallengeImportFormat.CSV ? csvSource(records) : ndjsonSource(records);
+
+            List<ParsedRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+            int index = 0;
+            RawRecord record;
+            while ((record = source.next()) != null) {
+                index++;
+                job.recordProcessed();
+                ParsedRow row = validate(job, index, record);
+                if (row == null) {
+                    continue;
+                }
+                batch.add(row);
+                if (batch.size() == IMPORT_BATCH_SIZE) {
+                    put(parsed, batch, job);
+                    batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                }
+            }
+            if (!batch.isEmpty()) {
+                put(parsed, batch, job);
+            }
+        }
+        // An empty batch tells the next stage that the input is exhausted.
+        put(parsed, List.of(), job);
+    }
+
+    private RecordSource ndjsonSource(ImportRecordReader records) {
+        return () -> {
+            String line;
+            while ((line = records.nextLine()) != null) {
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    if (objectMapper.readTree(line) instanceof ObjectNode fields) {
+                        return new RawRecord(fields, null);
+                    }
+                    return new RawRecord(null, "Each line must hold one JSON object");
+                } catch (JsonProcessingException e) {
+                    return new RawRecord(null, "Malformed JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    private RecordSource csvSource(ImportRecordReader records) throws IOException {
+        List<String> header = records.nextCsvRecord();
+        List<String> columns = header == null ? List.of() : header.stream()
+                .map(column -> column.replace("\uFEFF", "").trim())
+                .toList();
+        if (!columns.containsAll(CSV_COLUMNS)) {
+            throw new IllegalArgumentException("CSV header must name the columns " + CSV_COLUMNS);
+        }
+        return () -> {
+            List<String> fields;
+            while ((fields = records.nextCsvRecord()) != null) {
+                if (fields.size() == 1 && fields.get(0).isBlank()) {
+                    continue;
+                }
+                if (fields.size() != columns.size()) {
+                    return new RawRecord(null, "Expected " + columns.size() + " fields but found " + fields.size());
+                }
+                ObjectNode node = objectMapper.createObjectNode();
+                for (int i = 0; i < columns.size(); i++) {
+                    if (CSV_COLUMNS.contains(columns.get(i))) {
+                        node.put(columns.get(i), fields.get(i));
+                    }
+                }
+                return new RawRecord(node, null);
+            }
+            return null;
+        };
+    }
+
+    private ParsedRow validate(ChallengeImportJob job, int index, RawRecord raw) {
+        if (raw.problem() != null) {
+            job.recordError(index, Map.of("record", raw.problem()));
+            return null;
+        }
+        ChallengeImportRecord record;
+        try {
+            record = objectMapper.treeToValue(raw.fields(), ChallengeImportRecord.class);
+        } catch (JsonProcessingException e) {
+            job.recordError(index, Map.of("record", "Unreadable record: " + e.getOriginalMessage()));
+            return null;
+        }
+        Map<String, String> details = new HashMap<>();
+        if (record.username() == null || record.username().isBlank()) {
+            details.put("username", "Username is required");
+        }
+        for (ConstraintViolation<ChallengeRequest> violation : validator.validate(record.request())) {
+            details.put(violation.getPropertyPath().toString(), violation.getMessage());
+        }
+        if (!details.isEmpty()) {
+            job.recordError(index, details);
+            return null;
+        }
+        return new ParsedRow(index, User.normalize(record.username()), record.request());
+    }
+
+    // Owners are looked up once per batch for the usernames the small LRU cache does not know.
+    private void resolveOwners(ChallengeImportJob job, BlockingQueue<List<ParsedRow>> parsed,
+                               BlockingQueue<List<OwnedRow>> owned) throws InterruptedException {
+        Map<String, Long> owners = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Long> eldest) {
+                return size() > OWNER_CACHE_SIZE;
+            }
+        };
+        List<ParsedRow> batch;
+        while (!(batch = take(parsed, job)).isEmpty()) {
+            Set<String> unknown = new HashSet<>();
+            for (ParsedRow row : batch) {
+                if (!owners.containsKey(row.username())) {
+                    unknown.add(row.username());
+                }
+            }
+            if (!unknown.isEmpty()) {
+                unknown.forEach(username -> owners.put(username, UNKNOWN_USER));
+                for (UsernameRow user : userRepository.findUsernamesByUsernameIn(unknown)) {
+                    owners.put(User.normalize(user.getUsername()), user.getId());
+                }
+            }
+
+            List<OwnedRow> resolved = new ArrayList<>(batch.size());
+            for (ParsedRow row : batch) {
+                long userId = owners.getOrDefault(row.username(), UNKNOWN_USER);
+                if (userId == UNKNOWN_USER) {
+                    job.recordError(row.index(), Map.of("username", "No user found with username " + row.username()));
+                } else {
+                    resolved.add(new OwnedRow(row.index(), userId, row.request()));
+                }
+            }
+            if (!resolved.isEmpty()) {
+                put(owned, resolved, job);
+            }
+        }
+        put(owned, List.of(), job);
+    }
+
+    private void insertBatches(ChallengeImportJob job, BlockingQueue<List<OwnedRow>> owned) throws InterruptedException {
+        List<OwnedRow> batch;
+        while (!(batch = take(owned, job)).isEmpty()) {
+            List<OwnedRow> rows = batch;
+            try {
+                transactionTemplate.executeWithoutResult(status -> {
+                    List<Challenge> challenges = rows.stream()
+                            .map(row -> challengeMapperImpl.dtoToEntity(row.request(), userRepository.getReferenceById(row.userId())))
+                            .toList();
+                    challengeRepository.saveAll(challenges).forEach(challenge ->
+                            eventPublisher.publishEvent(ChallengeChangedEvent.created(ChallengeSnapshot.of(challenge))));
+                });
+                job.recordImported(rows.size());
+            } catch (DataAccessException e) {
+                String reason = "Batch could not be stored: " + NestedExceptionUtils.getMostSpecificCause(e).getMessage();
+                rows.forEach(row -> job.recordError(row.index(), Map.of("challenge", reason)));
+            }
+        }
+    }
+
+    private static <T> void put(BlockingQueue<T> queue, T item, ChallengeImportJob job) throws InterruptedException {
+        while (!queue.offer(item, STAGE_POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+            if (job.isFailed()) {
+                throw new CancellationException();
+            }
+        }
+    }
+
+    private static <T> T take(BlockingQueue<T> queue, ChallengeImportJob job) throws InterruptedException {
+        T item;
+        while ((item = queue.poll(STAGE_POLL_MILLIS, TimeUnit.MILLISECONDS)) == null) {
+            if (job.isFailed()) {
+                throw new CancellationException();
+            }
+        }
+        return item;
+    }
+
+    private static final class CountingInputStream extends FilterInputStream {
+        private final ChallengeImportJob job;
+
+        CountingInputStream(InputStream in, ChallengeImportJob job) {
+            super(in);
+            this.job = job;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b != -1) {
+                job.bytesRead(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int count = super.read(buffer, offset, length);
+            if (count > 0) {
+                job.bytesRead(count);
+            }
+            return count;
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        jobExecutor.shutdownNow();
+        stageExecutor.shutdownNow();
+    }
+}
@@ -0,0 +1,386 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengesArchivedEvent;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import jakarta.transaction.Transactional;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Objects;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+@Component
+@RequiredArgsConstructor
+public class ChallengeSearchIndex {
+    private static final int TITLE_WEIGHT = 2;
+    private static final int DESCRIPTION_WEIGHT = 1;
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{Nd}]+");
+    private static final Set<String> STOP_WORDS = Set.of(
+            "a", "an", "and", "at", "by", "each", "every", "for", "in", "of", "on", "or", "the", "to", "with");
+
+    private final ChallengeRepository challengeRepository;
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final Map<String, Postings> postings = new HashMap<>();
+    private final Map<Long, String[]> documentTerms = new HashMap<>();
+
+    // total is exact when totalExact is set, otherwise a lower bound because pruning skipped documents.
+    public record SearchHits(long total, boolean totalExact, List<Long> ids) {
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void rebuild() {
+        lock.writeLock().lock();
+        try (Stream<ChallengeResponse> challenges = challengeRepository.streamAllResponses()) {
+            postings.clear();
+            documentTerms.clear();
+            challenges.forEach(challenge -> addDocument(challenge.id(), challenge.title(), challenge.description()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        lock.writeLock().lock();
+        try {
+            removeDocument(event.challengeId());
+            if (event.current() != null) {
+                addDocument(event.current().id(), event.current().title(), event.current().description());
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Search only covers live challenges.
+    @TransactionalEventListener
+    public void onChallengesArchived(ChallengesArchivedEvent event) {
+        lock.writeLock().lock();
+        try {
+            event.challenges().forEach(challenge -> removeDocument(challenge.id()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public SearchHits search(String query, int offset, int limit) {
+        List<String> terms = tokenize(query).stream().distinct().toList();
+        lock.readLock().lock();
+        try {
+            List<Postings> found = terms.stream()
+                    .map(postings::get)
+                    .filter(Objects::nonNull)
+                    .toList();
+            Postings[] matching = found.toArray(Postings[]::new);
+            double[] idfs = new double[matching.length];
+            for (int i = 0; i < matching.length; i++) {
+                idfs[i] = Math.log(1.0 + (double) documentTerms.size() / matching[i].size);
+            }
+            return rank(matching, idfs, offset, limit);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return documentTerms.size();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(SEPARATORS.split(normalized))
+                .filter(token -> token.length() > 1 && !STOP_WORDS.contains(token))
+                .toList();
+    }
+
+    // Block-max MaxScore over the id-sorted postings. Each term's upper bound is its largest weight
+    // times its idf. Once the heap holds a full page, terms whose bounds together cannot beat its
+    // weakest score are non-essential: a document found only in them is never a candidate, and they
+    // are only probed for candidates from the other terms. Each block of postings also records its
+    // largest weight, so runs of blocks that cannot beat the heap are skipped without scoring. A
+    // later document needs a strictly higher score to get in, since ties go to the lower id.
+    // Skipped documents are not counted, so the total then falls back to a lower bound, except for a
+    // single term whose total is its postings size.
+    // Pruning bounds the work by the candidates that can still reach the page rather than by the
+    // collection: a single term, however common, stops as soon as the page holds its best weights,
+    // which takes well under a millisecond at a million documents. Terms of similar weight prune
+    // little, so such a query still scores about every document matching all but its weakest terms,
+    // a few milliseconds when they match tens of thousands of documents.
+    private SearchHits rank(Postings[] matching, double[] idfs, int offset, int limit) {
+        int wanted = offset + limit;
+        int terms = matching.length;
+        Integer[] order = new Integer[terms];
+        double[] upperBounds = new double[terms];
+        for (int i = 0; i < terms; i++) {
+            order[i] = i;
+            upperBounds[i] = matching[i].maxWeight() * idfs[i];
+        }
+        Arrays.sort(order, (first, second) -> Double.compare(upperBounds[first], upperBounds[second]));
+        // boundBelow[k] is the most the k terms with the smallest bounds can add together.
+        double[] boundBelow = new double[terms + 1];
+        for (int k = 0; k < terms; k++) {
+            boundBelow[k + 1] = boundBelow[k] + upperBounds[order[k]];
+        }
+
+        PriorityQueue<ScoredId> top = new PriorityQueue<>();
+        int[] cursors = new int[terms];
+        double[] contributions = new double[terms];
+        double threshold = Double.NEGATIVE_INFINITY;
+        int firstEssential = 0;
+        long visited = 0;
+        boolean pruned = false;
+        while (firstEssential < terms) {
+            long candidate = Long.MAX_VALUE;
+            double blockBound = boundBelow[firstEssential];
+            long blockEnd = Long.MAX_VALUE;
+            for (int k = firstEssential; k < terms; k++) {
+                int i = order[k];
+                Postings termPostings = matching[i];
+                if (cursors[i] < termPostings.size) {
+                    candidate = Math.min(candidate, termPostings.ids[cursors[i]]);
+                    blockBound += termPostings.blockMax(cursors[i]) * idfs[i];
+                    blockEnd = Math.min(blockEnd, termPostings.blockLastId(cursors[i]));
+                }
+            }
+            if (candidate == Long.MAX_VALUE) {
+                break;
+            }
+            if (cannotBeat(blockBound, threshold, terms)) {
+                for (int k = firstEssential; k < terms; k++) {
+                    int i = order[k];
+                    cursors[i] = matching[i].advance(cursors[i], blockEnd + 1);
+                }
+                pruned = true;
+                continue;
+            }
+
+            visited++;
+            double partial = 0;
+            for (int k = firstEssential; k < terms; k++) {
+                int i = order[k];
+                Postings termPostings = matching[i];
+                if (cursors[i] < termPostings.size && termPostings.ids[cursors[i]] == candidate) {
+                    contributions[i] = termPostings.weights[cursors[i]] * idfs[i];
+                    partial += contributions[i];
+                    cursors[i]++;
+                }
+            }
+            boolean beatable = true;
+            for (int k = firstEssential - 1; k >= 0; k--) {
+                if (cannotBeat(partial + boundBelow[k + 1], threshold, terms)) {
+                    beatable = false;
+                    break;
+                }
+                int i = order[k];
+                Postings termPostings = matching[i];
+                cursors[i] = termPostings.advance(cursors[i], candidate);
+                if (cursors[i] < termPostings.size && termPostings.ids[cursors[i]] == candidate) {
+                    contributions[i] = termPostings.weights[cursors[i]] * idfs[i];
+                    partial += contributions[i];
+                    cursors[i]++;
+                }
+            }
+            // Summed in query order, so a document scores the same however it was reached.
+            double score = 0;
+            for (int i = 0; i < terms; i++) {
+                score += contributions[i];
+                contributions[i] = 0;
+            }
+            if (!beatable) {
+                continue;
+            }
+            if (top.size() < wanted) {
+                top.add(new ScoredId(candidate, score));
+            } else if (top.peek().score() < score) {
+                top.poll();
+                top.add(new ScoredId(candidate, score));
+            }
+            if (top.size() == wanted) {
+                threshold = top.peek().score();
+                while (firstEssential < terms && cannotBeat(boundBelow[firstEssential + 1], threshold, terms)) {
+                    firstEssential++;
+                    pruned = true;
+                }
+            }
+        }
+
+        List<ScoredId> ranked = new ArrayList<>(top);
+        ranked.sort(Collections.reverseOrder());
+        List<Long> ids = ranked.stream()
+                .skip(offset)
+                .map(ScoredId::id)
+                .toList();
+        if (terms == 1) {
+            return new SearchHits(matching[0].size, true, ids);
+        }
+        if (pruned) {
+            long largest = Arrays.stream(matching).mapToLong(termPostings -> termPostings.size).max().orElse(0);
+            return new SearchHits(Math.max(visited, largest), false, ids);
+        }
+        return new SearchHits(visited, true, ids);
+    }
+
+    // Bounds of several terms are summed in another order than scores, so they get a few ulps of room
+    // for rounding. A single term's bound is computed exactly like its scores and needs none.
+    private static boolean cannotBeat(double bound, double threshold, int terms) {
+        return bound + 2 * (terms - 1) * Math.ulp(bound) <= threshold;
+    }
+
+    private void addDocument(Long id, String title, String description) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        tokenize(title).forEach(term -> weights.merge(term, TITLE_WEIGHT, Integer::sum));
+        tokenize(description).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        weights.forEach((term, weight) -> postings.computeIfAbsent(term, key -> new Postings()).add(id, weight));
+        documentTerms.put(id, weights.keySet().toArray(String[]::new));
+    }
+
+    private void removeDocument(Long id) {
+        String[] terms = documentTerms.remove(id);
+        if (terms == null) {
+            return;
+        }
+        for (String term : terms) {
+            Postings termPostings = postings.get(term);
+            if (termPostings != null && termPostings.remove(id) && termPostings.size == 0) {
+                postings.remove(term);
+            }
+        }
+    }
+
+    private record ScoredId(long id, double score) implements Comparable<ScoredId> {
+        @Override
+        public int compareTo(ScoredId other) {
+            int byScore = Double.compare(score, other.score);
+            return (byScore != 0) ? byScore : Long.compare(other.id, id);
+        }
+    }
+
+    // Id-sorted postings with the largest weight of every block of BLOCK_SIZE entries. Appends only
+    // touch the last block; an insert or removal in the middle recomputes the blocks it shifted.
+    private static final class Postings {
+        private static final int BLOCK_SIZE = 64;
+
+        private long[] ids = new long[4];
+        private int[] weights = new int[4];
+        private int[] blockMaxes = new int[1];
+        private int size;
+        private int maxWeight;
+
+        void add(long id, int weight) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position >= 0) {
+                int previous = weights[position];
+                weights[position] = weight;
+                updateBlocks(position, previous);
+                return;
+            }
+            int insertAt = -position - 1;
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                weights = Arrays.copyOf(weights, size * 2);
+                blockMaxes = Arrays.copyOf(blockMaxes, (size * 2 + BLOCK_SIZE - 1) / BLOCK_SIZE);
+            }
+            System.arraycopy(ids, insertAt, ids, insertAt + 1, size - insertAt);
+            System.arraycopy(weights, insertAt, weights, insertAt + 1, size - insertAt);
+            ids[insertAt] = id;
+            weights[insertAt] = weight;
+            size++;
+            updateBlocks(insertAt, 0);
+        }
+
+        boolean remove(long id) {
+            int position = Arrays.binarySearch(ids, 0, size, id);
+            if (position < 0) {
+                return false;
+            }
+            int previous = weights[position];
+            System.arraycopy(ids, position + 1, ids, position, size - position - 1);
+            System.arraycopy(weights, position + 1, weights, position, size - position - 1);
+            size--;
+            updateBlocks(position, previous);
+            return true;
+        }
+
+        int maxWeight() {
+            return maxWeight;
+        }
+
+        int blockMax(int position) {
+            return blockMaxes[position / BLOCK_SIZE];
+        }
+
+        long blockLastId(int position) {
+            return ids[Math.min(size, (position / BLOCK_SIZE + 1) * BLOCK_SIZE) - 1];
+        }
+
+        // First position at or after from whose id is at least target, galloping then bisecting.
+        int advance(int from, long target) {
+            if (from >= size || ids[from] >= target) {
+                return from;
+            }
+            int step = 1;
+            int low = from;
+            int high = from + 1;
+            while (high < size && ids[high] < target) {
+                low = high;
+                step <<= 1;
+                high = from + step;
+            }
+            int position = Arrays.binarySearch(ids, low + 1, Math.min(high, size), target);
+            return position >= 0 ? position : -position - 1;
+        }
+
+        // Entries from position on may have moved, and previous is the weight that was replaced or removed.
+        private void updateBlocks(int position, int previous) {
+            int lastBlock = size == 0 ? -1 : (size - 1) / BLOCK_SIZE;
+            for (int block = position / BLOCK_SIZE; block <= lastBlock; block++) {
+                int end = Math.min(size, (block + 1) * BLOCK_SIZE);
+                int max = 0;
+                for (int i = block * BLOCK_SIZE; i < end; i++) {
+                    max = Math.max(max, weights[i]);
+                }
+                blockMaxes[block] = max;
+            }
+            if (position < size) {
+                maxWeight = Math.max(maxWeight, weights[position]);
+            }
+            if (previous == maxWeight) {
+                maxWeight = 0;
+                for (int block = 0; block <= lastBlock; block++) {
+                    maxWeight = Math.max(maxWeight, blockMaxes[block]);
+                }
+            }
+        }
+    }
+}
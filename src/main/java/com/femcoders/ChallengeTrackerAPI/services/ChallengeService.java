@@ -1,30 +1,92 @@
 package com.femcoders.ChallengeTrackerAPI.services;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkUpdateResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCacheStats;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCursor;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeFilter;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengePage;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSearchResult;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatusTransitionRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.exceptions.ConflictException;
 import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PreconditionFailedException;
 import com.femcoders.ChallengeTrackerAPI.models.Challenge;
 import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
 import jakarta.transaction.Transactional;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.context.SecurityContextHolder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.security.access.AccessDeniedException;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.Instant;
 import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
 public class ChallengeService {
+    public static final int MAX_PAGE_SIZE = 100;
+    // Deepest result a search page may reach; the ranking heap holds every result up to it.
+    public static final int MAX_SEARCH_WINDOW = 10_000;
+    public static final int MAX_BATCH_SIZE = 1000;
+    public static final int BULK_UPDATE_CHUNK_SIZE = 1000;
+    public static final int BULK_DELETE_CHUNK_SIZE = 500;
+    private static final Set<String> PATCHABLE_FIELDS = Set.of("title", "description", "status", "classification", "difficultyLevel", "prize");
+
     private final ChallengeRepository challengeRepository;
+    private final ChallengeTombstoneRepository challengeTombstoneRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
     private final ChallengeMapperImpl challengeMapperImpl;
     private final UserRepository userRepository;
+    private final ObjectMapper objectMapper;
+    private final ChallengeSearchIndex challengeSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChallengeStatistics challengeStatistics;
+    private final ResourceVersions resourceVersions;
+    private final ChallengeCache challengeCache;
+    private final Validator validator;
+    private final TransactionTemplate transactionTemplate;
 
     private void validateUser(UserDetail userDetails)  {
         if (userDetails == null || userDetails.getUsername() == null) {
@@ -32,82 +94,281 @@ public class ChallengeService {
         }
     }
 
+    private boolean isAdmin(UserDetail userDetails) {
+        return userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"));
+    }
+
     private void checkOwnership(Challenge challenge, UserDetail userDetails) {
-        if (userDetails.getAuthorities().stream().anyMatch(a -> a.getAuthority().equals("ROLE_ADMIN"))) {
+        checkOwnership(challenge.getUser().getUsername(), userDetails);
+    }
+
+    private void checkOwnership(String ownerUsername, UserDetail userDetails) {
+        if (isAdmin(userDetails)) {
             return;
         }
-        if (!userDetails.getUsername().equals(challenge.getUser().getUsername())) {
+        if (!userDetails.getUsername().equals(ownerUsername)) {
             throw new AccessDeniedException("You are not authorized to perform this action on this challenge.");
         }
     }
 
+    // Normalized the way getChallengesStartingWithCurrentUser reads them, so equivalent cursors share a tag.
+    public String getChallengeListETag(ChallengeFilter filter, String after, int limit, boolean includeArchived) {
+        ChallengeCursor cursor = ChallengeCursor.decode(after);
+        String query = filter.status() + "." + filter.classification() + "." + filter.difficultyLevel()
+                + "." + cursor.bucket() + "." + cursor.lastId() + "." + limit + (includeArchived ? ".all" : ".live");
+        return resourceVersions.challengeListETag(getCurrentUserId(), query);
+    }
+
     public List<ChallengeResponse> getAllChallenges() {
-        List<Challenge> challenges = challengeRepository.findAll();
-        return challenges.stream()
-                .map(challenge -> challengeMapperImpl.entityToDto(challenge))
-                .toList();
+        return challengeRepository.findAllResponses();
     }
 
-    public List<ChallengeResponse> getChallengesStartingWithCurrentUser() {
-        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+    public ChallengePage getChallengesStartingWithCurrentUser(String after, int limit) {
+        return getChallengesStartingWithCurrentUser(ChallengeFilter.NONE, after, limit);
+    }
 
-        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof UserDetail)) {
-            return getAllChallenges();
+    public ChallengePage getChallengesStartingWithCurrentUser(ChallengeFilter filter, String after, int limit) {
+        return getChallengesStartingWithCurrentUser(filter, after, limit, false);
+    }
+
+    // With includeArchived each query also runs against the archive and the two pages are merged.
+    // Ids are unique across both tables, so the cursor stays the same.
+    public ChallengePage getChallengesStartingWithCurrentUser(ChallengeFilter filter, String after, int limit, boolean includeArchived) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
+        ChallengeCursor cursor = ChallengeCursor.decode(after);
+        Long currentUserId = getCurrentUserId();
 
-        UserDetail currentUserDetail = (UserDetail) authentication.getPrincipal();
-        Long currentUserId = currentUserDetail.getId();
+        List<ChallengeResponse> challenges;
+        int lastBucket = ChallengeCursor.OTHERS_BUCKET;
+        if (!filter.isEmpty()) {
+            challenges = challengeRepository.findResponsesMatching(filter, null, cursor.lastId(), Limit.of(limit));
+            if (includeArchived) {
+                challenges = mergeById(challenges, findArchivedMatching(filter, null, cursor.lastId(), Limit.of(limit)), limit);
+            }
+        } else if (currentUserId == null) {
+            challenges = challengeRepository.findResponsesAfter(cursor.lastId(), Limit.of(limit));
+            if (includeArchived) {
+                challenges = mergeById(challenges, findArchivedMatching(ChallengeFilter.NONE, null, cursor.lastId(), Limit.of(limit)), limit);
+            }
+        } else {
+            List<ChallengeRow> rows = challengeRepository.findPageOwnedFirst(currentUserId, cursor.bucket(), cursor.lastId(), limit);
+            if (includeArchived) {
+                Comparator<ChallengeRow> ownedFirst = Comparator
+                        .comparing((ChallengeRow row) -> currentUserId.equals(row.getUserId()) ? ChallengeCursor.OWN_BUCKET : ChallengeCursor.OTHERS_BUCKET)
+                        .thenComparing(ChallengeRow::getId);
+                rows = merge(rows, archivedChallengeRepository.findPageOwnedFirst(currentUserId, cursor.bucket(), cursor.lastId(), limit),
+                        ownedFirst, limit);
+            }
+            if (!rows.isEmpty() && currentUserId.equals(rows.get(rows.size() - 1).getUserId())) {
+                lastBucket = ChallengeCursor.OWN_BUCKET;
+            }
+            challenges = rows.stream()
+                    .map(row -> challengeMapperImpl.rowToDto(row))
+                    .toList();
+        }
 
-        List<ChallengeResponse> userOwnedChallenges = getChallengesByUserId(currentUserId);
+        String nextCursor = null;
+        if (challenges.size() == limit) {
+            nextCursor = new ChallengeCursor(lastBucket, challenges.get(challenges.size() - 1).id()).encode();
+        }
+        return new ChallengePage(challenges, nextCursor);
+    }
 
-        List<Challenge> allChallengeEntities = challengeRepository.findAll();
+    private List<ChallengeResponse> findArchivedMatching(ChallengeFilter filter, Long userId, long afterId, Limit limit) {
+        return archivedChallengeRepository.findResponsesMatching(filter.status(), filter.classification(), filter.difficultyLevel(),
+                userId, afterId, limit);
+    }
 
-        List<ChallengeResponse> otherUsersChallenges = allChallengeEntities.stream()
-                .filter(challenge -> !challenge.getUser().getId().equals(currentUserId))
-                .map(challenge -> challengeMapperImpl.entityToDto(challenge))
-                .toList();
+    private static List<ChallengeResponse> mergeById(List<ChallengeResponse> live, List<ChallengeResponse> archived, int limit) {
+        return merge(live, archived, Comparator.comparing(ChallengeResponse::id), limit);
+    }
+
+    private static <T> List<T> merge(List<T> first, List<T> second, Comparator<? super T> order, int limit) {
+        List<T> merged = new ArrayList<>(first.size() + second.size());
+        int i = 0;
+        int j = 0;
+        while (merged.size() < limit && (i < first.size() || j < second.size())) {
+            if (j == second.size() || (i < first.size() && order.compare(first.get(i), second.get(j)) <= 0)) {
+                merged.add(first.get(i++));
+            } else {
+                merged.add(second.get(j++));
+            }
+        }
+        return merged;
+    }
 
-        List<ChallengeResponse> finalOrderedList = new ArrayList<>();
-        finalOrderedList.addAll(userOwnedChallenges);
-        finalOrderedList.addAll(otherUsersChallenges);
+    private Long getCurrentUserId() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
 
-        return finalOrderedList;
+        if (authentication == null || !authentication.isAuthenticated() || !(authentication.getPrincipal() instanceof UserDetail)) {
+            return null;
+        }
+        return ((UserDetail) authentication.getPrincipal()).getId();
+    }
+
+    public ChallengeSearchResult searchChallenges(String query, int page, int size) {
+        if (query == null || query.isBlank()) {
+            throw new IllegalArgumentException("Search query must not be empty");
+        }
+        if (page < 0 || size < 1 || size > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Page must be 0 or greater and size between 1 and " + MAX_PAGE_SIZE);
+        }
+        long offset = (long) page * size;
+        if (offset + size > MAX_SEARCH_WINDOW) {
+            throw new IllegalArgumentException("Search results are limited to the first " + MAX_SEARCH_WINDOW);
+        }
+        ChallengeSearchIndex.SearchHits hits = challengeSearchIndex.search(query, (int) offset, size);
+        if (hits.ids().isEmpty()) {
+            return new ChallengeSearchResult(hits.total(), hits.totalExact(), List.of());
+        }
+        Map<Long, ChallengeResponse> challengesById = challengeRepository.findResponsesByIdIn(hits.ids()).stream()
+                .collect(Collectors.toMap(ChallengeResponse::id, Function.identity()));
+        List<ChallengeResponse> challenges = hits.ids().stream()
+                .map(challengesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+        return new ChallengeSearchResult(hits.total(), hits.totalExact(), challenges);
+    }
+
+    public ChallengeStatsResponse getChallengeStatistics() {
+        return challengeStatistics.getGlobalStatistics();
     }
 
     public ChallengeResponse getChallengeById(Long id) {
-        Challenge challenge = challengeRepository.findById(id)
+        return getTaggedChallengeById(id).body();
+    }
+
+    public TaggedResponse<ChallengeResponse> getTaggedChallengeById(Long id) {
+        return getTaggedChallengeById(id, false);
+    }
+
+    public TaggedResponse<ChallengeResponse> getTaggedChallengeById(Long id, boolean includeArchived) {
+        String representation = resourceVersions.challengeRepresentation();
+        Optional<VersionedChallenge> live = challengeCache.get(id, challengeRepository::findVersionedById);
+        if (live.isEmpty() && includeArchived) {
+            live = archivedChallengeRepository.findVersionedById(id);
+        }
+        VersionedChallenge challenge = live
                 .orElseThrow(() -> new EntityNotFoundException(Challenge.class.getSimpleName(), id));
-        return challengeMapperImpl.entityToDto(challenge);
+        return new TaggedResponse<>(challenge.response(), EntityTags.of(challenge.version(), representation));
+    }
+
+    public ChallengeCacheStats getChallengeCacheStats() {
+        return challengeCache.stats();
     }
 
     public List<ChallengeResponse> getChallengesByUserId(Long id) {
-        User user = userRepository.findById(id).orElseThrow(() -> new NoSuchElementException("No user found with id " + id));
-        List<Challenge> challenges = challengeRepository.findAllByUser(user);
-        return challenges.stream()
-                .map(challenge -> challengeMapperImpl.entityToDto(challenge))
+        return getChallengesByUserId(id, ChallengeFilter.NONE);
+    }
+
+    public List<ChallengeResponse> getChallengesByUserId(Long id, ChallengeFilter filter) {
+        return getChallengesByUserId(id, filter, false);
+    }
+
+    public List<ChallengeResponse> getChallengesByUserId(Long id, ChallengeFilter filter, boolean includeArchived) {
+        if (!filter.isEmpty()) {
+            List<ChallengeResponse> challenges = challengeRepository.findResponsesMatching(filter, id, 0L, Limit.unlimited());
+            if (includeArchived) {
+                challenges = mergeById(challenges, findArchivedMatching(filter, id, 0L, Limit.unlimited()), Integer.MAX_VALUE);
+            }
+            if (challenges.isEmpty() && !userRepository.existsById(id)) {
+                throw new NoSuchElementException("No user found with id " + id);
+            }
+            return challenges;
+        }
+        List<ChallengeResponse> rows = challengeRepository.findResponsesByUserIdWithOwner(id);
+        if (rows.isEmpty()) {
+            throw new NoSuchElementException("No user found with id " + id);
+        }
+        List<ChallengeResponse> challenges = rows.stream()
+                .filter(challenge -> challenge.id() != null)
                 .toList();
+        if (includeArchived) {
+            challenges = mergeById(challenges, archivedChallengeRepository.findResponsesByUserId(id), Integer.MAX_VALUE);
+        }
+        return challenges;
+    }
+
+    @Transactional
+    public void exportChallenges(OutputStream outputStream) throws IOException {
+        try (Stream<ChallengeResponse> challenges = challengeRepository.streamAllResponses()) {
+            Iterator<ChallengeResponse> iterator = challenges.iterator();
+            while (iterator.hasNext()) {
+                outputStream.write(objectMapper.writeValueAsBytes(iterator.next()));
+                outputStream.write('\n');
+            }
+        }
+        outputStream.flush();
     }
 
     @Transactional
     public ChallengeResponse addChallenge(ChallengeRequest request, UserDetail userDetails) {
         validateUser(userDetails);
 
-        User user = userRepository.findByUsernameIgnoreCase(userDetails.getUsername())
+        User user = userRepository.findByUsernameNormalized(User.normalize(userDetails.getUsername()))
                 .orElseThrow(() -> new NoSuchElementException("User not found"));
 
         Challenge challenge = challengeMapperImpl.dtoToEntity(request, user);
         challengeRepository.save(challenge);
+        eventPublisher.publishEvent(ChallengeChangedEvent.created(ChallengeSnapshot.of(challenge)));
 
         return challengeMapperImpl.entityToDto(challenge);
     }
 
     @Transactional
+    public ChallengeBatchResponse addChallenges(List<ChallengeRequest> requests, UserDetail userDetails) {
+        validateUser(userDetails);
+        if (requests == null || requests.isEmpty() || requests.size() > MAX_BATCH_SIZE) {
+            throw new IllegalArgumentException("A batch must contain between 1 and " + MAX_BATCH_SIZE + " challenges");
+        }
+
+        User user = userRepository.findByUsernameNormalized(User.normalize(userDetails.getUsername()))
+                .orElseThrow(() -> new NoSuchElementException("User not found"));
+
+        List<Challenge> challenges = new ArrayList<>(requests.size());
+        List<ChallengeBatchError> errors = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            ChallengeRequest request = requests.get(i);
+            if (request == null) {
+                errors.add(new ChallengeBatchError(i, Map.of("challenge", "Challenge is required")));
+                continue;
+            }
+            Set<ConstraintViolation<ChallengeRequest>> violations = validator.validate(request);
+            if (!violations.isEmpty()) {
+                Map<String, String> details = new HashMap<>();
+                violations.forEach(violation -> details.put(violation.getPropertyPath().toString(), violation.getMessage()));
+                errors.add(new ChallengeBatchError(i, details));
+                continue;
+            }
+            challenges.add(challengeMapperImpl.dtoToEntity(request, user));
+        }
+
+        List<Challenge> savedChallenges = challengeRepository.saveAll(challenges);
+        savedChallenges.forEach(challenge -> eventPublisher.publishEvent(ChallengeChangedEvent.created(ChallengeSnapshot.of(challenge))));
+        List<ChallengeResponse> created = savedChallenges.stream()
+                .map(challenge -> challengeMapperImpl.entityToDto(challenge))
+                .toList();
+        return new ChallengeBatchResponse(created, errors);
+    }
+
     public ChallengeResponse updateChallenge(Long id, ChallengeRequest challengeRequest, UserDetail userDetails) {
+        return updateChallenge(id, challengeRequest, userDetails, null).body();
+    }
+
+    // The flush runs the versioned UPDATE here, so a concurrent writer fails this call instead of the commit.
+    @Transactional
+    public TaggedResponse<ChallengeResponse> updateChallenge(Long id, ChallengeRequest challengeRequest, UserDetail userDetails, String ifMatch) {
         validateUser(userDetails);
         Challenge challengeToUpdate = challengeRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(Challenge.class.getSimpleName(), id));
 
         checkOwnership(challengeToUpdate, userDetails);
+        if (!EntityTags.matches(ifMatch, challengeToUpdate.getVersion())) {
+            throw new PreconditionFailedException(Challenge.class.getSimpleName(), id);
+        }
+        ChallengeSnapshot previous = ChallengeSnapshot.of(challengeToUpdate);
 
         challengeToUpdate.setTitle(challengeRequest.title());
         challengeToUpdate.setDescription(challengeRequest.description());
@@ -116,9 +377,167 @@ public class ChallengeService {
         challengeToUpdate.setDifficultyLevel(challengeRequest.difficultyLevel());
         challengeToUpdate.setPrize(challengeRequest.prize());
 
+        String representation = resourceVersions.challengeRepresentation();
         Challenge updatedChallenge = challengeRepository.save(challengeToUpdate);
+        challengeRepository.flush();
+        eventPublisher.publishEvent(ChallengeChangedEvent.updated(previous, ChallengeSnapshot.of(updatedChallenge)));
+
+        return new TaggedResponse<>(challengeMapperImpl.entityToDto(updatedChallenge),
+                EntityTags.of(updatedChallenge.getVersion(), representation));
+    }
+
+    // JSON Merge Patch (RFC 7396). The patch is merged over the current row and validated like a full
+    // request, then a single UPDATE writes only the changed columns, guarded by the version that was read
+    // and by the owner. That makes two round trips, not one: the merge and the statistics, leaderboard and
+    // search index events need the previous values. The affected-row count decides the outcome, and only
+    // a rejected update is read again to tell 404, 403 and 412 apart.
+    @Transactional
+    public TaggedResponse<ChallengeResponse> patchChallenge(Long id, JsonNode patch, UserDetail userDetails, String ifMatch) {
+        validateUser(userDetails);
+        if (patch == null || !patch.isObject()) {
+            throw new IllegalArgumentException("A merge patch must be a JSON object");
+        }
+        patch.fieldNames().forEachRemaining(field -> {
+            if (!PATCHABLE_FIELDS.contains(field)) {
+                throw new IllegalArgumentException("Field " + field + " cannot be patched");
+            }
+        });
+
+        String representation = resourceVersions.challengeRepresentation();
+        VersionedChallenge current = challengeRepository.findVersionedById(id)
+                .orElseThrow(() -> new EntityNotFoundException(Challenge.class.getSimpleName(), id));
+        if (!EntityTags.matches(ifMatch, current.version())) {
+            throw patchRejected(current, userDetails, ifMatch);
+        }
+
+        ChallengeRequest merged = mergePatch(current.request(), (ObjectNode) patch);
+        Map<String, Object> changes = changedFields(current.request(), merged);
+        if (changes.isEmpty()) {
+            checkOwnership(current.username(), userDetails);
+            return new TaggedResponse<>(current.response(), EntityTags.of(current.version(), representation));
+        }
+
+        Long ownerId = isAdmin(userDetails) ? null : userDetails.getId();
+        if (challengeRepository.patchById(id, current.version(), changes, ownerId) == 0) {
+            throw patchRejected(challengeRepository.findVersionedById(id)
+                    .orElseThrow(() -> new EntityNotFoundException(Challenge.class.getSimpleName(), id)), userDetails, ifMatch);
+        }
+        VersionedChallenge patched = current.patched(merged);
+        eventPublisher.publishEvent(ChallengeChangedEvent.updated(current.snapshot(), patched.snapshot()));
+        return new TaggedResponse<>(patched.response(), EntityTags.of(patched.version(), representation));
+    }
 
-        return challengeMapperImpl.entityToDto(updatedChallenge);
+    // Without If-Match the client never named a version, so losing the race to another writer is a 409
+    // it can simply retry rather than a failed precondition.
+    private RuntimeException patchRejected(VersionedChallenge latest, UserDetail userDetails, String ifMatch) {
+        checkOwnership(latest.username(), userDetails);
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return new ConflictException(Challenge.class.getSimpleName() + " with id " + latest.id() + " was modified concurrently");
+        }
+        return new PreconditionFailedException(Challenge.class.getSimpleName(), latest.id());
+    }
+
+    private ChallengeRequest mergePatch(ChallengeRequest current, ObjectNode patch) {
+        ObjectNode document = objectMapper.valueToTree(current);
+        document.setAll(patch);
+        ChallengeRequest merged;
+        try {
+            merged = objectMapper.treeToValue(document, ChallengeRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Invalid merge patch: " + e.getOriginalMessage());
+        }
+        Set<ConstraintViolation<ChallengeRequest>> violations = validator.validate(merged);
+        if (!violations.isEmpty()) {
+            throw new IllegalArgumentException(violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; ")));
+        }
+        return merged;
+    }
+
+    private static Map<String, Object> changedFields(ChallengeRequest current, ChallengeRequest merged) {
+        Map<String, Object> changes = new LinkedHashMap<>();
+        putIfChanged(changes, "title", current.title(), merged.title());
+        putIfChanged(changes, "description", current.description(), merged.description());
+        putIfChanged(changes, "status", current.status(), merged.status());
+        putIfChanged(changes, "classification", current.classification(), merged.classification());
+        putIfChanged(changes, "difficultyLevel", current.difficultyLevel(), merged.difficultyLevel());
+        putIfChanged(changes, "prize", current.prize(), merged.prize());
+        return changes;
+    }
+
+    private static void putIfChanged(Map<String, Object> changes, String field, Object current, Object merged) {
+        if (!Objects.equals(current, merged)) {
+            changes.put(field, merged);
+        }
+    }
+
+    // The filter, ownership and target status are all in the UPDATE's WHERE clause. Each chunk still locks
+    // its rows with a select first, because the derived views need the previous values of every moved row,
+    // so a chunk is two statements rather than one. Like deleteChallenges, each chunk commits on its own, so row locks and snapshots are held for
+    // one chunk only. Moved rows no longer match the target status, so the next chunk starts after them.
+    public ChallengeBulkUpdateResponse transitionChallengeStatus(ChallengeStatusTransitionRequest request, UserDetail userDetails) {
+        validateUser(userDetails);
+        if (!request.hasCriteria()) {
+            throw new IllegalArgumentException("Give challenge ids or at least one of userId, status or classification");
+        }
+        Long ownerId = isAdmin(userDetails) ? null : userDetails.getId();
+
+        int updated = 0;
+        int moved;
+        do {
+            moved = transactionTemplate.execute(status -> transitionNextChunk(request, ownerId));
+            updated += moved;
+        } while (moved == BULK_UPDATE_CHUNK_SIZE);
+        return new ChallengeBulkUpdateResponse(updated);
+    }
+
+    private int transitionNextChunk(ChallengeStatusTransitionRequest request, Long ownerId) {
+        List<ChallengeSnapshot> chunk = challengeRepository.lockSnapshotsMatching(request, request.targetStatus(), ownerId,
+                Limit.of(BULK_UPDATE_CHUNK_SIZE));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = chunk.stream()
+                .map(ChallengeSnapshot::id)
+                .toList();
+        int moved = challengeRepository.updateStatusMatching(request, ids, request.targetStatus(), ownerId);
+        chunk.forEach(previous -> eventPublisher.publishEvent(
+                ChallengeChangedEvent.updated(previous, previous.withStatus(request.targetStatus()))));
+        return moved;
+    }
+
+    // Each chunk commits on its own so row locks are held for one chunk only.
+    public ChallengeBulkDeleteResponse deleteChallenges(ChallengeBulkDeleteRequest request, UserDetail userDetails) {
+        validateUser(userDetails);
+        if (!request.hasCriteria()) {
+            throw new IllegalArgumentException("Give challenge ids or at least one of userId, status or classification");
+        }
+        Long ownerId = isAdmin(userDetails) ? null : userDetails.getId();
+
+        int deleted = 0;
+        int removed;
+        do {
+            removed = transactionTemplate.execute(status -> deleteNextChunk(request, ownerId));
+            deleted += removed;
+        } while (removed == BULK_DELETE_CHUNK_SIZE);
+        return new ChallengeBulkDeleteResponse(deleted);
+    }
+
+    private int deleteNextChunk(ChallengeBulkDeleteRequest request, Long ownerId) {
+        List<ChallengeSnapshot> chunk = challengeRepository.lockSnapshotsMatching(request, null, ownerId, Limit.of(BULK_DELETE_CHUNK_SIZE));
+        if (chunk.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = chunk.stream()
+                .map(ChallengeSnapshot::id)
+                .toList();
+        Instant deletedAt = Instant.now();
+        challengeTombstoneRepository.insertForChallenges(ids, deletedAt);
+        int removed = challengeRepository.softDeleteByIdIn(ids, ownerId, deletedAt);
+        chunk.forEach(challenge -> eventPublisher.publishEvent(ChallengeChangedEvent.deleted(challenge)));
+        return removed;
     }
 
     @Transactional
@@ -129,7 +548,11 @@ public class ChallengeService {
 
                 checkOwnership(challengeToDelete, userDetails);
 
-                challengeRepository.delete(challengeToDelete);
+                Instant deletedAt = Instant.now();
+                challengeTombstoneRepository.insertForChallenges(List.of(id), deletedAt);
+                challengeToDelete.setDeletedAt(deletedAt);
+                challengeRepository.save(challengeToDelete);
+                eventPublisher.publishEvent(ChallengeChangedEvent.deleted(ChallengeSnapshot.of(challengeToDelete)));
                 return "Challenge with id " + id + " has been deleted";
     }
 
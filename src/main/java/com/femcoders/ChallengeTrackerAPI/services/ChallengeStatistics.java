@@ -0,0 +1,214 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class ChallengeStatistics {
+    private final ChallengeRepository challengeRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    // Listeners share the read lock. A rebuild takes the write lock only to open its buffer and to
+    // swap the counters in, so events never wait on the GROUP BY itself.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Tallies current = new Tallies();
+    // The counters being rebuilt while a rebuild runs, otherwise null. Guarded by swapLock.
+    private Tallies rebuilding;
+
+    public ChallengeStatsResponse getGlobalStatistics() {
+        return current.global.toResponse();
+    }
+
+    public ChallengeStatsResponse getUserStatistics(Long userId) {
+        return current.perUser.getOrDefault(userId, Counters.EMPTY).toResponse();
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            current.apply(event);
+            if (rebuilding != null) {
+                rebuilding.apply(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialize() {
+        rebuild(false);
+    }
+
+    @Scheduled(fixedDelayString = "${challenges.stats.reconcile-interval:PT15M}",
+            initialDelayString = "${challenges.stats.reconcile-interval:PT15M}")
+    public int reconcile() {
+        return rebuild(true);
+    }
+
+    // Events committed while the GROUP BY runs are applied to the rebuilt counters as well as to the
+    // live ones, so the swap loses none of them and the drift check compares like with like. Only a
+    // commit landing between opening the buffer and the query taking its snapshot is counted twice,
+    // a window of the query's start-up rather than its run time. Archived challenges still count, and
+    // both tables are grouped in one transaction so a challenge being archived is seen exactly once.
+    private synchronized int rebuild(boolean reportDrift) {
+        Tallies rebuilt = new Tallies();
+        swapLock.writeLock().lock();
+        try {
+            rebuilding = rebuilt;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<ChallengeCountRow> rows;
+        try {
+            rows = transactionTemplate.execute(status -> {
+                List<ChallengeCountRow> grouped = new ArrayList<>(challengeRepository.countByUserStatusAndClassification());
+                grouped.addAll(archivedChallengeRepository.countByUserStatusAndClassification());
+                return grouped;
+            });
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                rebuilding = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+        if (rows != null) {
+            rows.forEach(rebuilt::add);
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            int drifted = reportDrift ? reportDrift(current, rebuilt) : 0;
+            current = rebuilt;
+            rebuilding = null;
+            return drifted;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private int reportDrift(Tallies actual, Tallies expected) {
+        int drifted = reportDrift("global", actual.global, expected.global);
+        for (Long userId : expected.perUser.keySet()) {
+            drifted += reportDrift("user " + userId, actual.perUser.getOrDefault(userId, Counters.EMPTY), expected.perUser.get(userId));
+        }
+        for (Long userId : actual.perUser.keySet()) {
+            if (!expected.perUser.containsKey(userId)) {
+                drifted += reportDrift("user " + userId, actual.perUser.get(userId), Counters.EMPTY);
+            }
+        }
+        if (drifted > 0) {
+            log.warn("Challenge statistics reconciliation corrected drift in {} scope(s)", drifted);
+        }
+        return drifted;
+    }
+
+    private int reportDrift(String scope, Counters current, Counters expected) {
+        ChallengeStatsResponse actual = current.toResponse();
+        ChallengeStatsResponse rebuilt = expected.toResponse();
+        if (Objects.equals(actual, rebuilt)) {
+            return 0;
+        }
+        log.warn("Challenge statistics drift for {}: counters={} database={}", scope, actual, rebuilt);
+        return 1;
+    }
+
+    private static final class Tallies {
+        final Counters global = new Counters();
+        final Map<Long, Counters> perUser = new ConcurrentHashMap<>();
+
+        void add(ChallengeCountRow row) {
+            global.add(row);
+            perUser.computeIfAbsent(row.userId(), id -> new Counters()).add(row);
+        }
+
+        void apply(ChallengeChangedEvent event) {
+            if (event.previous() != null) {
+                apply(event.previous(), -1);
+            }
+            if (event.current() != null) {
+                apply(event.current(), 1);
+            }
+        }
+
+        private void apply(ChallengeSnapshot challenge, int sign) {
+            global.add(challenge.status(), challenge.classification(), sign, (long) sign * challenge.difficultyLevel());
+            perUser.computeIfAbsent(challenge.userId(), id -> new Counters())
+                    .add(challenge.status(), challenge.classification(), sign, (long) sign * challenge.difficultyLevel());
+        }
+    }
+
+    private static final class Counters {
+        private static final Counters EMPTY = new Counters();
+
+        private final LongAdder total = new LongAdder();
+        private final LongAdder difficultySum = new LongAdder();
+        private final LongAdder[] byStatus = adders(Status.values().length);
+        private final LongAdder[] byClassification = adders(Classification.values().length);
+
+        private static LongAdder[] adders(int size) {
+            LongAdder[] adders = new LongAdder[size];
+            for (int i = 0; i < size; i++) {
+                adders[i] = new LongAdder();
+            }
+            return adders;
+        }
+
+        void add(ChallengeCountRow row) {
+            add(row.status(), row.classification(), row.count(), row.difficultySum());
+        }
+
+        void add(Status status, Classification classification, long count, long difficulty) {
+            total.add(count);
+            difficultySum.add(difficulty);
+            byStatus[status.ordinal()].add(count);
+            byClassification[classification.ordinal()].add(count);
+        }
+
+        ChallengeStatsResponse toResponse() {
+            Map<Status, Long> statusCounts = new EnumMap<>(Status.class);
+            for (Status status : Status.values()) {
+                statusCounts.put(status, byStatus[status.ordinal()].sum());
+            }
+            Map<Classification, Long> classificationCounts = new EnumMap<>(Classification.class);
+            for (Classification classification : Classification.values()) {
+                classificationCounts.put(classification, byClassification[classification.ordinal()].sum());
+            }
+            long count = total.sum();
+            double averageDifficulty = (count == 0) ? 0.0 : (double) difficultySum.sum() / count;
+            return new ChallengeStatsResponse(count, statusCounts, classificationCounts, averageDifficulty);
+        }
+    }
+}
@@ -0,0 +1,106 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChangeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChanges;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSyncToken;
+import com.femcoders.ChallengeTrackerAPI.models.ChallengeTombstone;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
+import jakarta.transaction.Transactional;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+// Delta sync for a user's challenges. Changed rows come from the (user_id, updated_at) index and
+// deleted ones from the tombstone table, each read as its own keyset. Only changes older than the
+// commit window are served: updatedAt is stamped before commit, so a slow transaction can become
+// visible with a timestamp behind a position that was already handed out. Clients apply upserts
+// before deletes. A token older than the tombstone retention may have missed deletes, so it gets
+// a reset and the full list again.
+@Slf4j
+@Service
+public class ChallengeSyncService {
+    public static final int MAX_SYNC_LIMIT = 500;
+
+    private final ChallengeRepository challengeRepository;
+    private final ChallengeTombstoneRepository challengeTombstoneRepository;
+    private final Duration commitWindow;
+    private final Duration tombstoneRetention;
+
+    public ChallengeSyncService(ChallengeRepository challengeRepository, ChallengeTombstoneRepository challengeTombstoneRepository,
+                                @Value("${challenges.sync.commit-window:PT2S}") Duration commitWindow,
+                                @Value("${challenges.sync.tombstone-retention:P30D}") Duration tombstoneRetention) {
+        this.challengeRepository = challengeRepository;
+        this.challengeTombstoneRepository = challengeTombstoneRepository;
+        this.commitWindow = commitWindow;
+        this.tombstoneRetention = tombstoneRetention;
+    }
+
+    public ChallengeChanges getChanges(Long userId, String since, int limit) {
+        if (limit < 1 || limit > MAX_SYNC_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_SYNC_LIMIT);
+        }
+        Instant now = Instant.now().truncatedTo(ChronoUnit.MICROS);
+        Instant horizon = now.minus(commitWindow);
+        ChallengeSyncToken token = since == null || since.isBlank() ? null : ChallengeSyncToken.decode(since);
+        boolean reset = token != null && token.deletedAt().isBefore(now.minus(tombstoneRetention));
+        if (token == null || reset) {
+            token = ChallengeSyncToken.initial(horizon);
+        }
+
+        List<ChallengeChangeRow> upserts = challengeRepository.findChangesAfter(userId, token.upsertedAt(), token.upsertedId(),
+                horizon, Limit.of(limit + 1));
+        List<ChallengeTombstone> deletes = challengeTombstoneRepository.findChangesAfter(userId, token.deletedAt(), token.deletedId(),
+                horizon, Limit.of(limit + 1));
+        boolean moreUpserts = upserts.size() > limit;
+        boolean moreDeletes = deletes.size() > limit;
+        if (moreUpserts) {
+            upserts = upserts.subList(0, limit);
+        }
+        if (moreDeletes) {
+            deletes = deletes.subList(0, limit);
+        }
+
+        // A stream that was read to the end moves up to the horizon, so the next sync skips what it already scanned.
+        Instant upsertedAt = horizon;
+        long upsertedId = ChallengeSyncToken.AFTER_ALL_IDS;
+        if (moreUpserts) {
+            ChallengeChangeRow last = upserts.getLast();
+            upsertedAt = last.updatedAt();
+            upsertedId = last.id();
+        }
+        Instant deletedAt = horizon;
+        long deletedId = ChallengeSyncToken.AFTER_ALL_IDS;
+        if (moreDeletes) {
+            ChallengeTombstone last = deletes.getLast();
+            deletedAt = last.getDeletedAt();
+            deletedId = last.getChallengeId();
+        }
+
+        List<ChallengeResponse> upserted = upserts.stream()
+                .map(ChallengeChangeRow::response)
+                .toList();
+        List<Long> deleted = deletes.stream()
+                .map(ChallengeTombstone::getChallengeId)
+                .toList();
+        String next = new ChallengeSyncToken(upsertedAt, upsertedId, deletedAt, deletedId).encode();
+        return new ChallengeChanges(upserted, deleted, next, moreUpserts || moreDeletes, reset);
+    }
+
+    @Transactional
+    @Scheduled(fixedDelayString = "${challenges.sync.prune-interval:PT1H}")
+    public void pruneTombstones() {
+        int pruned = challengeTombstoneRepository.deleteOlderThan(Instant.now().minus(tombstoneRetention));
+        if (pruned > 0) {
+            log.info("Pruned {} challenge tombstones", pruned);
+        }
+    }
+}
@@ -0,0 +1,82 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+// A Bloom filter with 8-bit counters instead of bits, so values can be removed again. Only
+// remove values that were added. A counter that reaches 255 stays there, because decrementing
+// it could later hide another value.
+final class CountingBloomFilter {
+    private static final int SATURATED = 0xFF;
+
+    private final byte[] counters;
+    private final int hashes;
+
+    CountingBloomFilter(long expectedValues, double falsePositiveRate) {
+        if (expectedValues < 1 || falsePositiveRate <= 0 || falsePositiveRate >= 1) {
+            throw new IllegalArgumentException("Expected values must be positive and the false positive rate between 0 and 1");
+        }
+        double size = Math.ceil(-expectedValues * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.counters = new byte[(int) Math.min(size, Integer.MAX_VALUE - 8)];
+        this.hashes = Math.max(1, (int) Math.round(counters.length / (double) expectedValues * Math.log(2)));
+    }
+
+    synchronized void add(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            int count = counters[index] & 0xFF;
+            if (count < SATURATED) {
+                counters[index] = (byte) (count + 1);
+            }
+        }
+    }
+
+    synchronized void remove(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            int index = index(hash, i);
+            int count = counters[index] & 0xFF;
+            if (count > 0 && count < SATURATED) {
+                counters[index] = (byte) (count - 1);
+            }
+        }
+    }
+
+    synchronized boolean mightContain(String value) {
+        long hash = hash(value);
+        for (int i = 0; i < hashes; i++) {
+            if (counters[index(hash, i)] == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    int size() {
+        return counters.length;
+    }
+
+    int hashes() {
+        return hashes;
+    }
+
+    // Double hashing: the i-th index is h1 + i * h2, both halves of one 64-bit hash.
+    private int index(long hash, int i) {
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        return Math.floorMod(h1 + i * h2, counters.length);
+    }
+
+    // FNV-1a followed by the MurmurHash3 finalizer, so both halves are well mixed.
+    private static long hash(String value) {
+        long hash = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            hash ^= value.charAt(i);
+            hash *= 0x100000001b3L;
+        }
+        hash ^= hash >>> 33;
+        hash *= 0xff51afd7ed558ccdL;
+        hash ^= hash >>> 33;
+        hash *= 0xc4ceb9fe1a85ec53L;
+        hash ^= hash >>> 33;
+        return hash;
+    }
+}
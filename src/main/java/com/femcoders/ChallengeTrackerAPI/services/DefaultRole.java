@@ -0,0 +1,47 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.models.Role;
+import com.femcoders.ChallengeTrackerAPI.repositories.RoleRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+// The role every new user gets. Roles are seed data, so it is resolved once instead of on every
+// signup, and the new user only needs its id. RoleChangeListener drops it when a role is written
+// through JPA, and UserService drops it when an insert fails on anything but the unique indexes,
+// which is how a role recreated by plain SQL shows up.
+@Component
+@RequiredArgsConstructor
+public class DefaultRole {
+    private static final String ROLE_NAME = "ROLE_USER";
+
+    private final RoleRepository roleRepository;
+    private volatile Role cached;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void resolve() {
+        cached = roleRepository.findByRoleNameIgnoreCase(ROLE_NAME).map(DefaultRole::detached).orElse(null);
+    }
+
+    public Role get() {
+        Role role = cached;
+        if (role == null) {
+            role = roleRepository.findByRoleNameIgnoreCase(ROLE_NAME)
+                    .map(DefaultRole::detached)
+                    .orElseThrow(() -> new EntityNotFoundException("Role", "USER"));
+            cached = role;
+        }
+        return role;
+    }
+
+    public void evict() {
+        cached = null;
+    }
+
+    // A copy holding only the id and name, so the cached value never drags a persistence context along.
+    private static Role detached(Role role) {
+        return Role.builder().id(role.getId()).roleName(role.getRoleName()).build();
+    }
+}
@@ -0,0 +1,33 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+// Tags look like v<entity version>.<representation>. If-Match only compares the
+// entity version, so representation-only changes (a renamed owner, an added
+// challenge title) do not fail an otherwise safe update.
+final class EntityTags {
+    private EntityTags() {
+    }
+
+    static String of(Long version, String representation) {
+        return "v" + (version == null ? 0 : version) + "." + representation;
+    }
+
+    static boolean matches(String ifMatch, Long version) {
+        if (ifMatch == null || ifMatch.isBlank()) {
+            return true;
+        }
+        String prefix = "v" + (version == null ? 0 : version) + ".";
+        for (String candidate : ifMatch.split(",")) {
+            String tag = candidate.trim();
+            if (tag.equals("*")) {
+                return true;
+            }
+            if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+                tag = tag.substring(1, tag.length() - 1);
+            }
+            if (tag.startsWith(prefix)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
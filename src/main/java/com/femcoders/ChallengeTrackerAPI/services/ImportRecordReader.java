@@ -0,0 +1,105 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads NDJSON lines or RFC 4180 CSV records one at a time. Records are capped so a
+// malformed upload (a missing newline, an unterminated quote) cannot exhaust memory.
+final class ImportRecordReader {
+    private final Reader reader;
+    private final int maxRecordLength;
+    private int pushedBack = -2;
+
+    ImportRecordReader(Reader reader, int maxRecordLength) {
+        this.reader = reader;
+        this.maxRecordLength = maxRecordLength;
+    }
+
+    String nextLine() throws IOException {
+        StringBuilder line = new StringBuilder();
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        while (c != -1 && c != '\n') {
+            if (c != '\r') {
+                append(line, c);
+            }
+            c = read();
+        }
+        return line.toString();
+    }
+
+    List<String> nextCsvRecord() throws IOException {
+        int c = read();
+        if (c == -1) {
+            return null;
+        }
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        int length = 0;
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("CSV record ends inside a quoted field");
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r') {
+                int next = read();
+                if (next != '\n') {
+                    unread(next);
+                }
+                break;
+            } else if (c == '\n' || c == -1) {
+                break;
+            } else {
+                field.append((char) c);
+            }
+            if (++length > maxRecordLength) {
+                throw new IOException("CSV record is longer than " + maxRecordLength + " characters");
+            }
+            c = read();
+        }
+        fields.add(field.toString());
+        return fields;
+    }
+
+    private void append(StringBuilder line, int c) throws IOException {
+        if (line.length() >= maxRecordLength) {
+            throw new IOException("Line is longer than " + maxRecordLength + " characters");
+        }
+        line.append((char) c);
+    }
+
+    private int read() throws IOException {
+        if (pushedBack != -2) {
+            int c = pushedBack;
+            pushedBack = -2;
+            return c;
+        }
+        return reader.read();
+    }
+
+    private void unread(int c) {
+        pushedBack = c;
+    }
+}
@@ -0,0 +1,179 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.LeaderboardEntry;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Collectors;
+
+@Service
+public class LeaderboardService {
+    public static final int MAX_LEADERBOARD_SIZE = 100;
+
+    private final ChallengeRepository challengeRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate readOnlyTransaction;
+
+    // Listeners share the read lock. A rebuild takes the write lock only to open its buffer and to
+    // swap the boards in, so events never wait on the GROUP BY itself.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile Boards boards = new Boards();
+    // Events committed while a rebuild runs, otherwise null. Guarded by swapLock.
+    private Queue<ChallengeChangedEvent> pending;
+
+    public LeaderboardService(ChallengeRepository challengeRepository, ArchivedChallengeRepository archivedChallengeRepository,
+                              UserRepository userRepository, PlatformTransactionManager transactionManager) {
+        this.challengeRepository = challengeRepository;
+        this.archivedChallengeRepository = archivedChallengeRepository;
+        this.userRepository = userRepository;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    private static final class Boards {
+        final RankedScores overall = new RankedScores();
+        final Map<Classification, RankedScores> byClassification = new EnumMap<>(Classification.class);
+
+        Boards() {
+            for (Classification classification : Classification.values()) {
+                byClassification.put(classification, new RankedScores());
+            }
+        }
+
+        RankedScores get(Classification classification) {
+            return classification == null ? overall : byClassification.get(classification);
+        }
+
+        void add(long userId, Classification classification, long delta) {
+            overall.add(userId, delta);
+            byClassification.get(classification).add(userId, delta);
+        }
+    }
+
+    public List<LeaderboardEntry> getLeaderboard(Classification classification, int limit) {
+        if (limit < 1 || limit > MAX_LEADERBOARD_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_LEADERBOARD_SIZE);
+        }
+        RankedScores scores = boards.get(classification);
+        List<Long> userIds = scores.top(limit);
+        Map<Long, String> usernames = userRepository.findUsernamesByIdIn(userIds).stream()
+                .collect(Collectors.toMap(UsernameRow::getId, UsernameRow::getUsername));
+
+        List<LeaderboardEntry> entries = new ArrayList<>(userIds.size());
+        for (int i = 0; i < userIds.size(); i++) {
+            Long userId = userIds.get(i);
+            entries.add(new LeaderboardEntry(i + 1, userId, usernames.get(userId), scores.score(userId)));
+        }
+        return entries;
+    }
+
+    public LeaderboardEntry getUserRanking(Long userId, Classification classification) {
+        String username = userRepository.findUsernamesByIdIn(List.of(userId)).stream()
+                .findFirst()
+                .map(UsernameRow::getUsername)
+                .orElseThrow(() -> new EntityNotFoundException(User.class.getSimpleName(), userId));
+        RankedScores scores = boards.get(classification);
+        int rank = scores.rank(userId);
+        return new LeaderboardEntry(rank == 0 ? null : rank, userId, username, scores.score(userId));
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            apply(boards, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    // Finished challenges end up in the archive, and they are what the leaderboard counts. Both
+    // tables are grouped in one read-only transaction so a challenge being archived is seen exactly
+    // once. Events committed while the GROUP BY runs are buffered and replayed onto the rebuilt
+    // boards before the swap; they cannot be applied as they arrive because a score never goes
+    // below zero, so a negative delta reaching a board the rows have not filled yet would be lost.
+    // Only a commit landing between opening the buffer and the query taking its snapshot is
+    // counted twice, a window of the query's start-up rather than its run time.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            pending = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        List<ChallengeCountRow> rows;
+        try {
+            rows = readOnlyTransaction.execute(status -> {
+                List<ChallengeCountRow> grouped = new ArrayList<>(challengeRepository.countByUserStatusAndClassification());
+                grouped.addAll(archivedChallengeRepository.countByUserStatusAndClassification());
+                return grouped;
+            });
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        Boards rebuilt = new Boards();
+        if (rows != null) {
+            for (ChallengeCountRow row : rows) {
+                if (row.status() == Status.COMPLETED_SATISFACTORILY) {
+                    rebuilt.add(row.userId(), row.classification(), row.difficultySum());
+                }
+            }
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(rebuilt, event));
+            boards = rebuilt;
+            pending = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+    }
+
+    private static void apply(Boards boards, ChallengeChangedEvent event) {
+        apply(boards, event.previous(), -1);
+        apply(boards, event.current(), 1);
+    }
+
+    private static void apply(Boards boards, ChallengeSnapshot challenge, int sign) {
+        if (challenge != null && challenge.status() == Status.COMPLETED_SATISFACTORILY) {
+            boards.add(challenge.userId(), challenge.classification(), (long) sign * challenge.difficultyLevel());
+        }
+    }
+}
@@ -0,0 +1,107 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.outbox.OutboxStats;
+import com.femcoders.ChallengeTrackerAPI.events.OutboxMessage;
+import com.femcoders.ChallengeTrackerAPI.events.OutboxSink;
+import com.femcoders.ChallengeTrackerAPI.models.OutboxEvent;
+import com.femcoders.ChallengeTrackerAPI.repositories.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Limit;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+
+// Drains the outbox in batches: lock the oldest rows with SKIP LOCKED, publish them, delete them
+// in bulk, all in one transaction. A failed publish rolls back and the batch is retried. Rows
+// whose aggregate has an older event still locked by another relay are left for a later batch,
+// which keeps delivery in order per aggregate when several instances relay at once.
+@Slf4j
+@Component
+public class OutboxRelay {
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxSink outboxSink;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Instant startedAt = Instant.now();
+    private final LongAdder published = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private final LongAdder failedBatches = new LongAdder();
+    private volatile long lastBatchMillis;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository, OutboxSink outboxSink, TransactionTemplate transactionTemplate,
+                       @Value("${outbox.relay.batch-size:500}") int batchSize) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxSink = outboxSink;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${outbox.relay.interval:PT1S}")
+    public void relay() {
+        int relayed;
+        do {
+            relayed = relayBatch();
+        } while (relayed == batchSize);
+    }
+
+    // Returns how many events were delivered, or 0 when the batch failed.
+    int relayBatch() {
+        long start = System.nanoTime();
+        try {
+            Integer relayed = transactionTemplate.execute(status -> {
+                List<OutboxEvent> batch = outboxEventRepository.lockNextBatch(Limit.of(batchSize));
+                if (batch.isEmpty()) {
+                    return 0;
+                }
+                List<OutboxEvent> ready = withoutBlockedAggregates(batch);
+                if (!ready.isEmpty()) {
+                    outboxSink.publish(ready.stream().map(OutboxMessage::of).toList());
+                    outboxEventRepository.deleteAllByIdInBatch(ready.stream().map(OutboxEvent::getId).toList());
+                }
+                return ready.size();
+            });
+            if (relayed != null && relayed > 0) {
+                published.add(relayed);
+                batches.increment();
+                lastBatchMillis = Duration.ofNanos(System.nanoTime() - start).toMillis();
+            }
+            return relayed == null ? 0 : relayed;
+        } catch (RuntimeException e) {
+            failedBatches.increment();
+            log.warn("Outbox batch could not be relayed, it will be retried", e);
+            return 0;
+        }
+    }
+
+    public OutboxStats getStats() {
+        Instant oldest = outboxEventRepository.findOldestCreatedAt();
+        long lagMillis = oldest == null ? 0 : Math.max(0, Duration.between(oldest, Instant.now()).toMillis());
+        double uptimeSeconds = Math.max(1, Duration.between(startedAt, Instant.now()).toSeconds());
+        return new OutboxStats(published.sum(), batches.sum(), failedBatches.sum(), outboxEventRepository.count(),
+                lagMillis, published.sum() / uptimeSeconds, lastBatchMillis);
+    }
+
+    private List<OutboxEvent> withoutBlockedAggregates(List<OutboxEvent> batch) {
+        List<Long> locked = batch.stream().map(OutboxEvent::getId).toList();
+        Set<Long> aggregateIds = new HashSet<>();
+        batch.forEach(event -> aggregateIds.add(event.getAggregateId()));
+        List<OutboxEvent> blocking = outboxEventRepository.findPendingBefore(locked.get(locked.size() - 1), locked, aggregateIds);
+        if (blocking.isEmpty()) {
+            return batch;
+        }
+        return batch.stream()
+                .filter(event -> blocking.stream().noneMatch(older -> older.getId() < event.getId()
+                        && Objects.equals(older.getAggregateType(), event.getAggregateType())
+                        && Objects.equals(older.getAggregateId(), event.getAggregateId())))
+                .toList();
+    }
+}
@@ -0,0 +1,87 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+// Records mutation events in the outbox table inside the transaction that makes the change, so
+// an event is stored exactly when its change commits. The events of one transaction are kept
+// until just before commit and then inserted as a single JDBC batch.
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+    public static final String CHALLENGE_AGGREGATE = "challenge";
+    public static final String USER_AGGREGATE = "user";
+    private static final String INSERT_SQL = "insert into outbox_events (aggregate_type, aggregate_id, event_type, payload, created_at) "
+            + "values (?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @EventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        append(CHALLENGE_AGGREGATE, event.challengeId(), event.type(), event);
+    }
+
+    @EventListener
+    public void onUserChanged(UserChangedEvent event) {
+        append(USER_AGGREGATE, event.userId(), event.type(), event);
+    }
+
+    private void append(String aggregateType, Long aggregateId, ChallengeChangedEvent.ChangeType type, Object event) {
+        if (!TransactionSynchronizationManager.isActualTransactionActive()) {
+            throw new IllegalStateException("Mutation events must be published inside a transaction");
+        }
+        String payload;
+        try {
+            payload = objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize " + event, e);
+        }
+        pendingRows().add(new Object[]{aggregateType, aggregateId, type.name(), payload, Timestamp.from(Instant.now())});
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> pendingRows() {
+        List<Object[]> rows = (List<Object[]>) TransactionSynchronizationManager.getResource(this);
+        if (rows == null) {
+            List<Object[]> pending = new ArrayList<>();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void beforeCommit(boolean readOnly) {
+                    jdbcTemplate.batchUpdate(INSERT_SQL, pending);
+                }
+
+                @Override
+                public void suspend() {
+                    TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+                }
+
+                @Override
+                public void resume() {
+                    TransactionSynchronizationManager.bindResource(OutboxWriter.this, pending);
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResource(OutboxWriter.this);
+                }
+            });
+            rows = pending;
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,172 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+// Order-statistic treap ordered by score descending, then user id ascending.
+// Every node tracks its subtree size so rank and k-th lookups are O(log n).
+final class RankedScores {
+    private final Map<Long, Long> scores = new HashMap<>();
+    private Node root;
+
+    private static final class Node {
+        final long score;
+        final long userId;
+        final int priority = ThreadLocalRandom.current().nextInt();
+        Node left;
+        Node right;
+        int size = 1;
+
+        Node(long score, long userId) {
+            this.score = score;
+            this.userId = userId;
+        }
+    }
+
+    synchronized void add(long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        Long previous = scores.get(userId);
+        long score = (previous == null ? 0 : previous) + delta;
+        if (previous != null) {
+            root = remove(root, previous, userId);
+        }
+        if (score > 0) {
+            scores.put(userId, score);
+            root = insert(root, new Node(score, userId));
+        } else {
+            scores.remove(userId);
+        }
+    }
+
+    synchronized long score(long userId) {
+        return scores.getOrDefault(userId, 0L);
+    }
+
+    // 1-based position of the user, or 0 when the user has no score.
+    synchronized int rank(long userId) {
+        Long score = scores.get(userId);
+        if (score == null) {
+            return 0;
+        }
+        int before = 0;
+        Node node = root;
+        while (node != null) {
+            int cmp = compare(score, userId, node);
+            if (cmp < 0) {
+                node = node.left;
+            } else {
+                before += size(node.left);
+                if (cmp == 0) {
+                    break;
+                }
+                before += 1;
+                node = node.right;
+            }
+        }
+        return before + 1;
+    }
+
+    synchronized List<Long> top(int limit) {
+        List<Long> userIds = new ArrayList<>(Math.min(limit, size(root)));
+        collect(root, limit, userIds);
+        return userIds;
+    }
+
+    synchronized int size() {
+        return size(root);
+    }
+
+    private static void collect(Node node, int limit, List<Long> userIds) {
+        if (node == null || userIds.size() >= limit) {
+            return;
+        }
+        collect(node.left, limit, userIds);
+        if (userIds.size() < limit) {
+            userIds.add(node.userId);
+            collect(node.right, limit, userIds);
+        }
+    }
+
+    private static int compare(long score, long userId, Node node) {
+        if (score != node.score) {
+            return score > node.score ? -1 : 1;
+        }
+        return Long.compare(userId, node.userId);
+    }
+
+    private static int size(Node node) {
+        return node == null ? 0 : node.size;
+    }
+
+    private static Node update(Node node) {
+        node.size = 1 + size(node.left) + size(node.right);
+        return node;
+    }
+
+    private static Node insert(Node node, Node inserted) {
+        if (node == null) {
+            return inserted;
+        }
+        if (compare(inserted.score, inserted.userId, node) < 0) {
+            node.left = insert(node.left, inserted);
+            if (node.left.priority > node.priority) {
+                return rotateRight(node);
+            }
+        } else {
+            node.right = insert(node.right, inserted);
+            if (node.right.priority > node.priority) {
+                return rotateLeft(node);
+            }
+        }
+        return update(node);
+    }
+
+    private static Node remove(Node node, long score, long userId) {
+        if (node == null) {
+            return null;
+        }
+        int cmp = compare(score, userId, node);
+        if (cmp < 0) {
+            node.left = remove(node.left, score, userId);
+        } else if (cmp > 0) {
+            node.right = remove(node.right, score, userId);
+        } else {
+            return merge(node.left, node.right);
+        }
+        return update(node);
+    }
+
+    private static Node merge(Node left, Node right) {
+        if (left == null) {
+            return right;
+        }
+        if (right == null) {
+            return left;
+        }
+        if (left.priority > right.priority) {
+            left.right = merge(left.right, right);
+            return update(left);
+        }
+        right.left = merge(left, right.left);
+        return update(right);
+    }
+
+    private static Node rotateRight(Node node) {
+        Node pivot = node.left;
+        node.left = pivot.right;
+        pivot.right = update(node);
+        return update(pivot);
+    }
+
+    private static Node rotateLeft(Node node) {
+        Node pivot = node.right;
+        node.right = pivot.left;
+        pivot.left = update(node);
+        return update(pivot);
+    }
+}
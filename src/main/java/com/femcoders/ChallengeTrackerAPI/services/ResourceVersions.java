@@ -0,0 +1,84 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent.ChangeType;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengesArchivedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Counters for the parts of a representation that the entity @Version does not cover.
+// They carry the boot epoch because they live in memory, and they are read before the body.
+// Each change bumps them twice. The bump before commit means no tag issued before the change
+// still validates once it is visible. The bump after commit retires tags that were issued
+// while the commit was in flight, since those may have been sent with the old body. The one
+// window left is a tag issued during the commit and revalidated before the second bump.
+@Component
+public class ResourceVersions {
+    private final String epoch = Long.toString(System.currentTimeMillis(), Character.MAX_RADIX);
+    private final AtomicLong challengesVersion = new AtomicLong();
+    private final AtomicLong usersVersion = new AtomicLong();
+    private final Map<Long, Long> userVersions = new ConcurrentHashMap<>();
+
+    public String challengeRepresentation() {
+        return epoch + "-" + usersVersion.get();
+    }
+
+    // The query is the normalized list parameters, so each page and filter gets its own tag.
+    public String challengeListETag(Long viewerId, String query) {
+        return "cl-" + epoch + "-" + challengesVersion.get() + "-" + usersVersion.get() + "-" + (viewerId == null ? "anonymous" : viewerId)
+                + "-" + query;
+    }
+
+    public String userRepresentation(Long userId) {
+        return epoch + "-" + userVersions.getOrDefault(userId, 0L);
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeChallengeChanged(ChallengeChangedEvent event) {
+        onChallengeChanged(event);
+    }
+
+    @TransactionalEventListener
+    public void onChallengeChanged(ChallengeChangedEvent event) {
+        // UserResponse lists challenge titles, so the owner's representation changes too.
+        userVersions.merge(event.userId(), 1L, Long::sum);
+        challengesVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeChallengesArchived(ChallengesArchivedEvent event) {
+        onChallengesArchived(event);
+    }
+
+    @TransactionalEventListener
+    public void onChallengesArchived(ChallengesArchivedEvent event) {
+        event.challenges().forEach(challenge -> userVersions.merge(challenge.userId(), 1L, Long::sum));
+        challengesVersion.incrementAndGet();
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.BEFORE_COMMIT)
+    public void beforeUserChanged(UserChangedEvent event) {
+        onUserChanged(event);
+    }
+
+    @TransactionalEventListener
+    public void onUserChanged(UserChangedEvent event) {
+        // A new user owns no challenges yet, so nothing that was served before mentions them.
+        if (event.type() == ChangeType.CREATED) {
+            return;
+        }
+        if (event.deleted()) {
+            userVersions.remove(event.userId());
+        } else {
+            userVersions.merge(event.userId(), 1L, Long::sum);
+        }
+        // Challenge responses embed the owner's username.
+        usersVersion.incrementAndGet();
+    }
+}
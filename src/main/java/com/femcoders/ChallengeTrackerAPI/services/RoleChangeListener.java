@@ -0,0 +1,22 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.models.Role;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+
+// Built by Hibernate through Spring's bean container. DefaultRole is looked up lazily because its
+// repository needs the entity manager factory that is still being built when this is created.
+@RequiredArgsConstructor
+public class RoleChangeListener {
+    private final ObjectProvider<DefaultRole> defaultRole;
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    void onRoleChanged(Role role) {
+        defaultRole.ifAvailable(DefaultRole::evict);
+    }
+}
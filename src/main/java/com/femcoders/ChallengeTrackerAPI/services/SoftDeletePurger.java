@@ -0,0 +1,125 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.purge.PurgeStats;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.LongAdder;
+
+// Removes soft-deleted rows in small batches, one transaction each, so no purge holds locks for
+// long. The cron only fires in the off-peak window and every run stops after max-run-time,
+// leaving the rest of the backlog to the next run. Challenges go first, then the archived
+// challenges of deleted users: a user is purged only once none of its challenges are left.
+@Slf4j
+@Component
+public class SoftDeletePurger {
+    private final ChallengeRepository challengeRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final int batchSize;
+    private final Duration maxRunTime;
+    private final LongAdder purgedChallenges = new LongAdder();
+    private final LongAdder purgedUsers = new LongAdder();
+    private final LongAdder runs = new LongAdder();
+    private volatile double lastRunRowsPerSecond;
+    private volatile long lastRunMillis;
+
+    public SoftDeletePurger(ChallengeRepository challengeRepository, ArchivedChallengeRepository archivedChallengeRepository,
+                            UserRepository userRepository, TransactionTemplate transactionTemplate,
+                            @Value("${purge.batch-size:500}") int batchSize,
+                            @Value("${purge.max-run-time:PT5S}") Duration maxRunTime) {
+        this.challengeRepository = challengeRepository;
+        this.archivedChallengeRepository = archivedChallengeRepository;
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.maxRunTime = maxRunTime;
+    }
+
+    @Scheduled(cron = "${purge.cron:*/30 * 1-4 * * *}")
+    public void purge() {
+        long start = System.nanoTime();
+        long deadline = start + maxRunTime.toNanos();
+        long challenges = 0;
+        long users = 0;
+        int purged;
+        do {
+            purged = purgeChallengeBatch();
+            challenges += purged;
+        } while (purged == batchSize && System.nanoTime() < deadline);
+        if (purged < batchSize) {
+            do {
+                purged = purgeArchivedBatch();
+                challenges += purged;
+            } while (purged == batchSize && System.nanoTime() < deadline);
+        }
+        if (purged < batchSize) {
+            do {
+                purged = purgeUserBatch();
+                users += purged;
+            } while (purged == batchSize && System.nanoTime() < deadline);
+        }
+
+        long elapsedNanos = System.nanoTime() - start;
+        runs.increment();
+        lastRunMillis = Duration.ofNanos(elapsedNanos).toMillis();
+        lastRunRowsPerSecond = (challenges + users) / Math.max(elapsedNanos / 1e9, 1e-3);
+        if (challenges + users > 0) {
+            log.info("Purged {} challenges and {} users in {} ms ({} rows/s), {} challenges and {} users left",
+                    challenges, users, lastRunMillis, Math.round(lastRunRowsPerSecond),
+                    challengeBacklog(), userRepository.countSoftDeleted());
+        }
+    }
+
+    int purgeChallengeBatch() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> ids = challengeRepository.findSoftDeletedIds(batchSize);
+            return ids.isEmpty() ? 0 : challengeRepository.purgeByIdIn(ids);
+        });
+        int count = purged == null ? 0 : purged;
+        purgedChallenges.add(count);
+        return count;
+    }
+
+    int purgeArchivedBatch() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> ids = archivedChallengeRepository.findIdsOwnedBySoftDeletedUsers(batchSize);
+            return ids.isEmpty() ? 0 : archivedChallengeRepository.purgeByIdIn(ids);
+        });
+        int count = purged == null ? 0 : purged;
+        purgedChallenges.add(count);
+        return count;
+    }
+
+    int purgeUserBatch() {
+        Integer purged = transactionTemplate.execute(status -> {
+            List<Long> ids = userRepository.findPurgeableIds(batchSize);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+            userRepository.purgeRolesByUserIdIn(ids);
+            return userRepository.purgeByIdIn(ids);
+        });
+        int count = purged == null ? 0 : purged;
+        purgedUsers.add(count);
+        return count;
+    }
+
+    public PurgeStats getStats() {
+        return new PurgeStats(purgedChallenges.sum(), purgedUsers.sum(), runs.sum(),
+                challengeBacklog(), userRepository.countSoftDeleted(), lastRunRowsPerSecond, lastRunMillis);
+    }
+
+    private long challengeBacklog() {
+        return challengeRepository.countSoftDeleted() + archivedChallengeRepository.countOwnedBySoftDeletedUsers();
+    }
+}
@@ -1,109 +1,171 @@
 package com.femcoders.ChallengeTrackerAPI.services;
 
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserCursor;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserPage;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRow;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserUpdateRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UsernameChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.exceptions.ConflictException;
 import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
-import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PreconditionFailedException;
 import com.femcoders.ChallengeTrackerAPI.models.Role;
 import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.RoleRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
 import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsPasswordService;
 import org.springframework.security.core.userdetails.UserDetailsService;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Instant;
 import java.util.*;
 import java.util.stream.Collectors;
 
 
 @Service
 @RequiredArgsConstructor
-public class UserService implements UserDetailsService {
+public class UserService implements UserDetailsService, UserDetailsPasswordService {
+    public static final int MAX_PAGE_SIZE = 100;
+
     private final UserRepository userRepository;
     private final UserMapperImpl userMapperImpl;
     private final RoleRepository roleRepository;
-    private final BCryptPasswordEncoder passwordEncoder;
+    private final PasswordEncoder passwordEncoder;
+    private final ChallengeStatistics challengeStatistics;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ChallengeTombstoneRepository challengeTombstoneRepository;
+    private final ChallengeRepository challengeRepository;
+    private final ArchivedChallengeRepository archivedChallengeRepository;
+    private final ResourceVersions resourceVersions;
+    private final DefaultRole defaultRole;
+    private final TransactionTemplate transactionTemplate;
 
     public UserResponse getUserByUsername(String username) {
-        User user = userRepository.findByUsernameIgnoreCase(username)
+        User user = userRepository.findByUsernameNormalized(User.normalize(username))
                 .orElseThrow(()-> new EntityNotFoundException(User.class.getSimpleName(), username));
         return userMapperImpl.entityToDto(user);
     }
 
     public UserResponse getUserById(Long id) {
+        return getTaggedUserById(id).body();
+    }
+
+    public TaggedResponse<UserResponse> getTaggedUserById(Long id) {
+        String representation = resourceVersions.userRepresentation(id);
         User user = userRepository.findById(id)
                 .orElseThrow(()->new EntityNotFoundException(User.class.getSimpleName(), id));
-        return userMapperImpl.entityToDto(user);
+        return new TaggedResponse<>(userMapperImpl.entityToDto(user), EntityTags.of(user.getVersion(), representation));
     }
 
-    public List<UserResponse> getAllUsers() {
-        List<User> users = userRepository.findAll();
-        return users.stream()
-                .map(user -> userMapperImpl.entityToDto(user))
-                .toList();
+    public ChallengeStatsResponse getUserStatistics(Long id) {
+        if (!userRepository.existsById(id)) {
+            throw new EntityNotFoundException(User.class.getSimpleName(), id);
+        }
+        return challengeStatistics.getUserStatistics(id);
     }
 
-    @Transactional
-    public UserResponse addUser(UserRequest userRequest) {
-        Optional<User> user = userRepository.findByUsernameIgnoreCase(userRequest.username());
-        if (user.isPresent()) {
-            throw new RuntimeException("User already exists with username: " + userRequest.username());
+    // Three queries per page whatever its size: the users, then the role names and challenge titles of all of them.
+    public UserPage getUsers(String after, int limit) {
+        if (limit < 1 || limit > MAX_PAGE_SIZE) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_PAGE_SIZE);
         }
-        Optional<User> email = userRepository.findByEmailIgnoreCase((userRequest.email()));
-        if (email.isPresent()) {
-            throw new RuntimeException("Email is already registered: " + userRequest.email());
+        UserCursor cursor = UserCursor.decode(after);
+        List<UserRow> rows = userRepository.findRowsAfter(cursor.lastId(), Limit.of(limit));
+        if (rows.isEmpty()) {
+            return new UserPage(List.of(), null);
         }
-        List<Challenge> initialListOfChallenges = new ArrayList<>();
-        Role userRole = roleRepository.findByRoleNameIgnoreCase("ROLE_USER")
-                .orElseThrow(() -> new EntityNotFoundException("Role", "USER"));
-        List<Role> roles = new ArrayList<>();
-        roles.add(userRole);
-        User newUser = userMapperImpl.dtoToEntity(userRequest, initialListOfChallenges, roles);
-        newUser.setPassword(passwordEncoder.encode(userRequest.password()));
-        User savedUser = userRepository.save(newUser);
-        return userMapperImpl.entityToDto(savedUser);
+        List<Long> ids = rows.stream()
+                .map(UserRow::getId)
+                .toList();
+        Map<Long, List<String>> roles = groupByUser(userRepository.findRoleNamesByUserIdIn(ids));
+        Map<Long, List<String>> challenges = groupByUser(challengeRepository.findTitlesByUserIdIn(ids));
+
+        List<UserResponse> users = rows.stream()
+                .map(row -> userMapperImpl.rowToDto(row,
+                        challenges.getOrDefault(row.getId(), List.of()), roles.getOrDefault(row.getId(), List.of())))
+                .toList();
+        String nextCursor = rows.size() == limit ? new UserCursor(ids.get(ids.size() - 1)).encode() : null;
+        return new UserPage(users, nextCursor);
+    }
+
+    private static Map<Long, List<String>> groupByUser(List<UserValueRow> rows) {
+        return rows.stream()
+                .collect(Collectors.groupingBy(UserValueRow::userId,
+                        Collectors.mapping(UserValueRow::value, Collectors.toList())));
+    }
+
+    public UserResponse addUser(UserRequest userRequest) {
+        return insertUser(userRequest);
     }
 
     public UserResponse updateUser(Long id, UserUpdateRequest userRequest, UserDetail userDetail) {
-        User user = userRepository.findById(id)
-                .orElseThrow(() -> new EntityNotFoundException(User.class.getSimpleName(), id));
+        return updateUser(id, userRequest, userDetail, null).body();
+    }
 
+    // A new password is hashed before the transaction opens, so a request queued on the hashing pool
+    // does not hold a database connection. Only the owner may change it, which is checked first so
+    // nobody else gets a hash computed.
+    public TaggedResponse<UserResponse> updateUser(Long id, UserUpdateRequest userRequest, UserDetail userDetail, String ifMatch) {
         boolean isAdmin = userDetail.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
         boolean isOwner = Objects.equals(userDetail.getId(), id);
 
+        String passwordHash = null;
+        if (userRequest.password() != null && !userRequest.password().isBlank()) {
+            if (!isOwner) {
+                throw new AccessDeniedException(isAdmin
+                        ? "Admins are not allowed to change passwords of other users"
+                        : "You don't have permission to update this user");
+            }
+            passwordHash = passwordEncoder.encode(userRequest.password());
+        }
+        String newPasswordHash = passwordHash;
+        return transactionTemplate.execute(status -> applyUpdate(id, userRequest, isAdmin, isOwner, newPasswordHash, ifMatch));
+    }
+
+    private TaggedResponse<UserResponse> applyUpdate(Long id, UserUpdateRequest userRequest, boolean isAdmin, boolean isOwner,
+                                                     String passwordHash, String ifMatch) {
+        User user = userRepository.findById(id)
+                .orElseThrow(() -> new EntityNotFoundException(User.class.getSimpleName(), id));
+
         if (!isAdmin && !isOwner) {
             throw new AccessDeniedException("You don't have permission to update this user");
         }
+        if (!EntityTags.matches(ifMatch, user.getVersion())) {
+            throw new PreconditionFailedException(User.class.getSimpleName(), id);
+        }
 
+        // A taken username or email is rejected by the unique indexes when the flush below runs.
+        String previousUsername = user.getUsernameNormalized();
         if (userRequest.username() != null && !userRequest.username().isBlank()) {
-            if (!userRequest.username().equals(user.getUsername())) {
-                if (userRepository.findByUsernameIgnoreCase(userRequest.username()).isPresent()) {
-                    throw new IllegalArgumentException("Username already taken");
-                }
-                user.setUsername(userRequest.username());
-            }
+            user.setUsername(userRequest.username());
         }
 
         if (userRequest.email() != null && !userRequest.email().isBlank()) {
-            if (!userRequest.email().equals(user.getEmail())) {
-                if (userRepository.findByEmailIgnoreCase(userRequest.email()).isPresent()) {
-                    throw new IllegalArgumentException("Email is already registered");
-                }
-                user.setEmail(userRequest.email());
-            }
+            user.setEmail(userRequest.email());
         }
 
-        if (userRequest.password() != null && !userRequest.password().isBlank()) {
-            if (isAdmin && !isOwner) {
-                throw new AccessDeniedException("Admins are not allowed to change passwords of other users");
-            }
-            user.setPassword(passwordEncoder.encode(userRequest.password()));
+        if (passwordHash != null) {
+            user.setPassword(passwordHash);
         }
 
         if (userRequest.roles() != null && !userRequest.roles().isEmpty()) {
@@ -118,10 +180,22 @@ public class UserService implements UserDetailsService {
             user.setRoles(updatedRoles);
         }
 
+        String representation = resourceVersions.userRepresentation(id);
         User savedUser = userRepository.save(user);
-        return userMapperImpl.entityToDto(savedUser);
+        try {
+            userRepository.flush();
+        } catch (DataIntegrityViolationException exception) {
+            throw conflict(exception);
+        }
+        eventPublisher.publishEvent(UserChangedEvent.updated(savedUser.getId()));
+        String currentUsername = User.normalize(savedUser.getUsername());
+        if (!Objects.equals(previousUsername, currentUsername)) {
+            eventPublisher.publishEvent(UsernameChangedEvent.renamed(previousUsername, currentUsername));
+        }
+        return new TaggedResponse<>(userMapperImpl.entityToDto(savedUser), EntityTags.of(savedUser.getVersion(), representation));
     }
 
+    @Transactional
     public String deleteUser(Long id, UserDetail userDetail) {
         boolean isAdmin = userDetail.getAuthorities().stream()
                 .anyMatch(auth -> auth.getAuthority().equals("ROLE_ADMIN"));
@@ -130,37 +204,76 @@ public class UserService implements UserDetailsService {
         }
         User userToDelete = userRepository.findById(id)
                 .orElseThrow(() -> new EntityNotFoundException(User.class.getSimpleName(), id));
-        userRepository.delete(userToDelete);
+        challengeRepository.lockSnapshotsByUserId(id).forEach(challenge ->
+                eventPublisher.publishEvent(ChallengeChangedEvent.deleted(challenge)));
+        archivedChallengeRepository.findSnapshotsByUserId(id).forEach(challenge ->
+                eventPublisher.publishEvent(ChallengeChangedEvent.deleted(challenge)));
+        // Two bulk updates instead of a cascade of row deletes; SoftDeletePurger removes the rows off-peak.
+        Instant deletedAt = Instant.now();
+        challengeTombstoneRepository.insertForUser(id, deletedAt);
+        userToDelete.setDeletedAt(deletedAt);
+        userRepository.save(userToDelete);
+        challengeRepository.softDeleteByUserId(id, deletedAt);
+        eventPublisher.publishEvent(UserChangedEvent.deleted(id));
+        eventPublisher.publishEvent(UsernameChangedEvent.deleted(User.normalize(userToDelete.getUsername())));
         return "User with id " + id + " has been deleted";
     }
 
     @Override
     public UserDetail loadUserByUsername(String username) throws EntityNotFoundException {
-        User user = userRepository.findByUsernameIgnoreCase(username)
+        User user = userRepository.findByUsernameNormalized(User.normalize(username))
                 .orElseThrow(() -> new EntityNotFoundException(User.class.getSimpleName(), username));
         return new UserDetail(user);
     }
 
+    // Called by the authentication provider after a successful login whose hash has another cost.
+    // A bulk update leaves the version alone, since the hash is not part of any representation.
+    @Override
     @Transactional
-    public UserResponse registerUser(UserRequest request) {
-        if (userRepository.existsByUsername(request.username())) {
-            throw new IllegalArgumentException("Username is already taken.");
-        }
-
-        if (userRepository.existsByEmail(request.email())) {
-            throw new IllegalArgumentException("Email is already registered");
-        }
+    public UserDetails updatePassword(UserDetails user, String newPassword) {
+        userRepository.updatePassword(User.normalize(user.getUsername()), user.getPassword(), newPassword);
+        return user;
+    }
 
-        Role defaultRole = roleRepository.findByRoleNameIgnoreCase("ROLE_USER")
-                .orElseThrow(() -> new RuntimeException("Default role not found."));
+    public UserResponse registerUser(UserRequest request) {
+        return insertUser(request);
+    }
 
-        List<Role> roles = new ArrayList<>();
-        roles.add(defaultRole);
-        User user = userMapperImpl.dtoToEntity(request, new ArrayList<>(), roles);
+    // A single insert: the unique indexes on the normalized columns reject a taken username or
+    // email, which also settles two signups racing for the same name, and the default role is cached.
+    // The password is hashed before the transaction opens, so a signup queued on the hashing pool
+    // does not hold a database connection.
+    private UserResponse insertUser(UserRequest request) {
+        String passwordHash = passwordEncoder.encode(request.password());
+        return transactionTemplate.execute(status -> userMapperImpl.entityToDto(insertUser(request, passwordHash)));
+    }
 
-        user.setPassword(passwordEncoder.encode(request.password()));
+    private User insertUser(UserRequest request, String passwordHash) {
+        User user = userMapperImpl.dtoToEntity(request, new ArrayList<>(), List.of(defaultRole.get()));
+        user.setPassword(passwordHash);
+        try {
+            userRepository.saveAndFlush(user);
+        } catch (DataIntegrityViolationException exception) {
+            RuntimeException conflict = conflict(exception);
+            if (conflict == exception) {
+                // Not a taken name or email, so it may be a foreign key to a role that was recreated.
+                defaultRole.evict();
+            }
+            throw conflict;
+        }
+        eventPublisher.publishEvent(UserChangedEvent.created(user.getId()));
+        eventPublisher.publishEvent(UsernameChangedEvent.created(User.normalize(user.getUsername())));
+        return user;
+    }
 
-        userRepository.save(user);
-        return userMapperImpl.entityToDto(user);
+    private static RuntimeException conflict(DataIntegrityViolationException exception) {
+        String cause = String.valueOf(exception.getMostSpecificCause().getMessage()).toLowerCase(Locale.ROOT);
+        if (cause.contains("uk_users_username_normalized")) {
+            return new ConflictException("Username is already taken");
+        }
+        if (cause.contains("uk_users_email_normalized")) {
+            return new ConflictException("Email is already registered");
+        }
+        return exception;
     }
 }
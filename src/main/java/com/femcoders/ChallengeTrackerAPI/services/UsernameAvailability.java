@@ -0,0 +1,139 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameAvailabilityResponse;
+import com.femcoders.ChallengeTrackerAPI.events.UsernameChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.stream.Stream;
+
+// Answers the signup form's "is this username free?" from a counting Bloom filter of taken
+// names. A name the filter has never seen is free without a query; only the rare hit is
+// checked against the unique index. The filter is only a shortcut: registration still relies
+// on the unique constraint, so a name it misses just ends in a 409.
+@Slf4j
+@Component
+public class UsernameAvailability {
+    private final UserRepository userRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final long expectedUsers;
+    private final double falsePositiveRate;
+    private final LongAdder databaseChecks = new LongAdder();
+    // Listeners share the read lock. A rebuild takes the write lock only to open its buffer and to
+    // swap the filter in, so events never wait on the scan itself.
+    private final ReadWriteLock swapLock = new ReentrantReadWriteLock();
+    private volatile CountingBloomFilter takenNames;
+    // Changes committed while a rebuild runs, otherwise null. Guarded by swapLock.
+    private Queue<UsernameChangedEvent> pending;
+
+    public UsernameAvailability(UserRepository userRepository, TransactionTemplate transactionTemplate,
+                                @Value("${users.availability.expected-users:100000}") long expectedUsers,
+                                @Value("${users.availability.false-positive-rate:0.01}") double falsePositiveRate) {
+        this.userRepository = userRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.expectedUsers = expectedUsers;
+        this.falsePositiveRate = falsePositiveRate;
+        this.takenNames = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+    }
+
+    public UsernameAvailabilityResponse check(String username) {
+        if (username == null || username.isBlank()) {
+            throw new IllegalArgumentException("Username is required");
+        }
+        String normalized = User.normalize(username);
+        if (!takenNames.mightContain(normalized)) {
+            return new UsernameAvailabilityResponse(username, true);
+        }
+        databaseChecks.increment();
+        return new UsernameAvailabilityResponse(username, !userRepository.existsByUsernameNormalized(normalized));
+    }
+
+    public long getDatabaseChecks() {
+        return databaseChecks.sum();
+    }
+
+    // Changes committed while the scan runs are buffered and replayed onto the new filter before the
+    // swap, so none is lost with the old filter. They are replayed after the scan rather than applied
+    // as they arrive: removing a name the scan has not added yet would decrement counters that belong
+    // to other names. A change committed between opening the buffer and the scan taking its snapshot
+    // is applied twice; a doubled add only costs a database check, and a removal is skipped when the
+    // filter no longer holds the name.
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void rebuild() {
+        swapLock.writeLock().lock();
+        try {
+            pending = new ConcurrentLinkedQueue<>();
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+
+        CountingBloomFilter rebuilt = new CountingBloomFilter(expectedUsers, falsePositiveRate);
+        Long count;
+        try {
+            count = transactionTemplate.execute(status -> {
+                long loaded = 0;
+                try (Stream<String> usernames = userRepository.streamUsernamesNormalized()) {
+                    Iterator<String> iterator = usernames.iterator();
+                    while (iterator.hasNext()) {
+                        rebuilt.add(iterator.next());
+                        loaded++;
+                    }
+                }
+                return loaded;
+            });
+        } catch (RuntimeException e) {
+            swapLock.writeLock().lock();
+            try {
+                pending = null;
+            } finally {
+                swapLock.writeLock().unlock();
+            }
+            throw e;
+        }
+
+        swapLock.writeLock().lock();
+        try {
+            pending.forEach(event -> apply(rebuilt, event));
+            takenNames = rebuilt;
+            pending = null;
+        } finally {
+            swapLock.writeLock().unlock();
+        }
+        log.info("Loaded {} usernames into a {} counter filter with {} hashes", count, rebuilt.size(), rebuilt.hashes());
+    }
+
+    @TransactionalEventListener
+    public void onUsernameChanged(UsernameChangedEvent event) {
+        swapLock.readLock().lock();
+        try {
+            apply(takenNames, event);
+            if (pending != null) {
+                pending.add(event);
+            }
+        } finally {
+            swapLock.readLock().unlock();
+        }
+    }
+
+    private static void apply(CountingBloomFilter filter, UsernameChangedEvent event) {
+        if (event.current() != null) {
+            filter.add(event.current());
+        }
+        if (event.previous() != null && filter.mightContain(event.previous())) {
+            filter.remove(event.previous());
+        }
+    }
+}
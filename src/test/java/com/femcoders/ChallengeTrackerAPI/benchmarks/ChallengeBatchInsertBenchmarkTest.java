@@ -0,0 +1,74 @@
+package com.femcoders.ChallengeTrackerAPI.benchmarks;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.Collections;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dbenchmarks=true -Dtest=ChallengeBatchInsertBenchmarkTest
+// Fails if the batch endpoint does not beat one insert per item at every size.
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Benchmark: one POST /challenges per item vs POST /challenges/batch")
+public class ChallengeBatchInsertBenchmarkTest {
+    private static final String BENCHMARK_TITLE = "Benchmark batch challenge";
+
+    @Autowired
+    private ChallengeService challengeService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void removeBenchmarkRows() {
+        jdbcTemplate.update("DELETE FROM challenges WHERE title = ?", BENCHMARK_TITLE);
+    }
+
+    @ParameterizedTest(name = "{0} challenges")
+    @ValueSource(ints = {100, 500, 1_000})
+    void compareSingleInsertsWithBatch(int items) {
+        UserDetail owner = new UserDetail(userRepository.findById(1L).orElseThrow());
+        ChallengeRequest request = new ChallengeRequest(BENCHMARK_TITLE, "Generated for benchmarking", Status.PENDING,
+                Classification.FINANCES, 3, "None");
+        List<ChallengeRequest> requests = Collections.nCopies(items, request);
+
+        long singleStart = System.nanoTime();
+        for (ChallengeRequest item : requests) {
+            challengeService.addChallenge(item, owner);
+        }
+        long singleNanos = System.nanoTime() - singleStart;
+
+        long batchStart = System.nanoTime();
+        ChallengeBatchResponse response = challengeService.addChallenges(requests, owner);
+        long batchNanos = System.nanoTime() - batchStart;
+
+        log.info("items={} single={}/s batch={}/s speedup={}x", items, String.format("%.0f", items / (singleNanos / 1e9)),
+                String.format("%.0f", items / (batchNanos / 1e9)), String.format("%.1f", (double) singleNanos / batchNanos));
+        assertThat(response.created()).hasSize(items);
+        assertThat(response.errors()).isEmpty();
+        assertThat(batchNanos).isLessThan(singleNanos);
+    }
+}
@@ -0,0 +1,108 @@
+package com.femcoders.ChallengeTrackerAPI.benchmarks;
+
+import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Run with: mvn test -Dbenchmarks=true -Dtest=ChallengeOrderingBenchmarkTest
+// Fails if the single query is not faster than the merge at every size.
+@Slf4j
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmarks", matches = "true")
+@DisplayName("Benchmark: current-user-first ordering, Java merge vs single SQL query")
+public class ChallengeOrderingBenchmarkTest {
+    private static final long CURRENT_USER_ID = 1L;
+    private static final long FIRST_BENCHMARK_ID = 1_000L;
+    private static final int PAGE_SIZE = 20;
+    private static final int INSERT_CHUNK = 1_000;
+    private static final int ITERATIONS = 5;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ChallengeRepository challengeRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @AfterEach
+    void removeBenchmarkRows() {
+        jdbcTemplate.update("DELETE FROM challenges WHERE id >= ?", FIRST_BENCHMARK_ID);
+    }
+
+    @ParameterizedTest(name = "{0} challenges")
+    @ValueSource(ints = {10_000, 100_000, 1_000_000})
+    void compareJavaMergeWithSingleQuery(int rows) {
+        seedChallenges(rows);
+
+        long mergeNanos = medianNanos(() -> legacyMergeFirstPage().size());
+        long queryNanos = medianNanos(() -> challengeRepository.findPageOwnedFirst(CURRENT_USER_ID, 0, 0L, PAGE_SIZE).size());
+
+        log.info("rows={} javaMerge={}ms singleQuery={}ms speedup={}x", rows, String.format("%.2f", mergeNanos / 1e6),
+                String.format("%.2f", queryNanos / 1e6), String.format("%.1f", (double) mergeNanos / queryNanos));
+        assertThat(challengeRepository.findPageOwnedFirst(CURRENT_USER_ID, 0, 0L, PAGE_SIZE)).hasSize(PAGE_SIZE);
+        assertThat(queryNanos).isLessThan(mergeNanos);
+    }
+
+    private List<Challenge> legacyMergeFirstPage() {
+        return transactionTemplate.execute(status -> {
+            User currentUser = userRepository.findById(CURRENT_USER_ID).orElseThrow();
+            List<Challenge> ordered = new ArrayList<>(challengeRepository.findAllByUser(currentUser));
+            challengeRepository.findAll().stream()
+                    .filter(challenge -> !challenge.getUser().getId().equals(CURRENT_USER_ID))
+                    .forEach(ordered::add);
+            return ordered.subList(0, PAGE_SIZE);
+        });
+    }
+
+    private long medianNanos(Supplier<Integer> run) {
+        run.get();
+        long[] samples = new long[ITERATIONS];
+        for (int i = 0; i < ITERATIONS; i++) {
+            long start = System.nanoTime();
+            run.get();
+            samples[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(samples);
+        return samples[ITERATIONS / 2];
+    }
+
+    private void seedChallenges(int rows) {
+        for (int start = 0; start < rows; start += INSERT_CHUNK) {
+            StringBuilder sql = new StringBuilder("INSERT INTO challenges(id, title, description, status, classification, difficulty_level, prize, user_id) VALUES ");
+            int end = Math.min(rows, start + INSERT_CHUNK);
+            for (int i = start; i < end; i++) {
+                long userId = (i % 4) + 1;
+                sql.append(i == start ? "" : ",")
+                        .append("(").append(FIRST_BENCHMARK_ID + i)
+                        .append(", 'Benchmark challenge', 'Generated for benchmarking', 'PENDING', 'FINANCES', 3, 'None', ")
+                        .append(userId).append(")");
+            }
+            jdbcTemplate.update(sql.toString());
+        }
+    }
+}
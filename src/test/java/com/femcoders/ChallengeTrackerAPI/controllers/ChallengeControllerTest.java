@@ -1,12 +1,21 @@
 package com.femcoders.ChallengeTrackerAPI.controllers;
 
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportFormat;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
+import com.femcoders.ChallengeTrackerAPI.events.InMemoryOutboxSink;
 import com.femcoders.ChallengeTrackerAPI.models.Classification;
 import com.femcoders.ChallengeTrackerAPI.models.Role;
 import com.femcoders.ChallengeTrackerAPI.models.Status;
 import com.femcoders.ChallengeTrackerAPI.models.User;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeArchiver;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeCache;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeEventStream;
+import com.femcoders.ChallengeTrackerAPI.services.ChallengeImportService;
+import com.femcoders.ChallengeTrackerAPI.services.OutboxRelay;
+import com.femcoders.ChallengeTrackerAPI.services.OutboxWriter;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -14,11 +23,19 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
 import java.util.Collections;
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -26,8 +43,10 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
-@SpringBootTest
+// Sync reads rows as soon as they are written, since tests never race a slow commit.
+@SpringBootTest(properties = "challenges.sync.commit-window=PT0S")
 @AutoConfigureMockMvc
+@ActiveProfiles("test")
 @Sql(scripts = "/test-data.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_METHOD)
 public class ChallengeControllerTest {
     @Autowired
@@ -36,6 +55,30 @@ public class ChallengeControllerTest {
     @Autowired
     private ObjectMapper objectMapper;
 
+    @Autowired
+    private WebApplicationContext webApplicationContext;
+
+    @Autowired
+    private ChallengeCache challengeCache;
+
+    @Autowired
+    private InMemoryOutboxSink outboxSink;
+
+    @Autowired
+    private OutboxRelay outboxRelay;
+
+    @Autowired
+    private ChallengeArchiver challengeArchiver;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    // test-data.sql rewrites the rows behind the service, so anything cached by an earlier test is stale.
+    @BeforeEach
+    void clearChallengeCache() {
+        challengeCache.invalidateAll();
+    }
+
     private String asJsonString(Object object) {
         try {
             return objectMapper.writeValueAsString(object);
@@ -141,6 +184,22 @@ public class ChallengeControllerTest {
 
         }
 
+        @Test
+        @DisplayName("Should return 304 Not Modified when If-None-Match matches the current ETag")
+        void getChallengeById_returnsNotModified_whenETagMatches() throws Exception {
+            String eTag = performGetRequest("/challenges/" + EXISTING_CHALLENGE_ID)
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(get("/challenges/" + EXISTING_CHALLENGE_ID)
+                            .header(HttpHeaders.IF_NONE_MATCH, eTag)
+                            .with(user("testuser").roles("USER"))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+        }
+
         @Test
         @DisplayName("Should return 4041 Not Found when challenge ID does not exist")
         void getChallengeById_returnsNotFound_whenIdDoesNotExist() throws Exception {
@@ -184,6 +243,48 @@ public class ChallengeControllerTest {
 
     }
 
+    @Nested
+    @DisplayName("Archived challenges")
+    class ArchivedChallengesTests {
+        @BeforeEach
+        void archiveFinishedChallenge() {
+            jdbcTemplate.update("UPDATE challenges SET status = 'COMPLETED_SATISFACTORILY', updated_at = '2020-01-01 00:00:00' WHERE id = 1");
+            assertThat(challengeArchiver.archive()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should only return an archived challenge by ID when includeArchived is set")
+        void getChallengeById_readsArchive_whenIncludeArchived() throws Exception {
+            performGetRequest("/challenges/1")
+                    .andExpect(status().isNotFound());
+
+            performGetRequest("/challenges/1?includeArchived=true")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.title", is("Read more")))
+                    .andExpect(jsonPath("$.status", is("COMPLETED_SATISFACTORILY")));
+        }
+
+        @Test
+        @DisplayName("Should merge archived challenges into the lists when includeArchived is set")
+        void getChallenges_mergeArchive_whenIncludeArchived() throws Exception {
+            performGetRequest("/challenges/user/1")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id", contains(3)));
+
+            performGetRequest("/challenges/user/1?includeArchived=true")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id", contains(1, 3)));
+
+            performGetRequest("/challenges?includeArchived=true&status=COMPLETED_SATISFACTORILY")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id", contains(1)));
+
+            mockMvc.perform(get("/challenges?includeArchived=true&limit=2").accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$[*].id", contains(1, 2)));
+        }
+    }
+
     @Nested
     @DisplayName("POST /challenges")
     class AddChallengeTests {
@@ -433,6 +534,32 @@ public class ChallengeControllerTest {
                     .andExpect(jsonPath("$.message", is("Challenge not found with id " + targetChallengeId)));
         }
 
+        @Test
+        @DisplayName("Should return 412 Precondition Failed when If-Match holds a tag from before another update")
+        void updateChallenge_returnsPreconditionFailed_whenIfMatchIsStale() throws Exception {
+            Long targetChallengeId = CHALLENGE_ID_OWNED_BY_USER_CARMEN;
+            String staleETag = performGetRequest("/challenges/" + targetChallengeId)
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getHeader(HttpHeaders.ETAG);
+
+            mockMvc.perform(put("/challenges/" + targetChallengeId)
+                            .header(HttpHeaders.IF_MATCH, staleETag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(validUpdateRequest))
+                            .with(user(userDetailUserCarmen))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, not(staleETag)));
+
+            mockMvc.perform(put("/challenges/" + targetChallengeId)
+                            .header(HttpHeaders.IF_MATCH, staleETag)
+                            .contentType(MediaType.APPLICATION_JSON)
+                            .content(asJsonString(validUpdateRequest))
+                            .with(user(userDetailUserCarmen))
+                            .accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isPreconditionFailed());
+        }
+
         @Test
         @DisplayName("Should return 401 Unauthorized when not authenticated")
         void updateChallenge_unauthenticated_returnsUnauthorized() throws Exception {
@@ -443,6 +570,285 @@ public class ChallengeControllerTest {
         }
     }
 
+    @Nested
+    @DisplayName("PATCH /challenges/{id}")
+    class PatchChallengeTests {
+        private final Long CHALLENGE_ID_OWNED_BY_USER_CARMEN = 2L;
+        private final Long CHALLENGE_ID_OWNED_BY_USER_BRIAN = 4L;
+
+        private ResultActions performPatchRequest(String url, String body, UserDetail userDetail) throws Exception {
+            return mockMvc.perform(patch(url)
+                    .contentType(ChallengeController.MERGE_PATCH_JSON_VALUE)
+                    .content(body)
+                    .with(user(userDetail))
+                    .accept(MediaType.APPLICATION_JSON));
+        }
+
+        private UserDetail userDetail(Long id, String username, String role) {
+            Role userRole = new Role();
+            userRole.setRoleName(role);
+            return new UserDetail(User.builder()
+                    .id(id)
+                    .username(username)
+                    .password("any_encoded_password")
+                    .roles(Collections.singletonList(userRole))
+                    .build());
+        }
+
+        @Test
+        @DisplayName("Should change only the patched fields when authenticated as owner (200 OK)")
+        void patchChallenge_byOwner_returnsOk() throws Exception {
+            String title = performGetRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN)
+                    .andReturn().getResponse().getContentAsString();
+
+            performPatchRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN, "{\"status\": \"COMPLETED_SATISFACTORILY\"}",
+                    userDetail(2L, "Carmen", "ROLE_USER"))
+                    .andExpect(status().isOk())
+                    .andExpect(header().exists(HttpHeaders.ETAG))
+                    .andExpect(jsonPath("$.status", is("COMPLETED_SATISFACTORILY")))
+                    .andExpect(jsonPath("$.username", is("Carmen")));
+
+            performGetRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN)
+                    .andExpect(jsonPath("$.status", is("COMPLETED_SATISFACTORILY")))
+                    .andExpect(jsonPath("$.title", is(objectMapper.readTree(title).get("title").asText())));
+        }
+
+        @Test
+        @DisplayName("Should record the change in the outbox for the relay to deliver")
+        void patchChallenge_writesOutboxEvent() throws Exception {
+            outboxSink.clear();
+
+            performPatchRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN, "{\"status\": \"IN_PROGRESS\"}",
+                    userDetail(2L, "Carmen", "ROLE_USER"))
+                    .andExpect(status().isOk());
+            outboxRelay.relay();
+
+            assertThat(outboxSink.messages())
+                    .anySatisfy(message -> {
+                        assertThat(message.aggregateType()).isEqualTo(OutboxWriter.CHALLENGE_AGGREGATE);
+                        assertThat(message.aggregateId()).isEqualTo(CHALLENGE_ID_OWNED_BY_USER_CARMEN);
+                        assertThat(message.eventType()).isEqualTo("UPDATED");
+                        assertThat(message.payload()).contains("IN_PROGRESS");
+                    });
+        }
+
+        @Test
+        @DisplayName("Should return 403 Forbidden for another user's challenge and 400 Bad Request for an invalid patch")
+        void patchChallenge_rejectsForeignAndInvalidPatches() throws Exception {
+            UserDetail carmen = userDetail(2L, "Carmen", "ROLE_USER");
+
+            performPatchRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_BRIAN, "{\"status\": \"IN_PROGRESS\"}", carmen)
+                    .andExpect(status().isForbidden());
+            performPatchRequest("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN, "{\"difficultyLevel\": 9}", carmen)
+                    .andExpect(status().isBadRequest());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /challenges/export")
+    class ExportChallengesTests {
+        @Test
+        @DisplayName("Should only open the export stream for admins")
+        void exportChallenges_requiresAdmin() throws Exception {
+            mockMvc.perform(get("/challenges/export"))
+                    .andExpect(status().isUnauthorized());
+            performGetRequest("/challenges/export")
+                    .andExpect(status().isForbidden());
+            mockMvc.perform(get("/challenges/export").with(user("admin").roles("ADMIN")))
+                    .andExpect(status().isOk());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /challenges/changes")
+    class ChallengeChangesTests {
+        private final Long CHALLENGE_ID_OWNED_BY_USER_CARMEN = 2L;
+        private UserDetail carmen() {
+            Role userRole = new Role();
+            userRole.setRoleName("ROLE_USER");
+            return new UserDetail(User.builder()
+                    .id(2L)
+                    .username("Carmen")
+                    .password("any_encoded_password")
+                    .roles(Collections.singletonList(userRole))
+                    .build());
+        }
+
+        private JsonNode sync(String since) throws Exception {
+            String url = "/challenges/changes" + (since == null ? "" : "?since=" + since);
+            String body = mockMvc.perform(get(url).with(user(carmen())).accept(MediaType.APPLICATION_JSON))
+                    .andExpect(status().isOk())
+                    .andReturn().getResponse().getContentAsString();
+            return objectMapper.readTree(body);
+        }
+
+        @Test
+        @DisplayName("Should return the user's challenges first, then only what changed since the token")
+        void getChallengeChanges_returnsUpsertsAndDeletes() throws Exception {
+            JsonNode first = sync(null);
+
+            assertThat(first.get("upserted")).hasSize(1);
+            assertThat(first.get("upserted").get(0).get("id").asLong()).isEqualTo(CHALLENGE_ID_OWNED_BY_USER_CARMEN);
+            assertThat(first.get("reset").asBoolean()).isFalse();
+
+            JsonNode unchanged = sync(first.get("token").asText());
+            assertThat(unchanged.get("upserted")).isEmpty();
+            assertThat(unchanged.get("deleted")).isEmpty();
+
+            mockMvc.perform(delete("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN).with(user(carmen())))
+                    .andExpect(status().isOk());
+            JsonNode afterDelete = sync(unchanged.get("token").asText());
+
+            assertThat(afterDelete.get("upserted")).isEmpty();
+            assertThat(afterDelete.get("deleted").get(0).asLong()).isEqualTo(CHALLENGE_ID_OWNED_BY_USER_CARMEN);
+            assertThat(afterDelete.get("hasMore").asBoolean()).isFalse();
+        }
+
+        @Test
+        @DisplayName("Should return 400 Bad Request for a malformed token")
+        void getChallengeChanges_invalidToken_returnsBadRequest() throws Exception {
+            mockMvc.perform(get("/challenges/changes?since=nonsense").with(user(carmen())))
+                    .andExpect(status().isBadRequest());
+        }
+
+        @Test
+        @DisplayName("Should return 401 Unauthorized when not authenticated")
+        void getChallengeChanges_unauthenticated_returnsUnauthorized() throws Exception {
+            mockMvc.perform(get("/challenges/changes"))
+                    .andExpect(status().isUnauthorized());
+        }
+    }
+
+    @Nested
+    @DisplayName("GET /challenges/events")
+    class ChallengeEventsTests {
+        private final Long CHALLENGE_ID_OWNED_BY_USER_CARMEN = 2L;
+        private UserDetail carmen() {
+            Role userRole = new Role();
+            userRole.setRoleName("ROLE_USER");
+            return new UserDetail(User.builder()
+                    .id(2L)
+                    .username("Carmen")
+                    .password("any_encoded_password")
+                    .roles(Collections.singletonList(userRole))
+                    .build());
+        }
+
+        private MvcResult subscribe(String query, String lastEventId) throws Exception {
+            MockHttpServletRequestBuilder subscription = get("/challenges/events" + query).accept(MediaType.TEXT_EVENT_STREAM);
+            if (lastEventId != null) {
+                subscription.header(ChallengeController.LAST_EVENT_ID_HEADER, lastEventId);
+            }
+            // Replayed events are written from another thread while the request is still being
+            // dispatched, so this MockMvc leaves out the result printer that reads the headers.
+            return MockMvcBuilders.webAppContextSetup(webApplicationContext).build()
+                    .perform(subscription)
+                    .andExpect(request().asyncStarted())
+                    .andReturn();
+        }
+
+        private void patchStatus(Status status) throws Exception {
+            mockMvc.perform(patch("/challenges/" + CHALLENGE_ID_OWNED_BY_USER_CARMEN)
+                            .contentType(ChallengeController.MERGE_PATCH_JSON_VALUE)
+                            .content("{\"status\": \"" + status + "\"}")
+                            .with(user(carmen())))
+                    .andExpect(status().isOk());
+        }
+
+        private String awaitContent(MvcResult result, String expected) throws Exception {
+            for (int attempt = 0; attempt < 50 && !result.getResponse().getContentAsString().contains(expected); attempt++) {
+                Thread.sleep(100);
+            }
+            return result.getResponse().getContentAsString();
+        }
+
+        @Test
+        @DisplayName("Should push committed changes to matching subscribers and replay them after Last-Event-ID")
+        void streamChallengeEvents_pushesAndReplays() throws Exception {
+            MvcResult all = subscribe("", null);
+            MvcResult brianOnly = subscribe("?userId=4", null);
+
+            patchStatus(Status.COMPLETED_SATISFACTORILY);
+            String content = awaitContent(all, "event:updated");
+
+            assertThat(content).contains("\"challengeId\":2").contains("COMPLETED_SATISFACTORILY");
+            assertThat(brianOnly.getResponse().getContentAsString()).doesNotContain("event:updated");
+
+            String lastEventId = content.lines().filter(line -> line.startsWith("id:")).findFirst().orElseThrow().substring(3);
+            patchStatus(Status.IN_PROGRESS);
+            String replayed = awaitContent(subscribe("", lastEventId), "event:updated");
+
+            assertThat(replayed).contains("IN_PROGRESS").doesNotContain("COMPLETED_SATISFACTORILY");
+        }
+
+        @Test
+        @DisplayName("Should send a reset event for an unknown Last-Event-ID")
+        void streamChallengeEvents_unknownLastEventId_sendsReset() throws Exception {
+            String content = awaitContent(subscribe("", "stale-42"), "event:" + ChallengeEventStream.RESET_EVENT);
+
+            assertThat(content).contains("event:" + ChallengeEventStream.RESET_EVENT);
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /challenges/imports")
+    class ImportChallengesTests {
+        private final String CSV = """
+                username,title,description,status,classification,difficultyLevel,prize
+                carmen,Imported,"Read, then write",PENDING,PERSONAL_DEVELOPMENT,2,Tea
+                nobody,Orphan,No owner,PENDING,FINANCES,1,Cake
+                """;
+
+        @Test
+        @DisplayName("Should accept the upload as admin and report progress until it completes (202 Accepted)")
+        void importChallenges_asAdmin_completes() throws Exception {
+            String location = mockMvc.perform(post("/challenges/imports")
+                            .contentType(ChallengeImportFormat.TEXT_CSV_VALUE)
+                            .content(CSV)
+                            .with(user("admin").roles("ADMIN")))
+                    .andExpect(status().isAccepted())
+                    .andExpect(header().exists(HttpHeaders.LOCATION))
+                    .andReturn().getResponse().getHeader(HttpHeaders.LOCATION);
+
+            String state = null;
+            for (int attempt = 0; attempt < 50 && !"COMPLETED".equals(state); attempt++) {
+                Thread.sleep(100);
+                String status = mockMvc.perform(get(location).with(user("admin").roles("ADMIN")))
+                        .andReturn().getResponse().getContentAsString();
+                state = objectMapper.readTree(status).get("state").asText();
+            }
+
+            mockMvc.perform(get(location).with(user("admin").roles("ADMIN")))
+                    .andExpect(jsonPath("$.state", is("COMPLETED")))
+                    .andExpect(jsonPath("$.imported", is(1)))
+                    .andExpect(jsonPath("$.failed", is(1)));
+            mockMvc.perform(get(location + "/errors").with(user("admin").roles("ADMIN")))
+                    .andExpect(jsonPath("$[0].index", is(2)))
+                    .andExpect(jsonPath("$[0].details.username", containsString("nobody")));
+        }
+
+        @Test
+        @DisplayName("Should return 403 Forbidden for regular users")
+        void importChallenges_asUser_returnsForbidden() throws Exception {
+            mockMvc.perform(post("/challenges/imports")
+                            .contentType(ChallengeImportFormat.TEXT_CSV_VALUE)
+                            .content(CSV)
+                            .with(user("testuser").roles("USER")))
+                    .andExpect(status().isForbidden());
+        }
+
+        @Test
+        @DisplayName("Should return 413 Payload Too Large when the declared upload exceeds the limit")
+        void importChallenges_tooLarge_returnsPayloadTooLarge() throws Exception {
+            mockMvc.perform(post("/challenges/imports")
+                            .contentType(ChallengeImportFormat.TEXT_CSV_VALUE)
+                            .header(HttpHeaders.CONTENT_LENGTH, ChallengeImportService.MAX_UPLOAD_BYTES + 1)
+                            .content(CSV)
+                            .with(user("admin").roles("ADMIN")))
+                    .andExpect(status().isPayloadTooLarge());
+        }
+    }
+
     @Nested
     @DisplayName("DELETE /challenges/{id}")
     class DeleteChallengeTests {
@@ -18,6 +18,7 @@ import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMock
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.context.jdbc.Sql;
 import org.springframework.test.web.servlet.MockMvc;
@@ -26,6 +27,7 @@ import org.springframework.test.web.servlet.ResultActions;
 
 import java.util.List;
 
+import static org.assertj.core.api.Assertions.assertThat;
 import static org.hamcrest.Matchers.hasSize;
 import static org.hamcrest.Matchers.is;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.user;
@@ -33,6 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
 
@@ -59,7 +62,7 @@ public class UserControllerTest {
     private RoleRepository roleRepository;
 
     @Autowired
-    private BCryptPasswordEncoder passwordEncoder;
+    private PasswordEncoder passwordEncoder;
 
     private String adminJwt;
     private String userJwt;
@@ -162,6 +165,104 @@ public class UserControllerTest {
     }
 
 
+    @Nested
+    @DisplayName("GET /users/available and POST /register")
+    class UsernameAvailabilityTests {
+        private ResultActions register(String username, String email) throws Exception {
+            return mockMvc.perform(post("/register")
+                    .contentType(MediaType.APPLICATION_JSON)
+                    .content(asJsonString(new UserRequest(username, email, "SignupPassword123."))));
+        }
+
+        @Test
+        @DisplayName("should report a registered username as taken whatever its case")
+        void available_followsRegistrations() throws Exception {
+            mockMvc.perform(get("/users/available").param("username", "signupUser"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.available", is(true)));
+
+            register("signupUser", "signup@test.com")
+                    .andExpect(status().isCreated())
+                    .andExpect(jsonPath("$.roles[0]", is("ROLE_USER")));
+
+            mockMvc.perform(get("/users/available").param("username", "SIGNUPUSER"))
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.username", is("SIGNUPUSER")))
+                    .andExpect(jsonPath("$.available", is(false)));
+        }
+
+        @Test
+        @DisplayName("should return 409 Conflict when the username or email is already registered")
+        void register_returnsConflict_whenTaken() throws Exception {
+            register("SignupUser", "signup@test.com")
+                    .andExpect(status().isCreated());
+
+            register("SIGNUPUSER", "other@test.com")
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", is("Username is already taken")));
+            register("otherSignup", "SIGNUP@test.com")
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", is("Email is already registered")));
+        }
+    }
+
+    @Nested
+    @DisplayName("POST /login and GET /passwords/stats")
+    class PasswordHashingTests {
+        @Test
+        @DisplayName("should rehash a password stored with another cost on a successful login")
+        void login_rehashesOutdatedCost() throws Exception {
+            User user = User.builder()
+                    .username("oldHashUser")
+                    .email("oldhash@test.com")
+                    .password(new BCryptPasswordEncoder(4).encode("OldHashPassword123."))
+                    .build();
+            userRepository.save(user);
+
+            performLogin("oldHashUser", "oldhash@test.com", "OldHashPassword123.");
+
+            String rehashed = userRepository.findById(user.getId()).orElseThrow().getPassword();
+            assertThat(rehashed).startsWith("$2a$12$");
+            performLogin("oldHashUser", "oldhash@test.com", "OldHashPassword123.");
+        }
+
+        @Test
+        @DisplayName("should expose the hashing pool and its histograms to admins only")
+        void passwordStats_returnsHistograms() throws Exception {
+            performGetRequest("/passwords/stats")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.cost", is(12)))
+                    .andExpect(jsonPath("$.rejected", is(0)))
+                    .andExpect(jsonPath("$.hashTime.bucketsMillis['+Inf']").exists());
+
+            mockMvc.perform(get("/passwords/stats").header("Authorization", "Bearer " + userJwt))
+                    .andExpect(status().isForbidden());
+        }
+    }
+
+    @Nested
+    @DisplayName("PUT /users/update/{id}")
+    class UpdateUserTests {
+        @Test
+        @DisplayName("should let a user change only the case of their own username")
+        void update_allowsCaseOnlyRename() throws Exception {
+            performPutRequest(adminId, new UserUpdateRequest(ADMIN_USERNAME.toUpperCase(), ADMIN_EMAIL, null, null), adminJwt)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$.username", is(ADMIN_USERNAME.toUpperCase())));
+        }
+
+        @Test
+        @DisplayName("should return 409 Conflict when the new username or email belongs to another user")
+        void update_returnsConflict_whenTaken() throws Exception {
+            performPutRequest(adminId, new UserUpdateRequest(USER_USERNAME.toLowerCase(), ADMIN_EMAIL, null, null), adminJwt)
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", is("Username is already taken")));
+            performPutRequest(adminId, new UserUpdateRequest(ADMIN_USERNAME, "USER@test.com", null, null), adminJwt)
+                    .andExpect(status().isConflict())
+                    .andExpect(jsonPath("$.message", is("Email is already registered")));
+        }
+    }
+
     @Nested
     @DisplayName("Get /users/all")
     class GetAllUsersTest {
@@ -189,6 +290,23 @@ public class UserControllerTest {
                     .andExpect(jsonPath("$[0].roles").isArray());
         }
 
+        @Test
+        @DisplayName("should page through users with the next cursor header")
+        void getAllUsers_pagesWithCursor() throws Exception {
+            String cursor = performGetRequest("/users/all?limit=2")
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(2)))
+                    .andExpect(jsonPath("$[0].roles[0]", is("ROLE_ADMIN")))
+                    .andExpect(header().exists(ChallengeController.NEXT_CURSOR_HEADER))
+                    .andReturn().getResponse().getHeader(ChallengeController.NEXT_CURSOR_HEADER);
+
+            performGetRequest("/users/all?limit=2&after=" + cursor)
+                    .andExpect(status().isOk())
+                    .andExpect(jsonPath("$", hasSize(1)))
+                    .andExpect(jsonPath("$[0].username", is("anotherTestUser")))
+                    .andExpect(header().doesNotExist(ChallengeController.NEXT_CURSOR_HEADER));
+        }
+
         @Test
         @DisplayName("should return 401 Unauthorized if not authenticated")
         void getAllUsers_returnsUnauthorizedWhenNotAuthenticated() throws Exception {
@@ -225,6 +343,16 @@ public class UserControllerTest {
                         .andExpect(jsonPath("$.roles[0]").value("ROLE_ADMIN"));
             }
 
+            @Test
+            @DisplayName("should find the user whatever the case of the username")
+            void shouldGetUserByUsernameIgnoringCase() throws Exception {
+
+                performGetRequest("/users/username/{username}", ADMIN_USERNAME.toUpperCase())
+                        .andExpect(status().isOk())
+                        .andExpect(jsonPath("$.id").value(adminId))
+                        .andExpect(jsonPath("$.username").value(ADMIN_USERNAME));
+            }
+
             @Test
             @DisplayName("should return 404 Not Found when user does not exist")
             void shouldReturnNotFoundWhenUserDoesNotExist() throws Exception {
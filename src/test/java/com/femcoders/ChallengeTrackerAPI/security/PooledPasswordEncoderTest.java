@@ -0,0 +1,108 @@
+package com.femcoders.ChallengeTrackerAPI.security;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.password.LatencyStats;
+import com.femcoders.ChallengeTrackerAPI.dtos.password.PasswordHashingStats;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@DisplayName("PooledPasswordEncoder Unit Tests")
+public class PooledPasswordEncoderTest {
+    PooledPasswordEncoder encoder;
+
+    @AfterEach
+    void shutdown() {
+        if (encoder != null) {
+            encoder.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("Should hash and check passwords on the pool and record both histograms")
+    void shouldHashOnPool() {
+        encoder = new PooledPasswordEncoder(4, 2, 10);
+
+        String hash = encoder.encode("Password123.");
+
+        assertThat(hash).startsWith("$2a$04$");
+        assertThat(encoder.matches("Password123.", hash)).isTrue();
+        assertThat(encoder.matches("wrong", hash)).isFalse();
+        PasswordHashingStats stats = encoder.getStats();
+        assertThat(stats.queueWait().count()).isEqualTo(3);
+        assertThat(stats.hashTime().count()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should ask for a rehash when the stored cost differs from the configured one")
+    void shouldUpgradeOtherCosts() {
+        encoder = new PooledPasswordEncoder(12, 1, 1);
+
+        assertThat(encoder.upgradeEncoding(new BCryptPasswordEncoder(4).encode("pw"))).isTrue();
+        assertThat(encoder.upgradeEncoding("$2a$14$JQdTEKNfVFd5MgXOPP1/0eYiDCwvQxCJyBBd/Z46oG/Qy9PZw3fri")).isTrue();
+        assertThat(encoder.upgradeEncoding("$2a$12$JQdTEKNfVFd5MgXOPP1/0eYiDCwvQxCJyBBd/Z46oG/Qy9PZw3fri")).isFalse();
+        assertThat(encoder.upgradeEncoding(null)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should reject work once the pool is busy and the queue is full")
+    void shouldRejectWhenQueueIsFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        PasswordEncoder blocking = new PasswordEncoder() {
+            public String encode(CharSequence rawPassword) {
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return rawPassword.toString();
+            }
+
+            public boolean matches(CharSequence rawPassword, String encodedPassword) {
+                return rawPassword.toString().equals(encodedPassword);
+            }
+        };
+        encoder = new PooledPasswordEncoder(blocking, 12, 1, 1);
+        CompletableFuture<String> running = CompletableFuture.supplyAsync(() -> encoder.encode("first"));
+        CompletableFuture<String> queued = CompletableFuture.supplyAsync(() -> encoder.encode("second"));
+        while (encoder.getStats().active() + encoder.getStats().queued() < 2) {
+            Thread.onSpinWait();
+        }
+
+        RejectedExecutionException exception = assertThrows(RejectedExecutionException.class, () -> encoder.encode("third"));
+
+        assertThat(exception.getMessage()).isEqualTo("Too many password checks are waiting, try again later");
+        assertThat(encoder.getStats().rejected()).isEqualTo(1);
+        release.countDown();
+        assertThat(running.get()).isEqualTo("first");
+        assertThat(queued.get()).isEqualTo("second");
+    }
+
+    @Test
+    @DisplayName("Should estimate percentiles from the bucket bounds")
+    void histogramShouldEstimatePercentiles() {
+        LatencyHistogram histogram = new LatencyHistogram();
+        for (int i = 0; i < 98; i++) {
+            histogram.record(3_000_000);
+        }
+        histogram.record(80_000_000);
+        histogram.record(7_000_000_000L);
+
+        LatencyStats stats = histogram.snapshot();
+
+        assertThat(stats.count()).isEqualTo(100);
+        assertThat(stats.p50Millis()).isEqualTo(5);
+        assertThat(stats.p95Millis()).isEqualTo(5);
+        assertThat(stats.p99Millis()).isEqualTo(100);
+        assertThat(stats.maxMillis()).isEqualTo(7000);
+        assertThat(stats.bucketsMillis()).containsEntry("5", 98L).containsEntry("100", 1L).containsEntry("+Inf", 1L);
+    }
+}
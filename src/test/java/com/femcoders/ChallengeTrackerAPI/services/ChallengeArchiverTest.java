@@ -0,0 +1,85 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengesArchivedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChallengeArchiver Unit Tests")
+public class ChallengeArchiverTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    ChallengeArchiver challengeArchiver;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        challengeArchiver = new ChallengeArchiver(challengeRepository, archivedChallengeRepository, eventPublisher, transactionTemplate,
+                Duration.ofDays(90), 2, Duration.ofMinutes(1));
+    }
+
+    private ChallengeSnapshot snapshot(Long id) {
+        return new ChallengeSnapshot(id, "Title", "Description", Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 3, 1L);
+    }
+
+    @Test
+    @DisplayName("Should copy and delete finished challenges in batches until a partial batch is found")
+    void shouldArchiveInBatches() {
+        given(challengeRepository.lockArchivable(eq(ChallengeArchiver.FINISHED_STATUSES), any(Instant.class), eq(Limit.of(2))))
+                .willReturn(List.of(snapshot(1L), snapshot(2L)), List.of(snapshot(3L)));
+
+        int archived = challengeArchiver.archive();
+
+        assertThat(archived).isEqualTo(3);
+        verify(archivedChallengeRepository).insertFromChallenges(eq(List.of(1L, 2L)), any(Instant.class));
+        verify(archivedChallengeRepository).insertFromChallenges(eq(List.of(3L)), any(Instant.class));
+        verify(challengeRepository).deleteArchivedByIdIn(List.of(1L, 2L));
+        verify(challengeRepository).deleteArchivedByIdIn(List.of(3L));
+        verify(eventPublisher, times(2)).publishEvent(any(ChallengesArchivedEvent.class));
+    }
+
+    @Test
+    @DisplayName("Should only archive challenges last updated before the minimum age")
+    void shouldUseMinimumAgeAsCutoff() {
+        Instant before = Instant.parse("2026-01-01T00:00:00Z");
+        given(challengeRepository.lockArchivable(ChallengeArchiver.FINISHED_STATUSES, before, Limit.of(2))).willReturn(List.of());
+
+        assertThat(challengeArchiver.archiveBatch(before)).isZero();
+        verify(archivedChallengeRepository, never()).insertFromChallenges(anyList(), any(Instant.class));
+        verify(eventPublisher, never()).publishEvent(any(ChallengesArchivedEvent.class));
+    }
+}
@@ -0,0 +1,89 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCacheStats;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ChallengeCache Unit Tests")
+public class ChallengeCacheTest {
+    private final AtomicLong now = new AtomicLong();
+    private final AtomicInteger loads = new AtomicInteger();
+
+    private VersionedChallenge response(Long id, String title) {
+        return new VersionedChallenge(id, title, "Description", Status.PENDING, Classification.FINANCES, 3, "Prize", 1L, "Mary", 0L);
+    }
+
+    private Optional<VersionedChallenge> load(Long id) {
+        loads.incrementAndGet();
+        return Optional.of(response(id, "Title " + id));
+    }
+
+    @Test
+    @DisplayName("Should count hits and misses and reload after the TTL expires")
+    void shouldExpireEntriesAfterTtl() {
+        ChallengeCache cache = new ChallengeCache(10, Duration.ofSeconds(30), now::get);
+
+        cache.get(1L, this::load);
+        cache.get(1L, this::load);
+        now.addAndGet(Duration.ofSeconds(31).toNanos());
+        cache.get(1L, this::load);
+
+        assertThat(loads.get()).isEqualTo(2);
+        assertThat(cache.stats()).isEqualTo(new ChallengeCacheStats(1, 2, 1, 1));
+    }
+
+    @Test
+    @DisplayName("Should evict the least recently used entry when full")
+    void shouldEvictLeastRecentlyUsedEntry() {
+        ChallengeCache cache = new ChallengeCache(2, Duration.ofMinutes(5), now::get);
+
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+        cache.get(1L, this::load);
+        cache.get(3L, this::load);
+        cache.get(1L, this::load);
+        cache.get(2L, this::load);
+
+        assertThat(loads.get()).isEqualTo(4);
+        assertThat(cache.stats().evictions()).isEqualTo(2);
+        assertThat(cache.stats().size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Should not cache a value loaded while an invalidation happened")
+    void shouldDiscardLoadsRacingWithInvalidation() {
+        ChallengeCache cache = new ChallengeCache(10, Duration.ofMinutes(5), now::get);
+
+        Optional<VersionedChallenge> stale = cache.get(1L, id -> {
+            cache.invalidate(id);
+            return Optional.of(response(id, "Old title"));
+        });
+        Optional<VersionedChallenge> fresh = cache.get(1L, this::load);
+
+        assertThat(stale).map(VersionedChallenge::title).contains("Old title");
+        assertThat(fresh).map(VersionedChallenge::title).contains("Title 1");
+    }
+
+    @Test
+    @DisplayName("Should clear every entry when a user changes and never cache missing challenges")
+    void shouldClearOnUserChange() {
+        ChallengeCache cache = new ChallengeCache(10, Duration.ofMinutes(5), now::get);
+
+        cache.get(1L, this::load);
+        cache.get(99L, id -> Optional.empty());
+        cache.onUserChanged(UserChangedEvent.updated(1L));
+
+        assertThat(cache.stats().size()).isZero();
+    }
+}
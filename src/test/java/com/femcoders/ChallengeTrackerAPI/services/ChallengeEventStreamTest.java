@@ -0,0 +1,62 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStreamEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ChallengeEventStream Unit Tests")
+public class ChallengeEventStreamTest {
+    private ChallengeStreamEvent created(Long id) {
+        ChallengeSnapshot snapshot = new ChallengeSnapshot(id, "Title", "Description", Status.PENDING, Classification.FINANCES, 2, 1L);
+        return ChallengeStreamEvent.of(ChallengeChangedEvent.created(snapshot));
+    }
+
+    @Test
+    @DisplayName("Should replay the events published after a Last-Event-ID")
+    void shouldReplayAfterLastEventId() {
+        ChallengeEventLog events = new ChallengeEventLog(4);
+        long first = events.append(created(1L));
+        events.append(created(2L));
+        events.append(created(3L));
+
+        long cursor = events.cursorOf(events.id(first));
+
+        assertThat(events.after(cursor)).extracting(entry -> entry.event().challengeId()).containsExactly(2L, 3L);
+        assertThat(events.cursorOf(null)).isEqualTo(events.head());
+        assertThat(events.after(events.head())).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Should ask for a reset once the ring has overwritten unseen events")
+    void shouldResetWhenLapped() {
+        ChallengeEventLog events = new ChallengeEventLog(4);
+        long first = events.append(created(1L));
+        for (long id = 2; id <= 5; id++) {
+            events.append(created(id));
+        }
+
+        assertThat(events.after(first)).extracting(entry -> entry.event().challengeId()).containsExactly(2L, 3L, 4L, 5L);
+
+        events.append(created(6L));
+
+        assertThat(events.after(first)).isNull();
+    }
+
+    @Test
+    @DisplayName("Should not trust event ids from another boot or from the future")
+    void shouldRejectForeignEventIds() {
+        ChallengeEventLog events = new ChallengeEventLog(4);
+        events.append(created(1L));
+
+        assertThat(events.cursorOf("abc-1")).isEqualTo(ChallengeEventLog.UNKNOWN);
+        assertThat(events.cursorOf(events.id(7))).isEqualTo(ChallengeEventLog.UNKNOWN);
+        assertThat(events.cursorOf("garbage")).isEqualTo(ChallengeEventLog.UNKNOWN);
+        assertThat(events.after(ChallengeEventLog.UNKNOWN)).isNull();
+    }
+}
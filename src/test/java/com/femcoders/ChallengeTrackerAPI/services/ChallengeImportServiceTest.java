@@ -0,0 +1,253 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportFormat;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeImportStatus;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PayloadTooLargeException;
+import com.femcoders.ChallengeTrackerAPI.models.Challenge;
+import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.StringReader;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.nio.charset.StandardCharsets;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChallengeImportService Unit Tests")
+public class ChallengeImportServiceTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Spy
+    ChallengeMapperImpl challengeMapperImpl = new ChallengeMapperImpl();
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    ChallengeImportService challengeImportService;
+
+    @TempDir
+    Path tempDir;
+
+    @AfterEach
+    void shutdown() {
+        challengeImportService.shutdown();
+    }
+
+    private UsernameRow username(Long id, String username) {
+        return new UsernameRow() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+
+    private Path file(String content) throws IOException {
+        return Files.writeString(tempDir.resolve("import"), content);
+    }
+
+    private void givenStoredChallenges() {
+        given(userRepository.getReferenceById(any())).willAnswer(invocation -> User.builder().id(invocation.getArgument(0)).build());
+        given(challengeRepository.saveAll(anyList())).willAnswer(invocation -> invocation.getArgument(0));
+    }
+
+    @Nested
+    @DisplayName("CSV imports")
+    class CsvImportTests {
+        @Test
+        @DisplayName("Should import valid rows and report invalid rows and unknown owners")
+        void shouldImportValidRowsAndReportErrors() throws IOException {
+            Path file = file("""
+                    username,title,description,status,classification,difficultyLevel,prize
+                    Mary,Run,"Run 5k, then stretch",PENDING,HEALTH_AND_WELLBEING,3,Cake
+                    mary,Save,"Put money
+                    aside",IN_PROGRESS,FINANCES,2,Trip
+                    Mary,,Missing title,PENDING,FINANCES,2,Nothing
+                    Ghost,Read,Read a book,PENDING,PERSONAL_DEVELOPMENT,1,Tea
+                    """);
+            given(userRepository.findUsernamesByUsernameIn(Set.of("mary", "ghost"))).willReturn(List.of(username(1L, "Mary")));
+            givenStoredChallenges();
+            ChallengeImportJob job = new ChallengeImportJob("job", ChallengeImportFormat.CSV, Files.size(file));
+
+            challengeImportService.runImport(job, file);
+            ChallengeImportStatus status = job.status();
+
+            assertThat(status.state()).isEqualTo(ChallengeImportStatus.State.COMPLETED);
+            assertThat(status.processed()).isEqualTo(4);
+            assertThat(status.imported()).isEqualTo(2);
+            assertThat(status.failed()).isEqualTo(2);
+            assertThat(status.bytesRead()).isEqualTo(status.totalBytes());
+            assertThat(job.errors()).extracting(ChallengeBatchError::index).containsExactlyInAnyOrder(3, 4);
+            assertThat(file).doesNotExist();
+            verify(userRepository, times(1)).findUsernamesByUsernameIn(anyCollection());
+            verify(eventPublisher, times(2)).publishEvent(any(ChallengeChangedEvent.class));
+        }
+
+        @Test
+        @DisplayName("Should fail the import when the header misses a column")
+        void shouldFailWithoutRequiredColumns() throws IOException {
+            Path file = file("username,title\nMary,Run\n");
+            ChallengeImportJob job = new ChallengeImportJob("job", ChallengeImportFormat.CSV, Files.size(file));
+
+            challengeImportService.runImport(job, file);
+
+            assertThat(job.status().state()).isEqualTo(ChallengeImportStatus.State.FAILED);
+            assertThat(job.status().failure()).contains("CSV header");
+            verify(challengeRepository, never()).saveAll(anyList());
+        }
+    }
+
+    @Nested
+    @DisplayName("NDJSON imports")
+    class NdjsonImportTests {
+        @Test
+        @DisplayName("Should report malformed lines and keep importing")
+        void shouldSkipMalformedLines() throws IOException {
+            Path file = file("""
+                    {"username":"Mary","title":"Run","description":"Run 5k","status":"PENDING","classification":"FINANCES","difficultyLevel":3,"prize":"Cake"}
+                    {"username":"Mary","title":
+                    [1, 2]
+
+                    {"username":"Mary","title":"Swim","description":"Swim 1k","status":"PENDING","classification":"FINANCES","difficultyLevel":9,"prize":"Tea"}
+                    """);
+            given(userRepository.findUsernamesByUsernameIn(Set.of("mary"))).willReturn(List.of(username(1L, "Mary")));
+            givenStoredChallenges();
+            ChallengeImportJob job = new ChallengeImportJob("job", ChallengeImportFormat.NDJSON, Files.size(file));
+
+            challengeImportService.runImport(job, file);
+
+            assertThat(job.status().state()).isEqualTo(ChallengeImportStatus.State.COMPLETED);
+            assertThat(job.status().imported()).isEqualTo(1);
+            assertThat(job.errors()).extracting(ChallengeBatchError::index).containsExactly(2, 3, 4);
+            assertThat(job.errors().get(2).details()).containsKey("difficultyLevel");
+        }
+    }
+
+    @Nested
+    @DisplayName("Uploads")
+    class UploadTests {
+        // Fails the test if the service reads a body it should have turned away.
+        private final InputStream unread = new InputStream() {
+            @Override
+            public int read() throws IOException {
+                throw new IOException("The body should not be read");
+            }
+        };
+
+        private InputStream csv() {
+            return new ByteArrayInputStream("username,title,description,status,classification,difficultyLevel,prize\nMary,Run,Run,PENDING,FINANCES,3,Cake\n"
+                    .getBytes(StandardCharsets.UTF_8));
+        }
+
+        @Test
+        @DisplayName("Should reject a declared length over the limit before reading the body")
+        void shouldRejectOversizedUploads() {
+            assertThrows(PayloadTooLargeException.class,
+                    () -> challengeImportService.startImport(unread, ChallengeImportService.MAX_UPLOAD_BYTES + 1, ChallengeImportFormat.CSV));
+        }
+
+        @Test
+        @DisplayName("Should reject an upload before reading it when the queue is full")
+        void shouldRejectBeforeReadingWhenQueueIsFull() throws Exception {
+            CountDownLatch release = new CountDownLatch(1);
+            // The running import blocks here and holds its slot; it may not get this far before the test ends.
+            lenient().when(userRepository.findUsernamesByUsernameIn(anyCollection())).thenAnswer(invocation -> {
+                release.await();
+                return List.of();
+            });
+            try {
+                for (int i = 0; i <= ChallengeImportService.MAX_QUEUED_IMPORTS; i++) {
+                    challengeImportService.startImport(csv(), -1, ChallengeImportFormat.CSV);
+                }
+
+                RejectedExecutionException exception = assertThrows(RejectedExecutionException.class,
+                        () -> challengeImportService.startImport(unread, -1, ChallengeImportFormat.CSV));
+                assertThat(exception.getMessage()).isEqualTo("Too many imports are waiting, try again later");
+            } finally {
+                release.countDown();
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Should throw NoSuchElementException for an unknown import")
+    void shouldThrowForUnknownImport() {
+        assertThrows(NoSuchElementException.class, () -> challengeImportService.getImportStatus("missing"));
+    }
+
+    @Test
+    @DisplayName("Should read quoted CSV fields with commas, quotes and line breaks")
+    void recordReaderShouldHandleQuotedFields() throws IOException {
+        ImportRecordReader reader = new ImportRecordReader(new StringReader("a,\"b, \"\"c\"\"\",\"d\r\ne\"\r\nf,g"), 100);
+
+        assertThat(reader.nextCsvRecord()).containsExactly("a", "b, \"c\"", "d\r\ne");
+        assertThat(reader.nextCsvRecord()).containsExactly("f", "g");
+        assertThat(reader.nextCsvRecord()).isNull();
+    }
+
+    @Test
+    @DisplayName("Should reject records longer than the limit")
+    void recordReaderShouldRejectOverlongRecords() {
+        ImportRecordReader reader = new ImportRecordReader(new StringReader("\"never closed"), 5);
+
+        assertThrows(IOException.class, reader::nextCsvRecord);
+    }
+}
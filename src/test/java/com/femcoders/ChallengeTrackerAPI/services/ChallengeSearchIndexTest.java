@@ -0,0 +1,172 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChallengeSearchIndex Unit Tests")
+public class ChallengeSearchIndexTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @InjectMocks
+    ChallengeSearchIndex challengeSearchIndex;
+
+    private ChallengeSnapshot snapshot(Long id, String title, String description) {
+        return new ChallengeSnapshot(id, title, description, Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 3, 1L);
+    }
+
+    @Test
+    @DisplayName("Should normalize case and accents and drop stop words when tokenizing")
+    void shouldNormalizeTokens() {
+        assertThat(ChallengeSearchIndex.tokenize("Café at the GYM, 3 times!"))
+                .containsExactly("cafe", "gym", "times");
+    }
+
+    @Test
+    @DisplayName("Should build the index from the repository and rank title matches first")
+    void shouldRankTitleMatchesAboveDescriptionMatches() {
+        given(challengeRepository.streamAllResponses()).willReturn(Stream.of(
+                new ChallengeResponse(1L, "Read more", "Read one novel each month", Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 3, "Spa day", "Mary"),
+                new ChallengeResponse(2L, "Go to the gym", "Read a fitness book at the gym", Status.PENDING, Classification.HEALTH_AND_WELLBEING, 4, "Trip", "Brian")
+        ));
+
+        challengeSearchIndex.rebuild();
+        ChallengeSearchIndex.SearchHits hits = challengeSearchIndex.search("read", 0, 10);
+
+        assertThat(hits.total()).isEqualTo(2);
+        assertThat(hits.ids()).containsExactly(1L, 2L);
+    }
+
+    @Test
+    @DisplayName("Should apply created, updated and deleted events incrementally")
+    void shouldApplyChangesIncrementally() {
+        challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.created(snapshot(1L, "Meditation", "Meditate every morning")));
+        challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.created(snapshot(2L, "Yoga", "Stretch every morning")));
+        assertThat(challengeSearchIndex.search("morning", 0, 10).ids()).containsExactly(1L, 2L);
+
+        challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.updated(
+                snapshot(1L, "Meditation", "Meditate every morning"), snapshot(1L, "Meditation", "Meditate every evening")));
+        assertThat(challengeSearchIndex.search("morning", 0, 10).ids()).containsExactly(2L);
+        assertThat(challengeSearchIndex.search("evening", 0, 10).ids()).containsExactly(1L);
+
+        challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.deleted(snapshot(2L, "Yoga", "Stretch every morning")));
+        assertThat(challengeSearchIndex.search("morning", 0, 10).total()).isZero();
+        assertThat(challengeSearchIndex.size()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should paginate ranked results")
+    void shouldPaginateResults() {
+        for (long id = 1; id <= 5; id++) {
+            challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.created(snapshot(id, "Walk " + id, "Walk daily")));
+        }
+
+        ChallengeSearchIndex.SearchHits secondPage = challengeSearchIndex.search("walk", 2, 2);
+
+        assertThat(secondPage.total()).isEqualTo(5);
+        assertThat(secondPage.ids()).containsExactly(3L, 4L);
+    }
+
+    @Test
+    @DisplayName("Should report a lower bound once pruning stops the scan early")
+    void shouldStopScanningOnceNoDocumentCanEnterThePage() {
+        for (long id = 1; id <= 500; id++) {
+            challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.created(snapshot(id, "Walk", "Run daily")));
+        }
+
+        ChallengeSearchIndex.SearchHits single = challengeSearchIndex.search("walk", 0, 3);
+        ChallengeSearchIndex.SearchHits both = challengeSearchIndex.search("walk run", 0, 3);
+
+        assertThat(single.ids()).containsExactly(1L, 2L, 3L);
+        assertThat(single.total()).isEqualTo(500);
+        assertThat(single.totalExact()).isTrue();
+        assertThat(both.ids()).containsExactly(1L, 2L, 3L);
+        assertThat(both.total()).isEqualTo(500);
+        assertThat(both.totalExact()).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should rank exactly like scoring every match")
+    void prunedRankingShouldMatchExhaustiveScoring() {
+        List<String> vocabulary = List.of("walk", "read", "save", "money", "gym", "yoga", "cook", "paint", "write", "swim");
+        Random random = new Random(7);
+        Map<Long, Map<String, Integer>> documents = new HashMap<>();
+        for (long id = 1; id <= 2_000; id++) {
+            String title = randomText(vocabulary, random, 1 + random.nextInt(3));
+            String description = randomText(vocabulary, random, random.nextInt(6));
+            challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.created(snapshot(id, title, description)));
+            Map<String, Integer> weights = new HashMap<>();
+            ChallengeSearchIndex.tokenize(title).forEach(term -> weights.merge(term, 2, Integer::sum));
+            ChallengeSearchIndex.tokenize(description).forEach(term -> weights.merge(term, 1, Integer::sum));
+            documents.put(id, weights);
+        }
+        for (long id = 7; id <= 2_000; id += 7) {
+            challengeSearchIndex.onChallengeChanged(ChallengeChangedEvent.deleted(snapshot(id, "", "")));
+            documents.remove(id);
+        }
+        Map<String, Long> frequencies = new HashMap<>();
+        documents.values().forEach(weights -> weights.keySet().forEach(term -> frequencies.merge(term, 1L, Long::sum)));
+
+        for (int round = 0; round < 200; round++) {
+            List<String> terms = ChallengeSearchIndex.tokenize(randomText(vocabulary, random, 1 + random.nextInt(4))).stream().distinct().toList();
+            int offset = random.nextInt(30);
+            int limit = 1 + random.nextInt(20);
+            Map<Long, Double> scores = new HashMap<>();
+            documents.forEach((id, weights) -> {
+                double score = 0;
+                boolean matched = false;
+                for (String term : terms) {
+                    Integer weight = weights.get(term);
+                    if (weight != null) {
+                        score += weight * Math.log(1.0 + (double) documents.size() / frequencies.get(term));
+                        matched = true;
+                    }
+                }
+                if (matched) {
+                    scores.put(id, score);
+                }
+            });
+            List<Long> expected = new ArrayList<>(scores.keySet());
+            expected.sort(Comparator.comparing((Long id) -> -scores.get(id)).thenComparing(id -> id));
+
+            ChallengeSearchIndex.SearchHits hits = challengeSearchIndex.search(String.join(" ", terms), offset, limit);
+
+            assertThat(hits.ids()).isEqualTo(expected.subList(Math.min(offset, expected.size()), Math.min(offset + limit, expected.size())));
+            if (hits.totalExact()) {
+                assertThat(hits.total()).isEqualTo(expected.size());
+            } else {
+                assertThat(hits.total()).isBetween(1L, (long) expected.size());
+            }
+        }
+    }
+
+    private static String randomText(List<String> vocabulary, Random random, int words) {
+        List<String> picked = new ArrayList<>();
+        for (int i = 0; i < words; i++) {
+            picked.add(vocabulary.get(random.nextInt(vocabulary.size())));
+        }
+        return String.join(" ", picked);
+    }
+}
@@ -1,13 +1,36 @@
 package com.femcoders.ChallengeTrackerAPI.services;
 
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchError;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBatchResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkDeleteResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeBulkUpdateResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCursor;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeFilter;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengePage;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatusTransitionRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.VersionedChallenge;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.exceptions.ConflictException;
 import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PreconditionFailedException;
 import com.femcoders.ChallengeTrackerAPI.models.*;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.AfterEach;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Nested;
@@ -16,17 +39,35 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import static org.assertj.core.api.Assertions.assertThatThrownBy;
 import static org.mockito.BDDMockito.given;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.Limit;
 import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
 import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
 import static org.mockito.Mockito.verify;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.NoSuchElementException;
 import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ChallengeService Unit Tests")
@@ -34,12 +75,42 @@ public class ChallengeServiceTest {
     @Mock
     ChallengeRepository challengeRepository;
 
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Mock
+    ChallengeTombstoneRepository challengeTombstoneRepository;
+
     @Mock
     ChallengeMapperImpl challengeMapperImpl;
 
     @Mock
     UserRepository userRepository;
 
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @Mock
+    ChallengeSearchIndex challengeSearchIndex;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    ChallengeStatistics challengeStatistics;
+
+    @Mock
+    ResourceVersions resourceVersions;
+
+    @Spy
+    ChallengeCache challengeCache = new ChallengeCache(100, Duration.ofMinutes(5));
+
+    @Spy
+    Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    @Spy
+    TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
     @InjectMocks
     ChallengeService challengeService;
 
@@ -69,7 +140,7 @@ public class ChallengeServiceTest {
                     .build();
 
             testChallenge1 = new Challenge (1L, "Read more", "Read one novel each month for 12 months", Status.PENDING,
-                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", testUser);
+                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", testUser, 0L, null, null, null);
 
             testChallenge2 = Challenge.builder()
                     .id(2L)
@@ -103,23 +174,117 @@ public class ChallengeServiceTest {
                     testChallenge2.getPrize(),
                     testUser.getUsername()
             );
-
-            given(challengeRepository.findAll()).willReturn(List.of(testChallenge1, testChallenge2));
-            given(challengeMapperImpl.entityToDto(testChallenge1)).willReturn(testChallengeResponse1);
-            given(challengeMapperImpl.entityToDto(testChallenge1)).willReturn(testChallengeResponse2);
         }
 
         @Test
         @DisplayName("Should return a list of all challenge responses")
         void shouldReturnListOfChallengeResponses() {
-            given(challengeRepository.findAll()).willReturn(List.of(testChallenge1, testChallenge2));
+            given(challengeRepository.findAllResponses()).willReturn(List.of(testChallengeResponse1, testChallengeResponse2));
 
-            given(challengeMapperImpl.entityToDto(testChallenge1)).willReturn(testChallengeResponse1);
-            given(challengeMapperImpl.entityToDto(testChallenge2)).willReturn(testChallengeResponse2);
             List<ChallengeResponse> result = challengeService.getAllChallenges();
             assertThat(result).hasSize(2);
             assertThat(result).containsExactlyInAnyOrder(testChallengeResponse1, testChallengeResponse2);
-            verify(challengeRepository).findAll();
+            verify(challengeRepository).findAllResponses();
+            verify(challengeMapperImpl, never()).entityToDto(ArgumentMatchers.any(Challenge.class));
+        }
+    }
+
+    @Nested
+    @DisplayName("getChallengesStartingWithCurrentUser(String after, int limit)")
+    class GetChallengesStartingWithCurrentUserTests {
+        private User ownerUser;
+        private ChallengeResponse ownedResponse;
+        private ChallengeResponse otherResponse;
+
+        @BeforeEach
+        void setup() {
+            ownerUser = User.builder()
+                    .id(1L)
+                    .username("ownerUser")
+                    .password("encoded_password")
+                    .roles(Collections.singletonList(createRole("ROLE_USER")))
+                    .build();
+
+            ownedResponse = new ChallengeResponse(5L, "Stretch my body", "Do 10 mins stretching every morning", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 3, "Buy myself a garmin watch", "ownerUser");
+            otherResponse = new ChallengeResponse(3L, "Do yoga", "Go to yoga class twice every week", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 1, "Treat myself to an ice-cream", "otherUser");
+        }
+
+        @AfterEach
+        void clearSecurityContext() {
+            SecurityContextHolder.clearContext();
+        }
+
+        @Test
+        @DisplayName("Should put the current user's challenges first and return a cursor when the page is full")
+        void shouldReturnOwnChallengesFirst_whenAuthenticated() {
+            UserDetail ownerUserDetail = new UserDetail(ownerUser);
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(ownerUserDetail, null, ownerUserDetail.getAuthorities()));
+            ChallengeRow ownedRow = mock(ChallengeRow.class);
+            ChallengeRow otherRow = mock(ChallengeRow.class);
+            given(otherRow.getUserId()).willReturn(2L);
+            given(challengeRepository.findPageOwnedFirst(1L, ChallengeCursor.OWN_BUCKET, 0L, 2)).willReturn(List.of(ownedRow, otherRow));
+            given(challengeMapperImpl.rowToDto(ownedRow)).willReturn(ownedResponse);
+            given(challengeMapperImpl.rowToDto(otherRow)).willReturn(otherResponse);
+
+            ChallengePage result = challengeService.getChallengesStartingWithCurrentUser(null, 2);
+
+            assertThat(result.challenges()).containsExactly(ownedResponse, otherResponse);
+            assertThat(ChallengeCursor.decode(result.nextCursor())).isEqualTo(new ChallengeCursor(ChallengeCursor.OTHERS_BUCKET, 3L));
+        }
+
+        @Test
+        @DisplayName("Should continue after the cursor and return no cursor on the last page when anonymous")
+        void shouldContinueFromCursor_whenAnonymous() {
+            String after = new ChallengeCursor(ChallengeCursor.OTHERS_BUCKET, 3L).encode();
+            given(challengeRepository.findResponsesAfter(3L, Limit.of(2))).willReturn(List.of(ownedResponse));
+
+            ChallengePage result = challengeService.getChallengesStartingWithCurrentUser(after, 2);
+
+            assertThat(result.challenges()).containsExactly(ownedResponse);
+            assertThat(result.nextCursor()).isNull();
+        }
+
+        @Test
+        @DisplayName("Should merge archived challenges into the page by id when includeArchived is set")
+        void shouldMergeArchivedChallenges_whenIncludeArchived() {
+            ChallengeResponse archivedResponse = new ChallengeResponse(4L, "Run a marathon", "Finish a marathon under 5 hours", Status.COMPLETED_SATISFACTORILY,
+                    Classification.HEALTH_AND_WELLBEING, 5, "New running shoes", "otherUser");
+            given(challengeRepository.findResponsesAfter(0L, Limit.of(2))).willReturn(List.of(otherResponse, ownedResponse));
+            given(archivedChallengeRepository.findResponsesMatching(null, null, null, null, 0L, Limit.of(2))).willReturn(List.of(archivedResponse));
+
+            ChallengePage result = challengeService.getChallengesStartingWithCurrentUser(ChallengeFilter.NONE, null, 2, true);
+
+            assertThat(result.challenges()).containsExactly(otherResponse, archivedResponse);
+            assertThat(ChallengeCursor.decode(result.nextCursor())).isEqualTo(new ChallengeCursor(ChallengeCursor.OTHERS_BUCKET, 4L));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the cursor or limit is invalid")
+        void shouldThrowIllegalArgumentException_whenCursorOrLimitInvalid() {
+            assertThatThrownBy(() -> challengeService.getChallengesStartingWithCurrentUser("not-a-cursor", 20))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> challengeService.getChallengesStartingWithCurrentUser(null, 0))
+                    .isInstanceOf(IllegalArgumentException.class);
+        }
+
+        @Test
+        @DisplayName("Should key the list ETag on the normalized filter, cursor, limit and archive flag")
+        void shouldVaryListETagByQuery() {
+            given(resourceVersions.challengeListETag(ArgumentMatchers.isNull(), ArgumentMatchers.anyString()))
+                    .willAnswer(invocation -> invocation.getArgument(1));
+            String firstPage = challengeService.getChallengeListETag(ChallengeFilter.NONE, null, 20, false);
+
+            assertThat(challengeService.getChallengeListETag(ChallengeFilter.NONE, " ", 20, false)).isEqualTo(firstPage);
+            assertThat(challengeService.getChallengeListETag(ChallengeFilter.NONE, ChallengeCursor.START.encode(), 20, false)).isEqualTo(firstPage);
+            assertThat(List.of(
+                    challengeService.getChallengeListETag(ChallengeFilter.NONE, new ChallengeCursor(ChallengeCursor.OTHERS_BUCKET, 3L).encode(), 20, false),
+                    challengeService.getChallengeListETag(ChallengeFilter.NONE, null, 10, false),
+                    challengeService.getChallengeListETag(ChallengeFilter.NONE, null, 20, true),
+                    challengeService.getChallengeListETag(new ChallengeFilter(Status.PENDING, null, null), null, 20, false),
+                    challengeService.getChallengeListETag(new ChallengeFilter(null, null, 3), null, 20, false)))
+                    .doesNotContain(firstPage)
+                    .doesNotHaveDuplicates();
         }
     }
 
@@ -129,6 +294,7 @@ public class ChallengeServiceTest {
         private User testUser;
         private Challenge testChallenge;
         private ChallengeResponse testChallengeResponse;
+        private VersionedChallenge testVersionedChallenge;
 
         @BeforeEach
         void setup() {
@@ -139,11 +305,15 @@ public class ChallengeServiceTest {
                     .roles(Collections.singletonList(createRole("ROLE_USER")))
                     .build();
 
-            testChallenge = new Challenge(1L, "Read more", "Read one novel each month for 12 months", Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", testUser);
+            testChallenge = new Challenge(1L, "Read more", "Read one novel each month for 12 months", Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", testUser, 0L, null, null, null);
             testChallengeResponse = new ChallengeResponse(
                     testChallenge.getId(), testChallenge.getTitle(), testChallenge.getDescription(), testChallenge.getStatus(), testChallenge.getClassification(),
                     testChallenge.getDifficultyLevel(), testChallenge.getPrize(), testUser.getUsername()
             );
+            testVersionedChallenge = new VersionedChallenge(
+                    testChallenge.getId(), testChallenge.getTitle(), testChallenge.getDescription(), testChallenge.getStatus(), testChallenge.getClassification(),
+                    testChallenge.getDifficultyLevel(), testChallenge.getPrize(), testUser.getId(), testUser.getUsername(), 2L
+            );
         }
 
         @Test
@@ -151,27 +321,168 @@ public class ChallengeServiceTest {
         void shouldReturnChallengeResponseGivenAnId() {
             Long challengeId = 1l;
 
-            given(challengeRepository.findById(challengeId)).willReturn(Optional.of(testChallenge));
-            given(challengeMapperImpl.entityToDto(testChallenge)).willReturn(testChallengeResponse);
+            given(challengeRepository.findVersionedById(challengeId)).willReturn(Optional.of(testVersionedChallenge));
 
             ChallengeResponse result = challengeService.getChallengeById(challengeId);
 
             assertThat(result).isEqualTo(testChallengeResponse);
-            verify(challengeRepository).findById(challengeId);
-            verify(challengeMapperImpl).entityToDto(testChallenge);
+            verify(challengeRepository).findVersionedById(challengeId);
+            verify(challengeRepository, never()).findById(ArgumentMatchers.anyLong());
+        }
+
+        @Test
+        @DisplayName("Should serve repeated lookups from the cache until the challenge changes")
+        void shouldServeRepeatedLookupsFromCache() {
+            Long challengeId = 1L;
+            given(challengeRepository.findVersionedById(challengeId)).willReturn(Optional.of(testVersionedChallenge));
+
+            challengeService.getChallengeById(challengeId);
+            challengeService.getChallengeById(challengeId);
+            challengeCache.onChallengeChanged(ChallengeChangedEvent.deleted(ChallengeSnapshot.of(testChallenge)));
+            challengeService.getChallengeById(challengeId);
+
+            verify(challengeRepository, times(2)).findVersionedById(challengeId);
         }
 
         @Test
         @DisplayName("Should throw EntityNotFoundException when Challenge ID is not found")
         void shouldThrowEntityNotFoundException_whenIdNotFound() {
             Long nonExistentId = 99L;
-            given(challengeRepository.findById(nonExistentId)).willReturn(Optional.empty());
+            given(challengeRepository.findVersionedById(nonExistentId)).willReturn(Optional.empty());
 
             assertThatThrownBy(() -> challengeService.getChallengeById(nonExistentId))
                     .isInstanceOf(EntityNotFoundException.class)
                     .hasMessageContaining("Challenge not found with id " + nonExistentId);
 
-            verify(challengeRepository).findById(nonExistentId);
+            verify(challengeRepository).findVersionedById(nonExistentId);
+            verify(archivedChallengeRepository, never()).findVersionedById(ArgumentMatchers.anyLong());
+        }
+
+        @Test
+        @DisplayName("Should fall back to the archive when includeArchived is set")
+        void shouldReadArchivedChallenge_whenIncludeArchived() {
+            Long challengeId = 1L;
+            given(challengeRepository.findVersionedById(challengeId)).willReturn(Optional.empty());
+            given(archivedChallengeRepository.findVersionedById(challengeId)).willReturn(Optional.of(testVersionedChallenge));
+
+            TaggedResponse<ChallengeResponse> result = challengeService.getTaggedChallengeById(challengeId, true);
+
+            assertThat(result.body()).isEqualTo(testChallengeResponse);
+        }
+    }
+
+    @Nested
+    @DisplayName("getChallengesByUserId(Long id)")
+    class GetChallengesByUserIdTests {
+
+        @Test
+        @DisplayName("Should return the user's challenges without a separate user lookup")
+        void shouldReturnChallenges_whenUserHasChallenges() {
+            ChallengeResponse response = new ChallengeResponse(1L, "Read more", "Read one novel each month for 12 months", Status.PENDING,
+                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", "usertest");
+            given(challengeRepository.findResponsesByUserIdWithOwner(1L)).willReturn(List.of(response));
+
+            List<ChallengeResponse> result = challengeService.getChallengesByUserId(1L);
+
+            assertThat(result).containsExactly(response);
+            verify(userRepository, never()).findById(ArgumentMatchers.anyLong());
+        }
+
+        @Test
+        @DisplayName("Should return an empty list when the user exists but has no challenges")
+        void shouldReturnEmptyList_whenUserHasNoChallenges() {
+            ChallengeResponse ownerOnly = new ChallengeResponse(null, null, null, null, null, 0, null, "usertest");
+            given(challengeRepository.findResponsesByUserIdWithOwner(3L)).willReturn(List.of(ownerOnly));
+
+            assertThat(challengeService.getChallengesByUserId(3L)).isEmpty();
+        }
+
+        @Test
+        @DisplayName("Should delegate filters to the database query")
+        void shouldQueryWithFilter_whenFilterPresent() {
+            ChallengeFilter filter = new ChallengeFilter(Status.PENDING, null, null);
+            ChallengeResponse response = new ChallengeResponse(1L, "Read more", "Read one novel each month for 12 months", Status.PENDING,
+                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", "usertest");
+            given(challengeRepository.findResponsesMatching(filter, 1L, 0L, Limit.unlimited())).willReturn(List.of(response));
+
+            assertThat(challengeService.getChallengesByUserId(1L, filter)).containsExactly(response);
+            verify(userRepository, never()).existsById(ArgumentMatchers.anyLong());
+        }
+
+        @Test
+        @DisplayName("Should throw NoSuchElementException when filtering the challenges of a user that does not exist")
+        void shouldThrowNoSuchElementException_whenFilteringUnknownUser() {
+            ChallengeFilter filter = new ChallengeFilter(Status.PENDING, null, null);
+            given(challengeRepository.findResponsesMatching(filter, 99L, 0L, Limit.unlimited())).willReturn(List.of());
+            given(userRepository.existsById(99L)).willReturn(false);
+
+            assertThatThrownBy(() -> challengeService.getChallengesByUserId(99L, filter))
+                    .isInstanceOf(NoSuchElementException.class)
+                    .hasMessage("No user found with id 99");
+        }
+
+        @Test
+        @DisplayName("Should merge the user's archived challenges by id when includeArchived is set")
+        void shouldMergeArchivedChallenges_whenIncludeArchived() {
+            ChallengeResponse live = new ChallengeResponse(3L, "Read more", "Read one novel each month for 12 months", Status.PENDING,
+                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", "usertest");
+            ChallengeResponse archived = new ChallengeResponse(1L, "Save money", "Save 100 euros every month", Status.COMPLETED_SATISFACTORILY,
+                    Classification.FINANCES, 2, "A weekend away", "usertest");
+            given(challengeRepository.findResponsesByUserIdWithOwner(1L)).willReturn(List.of(live));
+            given(archivedChallengeRepository.findResponsesByUserId(1L)).willReturn(List.of(archived));
+
+            assertThat(challengeService.getChallengesByUserId(1L, ChallengeFilter.NONE, true)).containsExactly(archived, live);
+        }
+
+        @Test
+        @DisplayName("Should throw NoSuchElementException when the user does not exist")
+        void shouldThrowNoSuchElementException_whenUserNotFound() {
+            given(challengeRepository.findResponsesByUserIdWithOwner(99L)).willReturn(List.of());
+
+            assertThatThrownBy(() -> challengeService.getChallengesByUserId(99L))
+                    .isInstanceOf(NoSuchElementException.class)
+                    .hasMessage("No user found with id 99");
+        }
+    }
+
+    @Nested
+    @DisplayName("exportChallenges(OutputStream)")
+    class ExportChallengesTests {
+
+        @Test
+        @DisplayName("Should write one JSON document per line and close the database stream")
+        void shouldWriteNewlineDelimitedJson() throws Exception {
+            ChallengeResponse first = new ChallengeResponse(1L, "Read more", "Read one novel each month for 12 months", Status.PENDING,
+                    Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment", "usertest");
+            ChallengeResponse second = new ChallengeResponse(2L, "Eat more fruit and veg", "Eat one salad and 3 pieces of fruit every day for a month", Status.PENDING,
+                    Classification.HEALTH_AND_WELLBEING, 2, "Trip to the theatre with Sara", "usertest");
+            AtomicBoolean closed = new AtomicBoolean(false);
+            given(challengeRepository.streamAllResponses()).willReturn(Stream.of(first, second).onClose(() -> closed.set(true)));
+            ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
+
+            challengeService.exportChallenges(outputStream);
+
+            String[] lines = outputStream.toString(StandardCharsets.UTF_8).split("\n");
+            assertThat(lines).hasSize(2);
+            assertThat(objectMapper.readValue(lines[0], ChallengeResponse.class)).isEqualTo(first);
+            assertThat(objectMapper.readValue(lines[1], ChallengeResponse.class)).isEqualTo(second);
+            assertThat(closed).isTrue();
+        }
+    }
+
+    @Nested
+    @DisplayName("searchChallenges(String, int, int)")
+    class SearchChallengesTests {
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the page reaches past the search window")
+        void shouldRejectPagesPastTheSearchWindow() {
+            assertThatThrownBy(() -> challengeService.searchChallenges("read", 50_000_000, 100))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> challengeService.searchChallenges("read", ChallengeService.MAX_SEARCH_WINDOW / 100, 100))
+                    .isInstanceOf(IllegalArgumentException.class);
+
+            verify(challengeSearchIndex, never()).search(ArgumentMatchers.anyString(), ArgumentMatchers.anyInt(), ArgumentMatchers.anyInt());
         }
     }
 
@@ -214,7 +525,7 @@ public class ChallengeServiceTest {
         @Test
         @DisplayName("Should add a challenge successfully when user is valid")
         void shouldAddChallengeSuccessfully_whenUserIsValid() {
-            given(userRepository.findByUsernameIgnoreCase(testUser.getUsername())).willReturn(Optional.of(testUser));
+            given(userRepository.findByUsernameNormalized("usertest")).willReturn(Optional.of(testUser));
             given(challengeMapperImpl.dtoToEntity(validRequest, testUser)).willReturn(savedChallengeEntity);
             given(challengeRepository.save(savedChallengeEntity)).willReturn(savedChallengeEntity);
             given(challengeMapperImpl.entityToDto(savedChallengeEntity)).willReturn(expectedResponse);
@@ -225,7 +536,297 @@ public class ChallengeServiceTest {
                     .isInstanceOf(IllegalArgumentException.class)
                     .hasMessage("User information is missing or invalid");
 
-            verify(userRepository).findByUsernameIgnoreCase(org.mockito.ArgumentMatchers.anyString());
+            verify(userRepository).findByUsernameNormalized(org.mockito.ArgumentMatchers.anyString());
+        }
+    }
+
+    @Nested
+    @DisplayName("addChallenges(List<ChallengeRequest>, UserDetail)")
+    class AddChallengesTests {
+        private User testUser;
+        private UserDetail testUserDetail;
+        private ChallengeRequest validRequest;
+        private ChallengeRequest invalidRequest;
+
+        @BeforeEach
+        void setup() {
+            testUser = User.builder()
+                    .id(1L)
+                    .username("usertest")
+                    .password("encoded_password")
+                    .roles(Collections.singletonList(createRole("ROLE_USER")))
+                    .build();
+            testUserDetail = new UserDetail(testUser);
+            validRequest = new ChallengeRequest("Read more", "Read one novel each month for 12 months", Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 3, "Special Spa day treatment");
+            invalidRequest = new ChallengeRequest("", "Read one novel each month for 12 months", Status.PENDING, Classification.PERSONAL_DEVELOPMENT, 7, "Special Spa day treatment");
+        }
+
+        @Test
+        @DisplayName("Should save valid items in one call and report invalid items by index")
+        void shouldSaveValidItemsAndReportInvalidOnes() {
+            Challenge challenge = new Challenge(10L, validRequest.title(), validRequest.description(), validRequest.status(),
+                    validRequest.classification(), validRequest.difficultyLevel(), validRequest.prize(), testUser, 0L, null, null, null);
+            ChallengeResponse response = new ChallengeResponse(10L, challenge.getTitle(), challenge.getDescription(), challenge.getStatus(),
+                    challenge.getClassification(), challenge.getDifficultyLevel(), challenge.getPrize(), testUser.getUsername());
+            given(userRepository.findByUsernameNormalized("usertest")).willReturn(Optional.of(testUser));
+            given(challengeMapperImpl.dtoToEntity(validRequest, testUser)).willReturn(challenge);
+            given(challengeRepository.saveAll(List.of(challenge))).willReturn(List.of(challenge));
+            given(challengeMapperImpl.entityToDto(challenge)).willReturn(response);
+
+            ChallengeBatchResponse result = challengeService.addChallenges(Arrays.asList(invalidRequest, validRequest, null), testUserDetail);
+
+            assertThat(result.created()).containsExactly(response);
+            assertThat(result.errors()).extracting(ChallengeBatchError::index).containsExactly(0, 2);
+            assertThat(result.errors().get(0).details()).containsOnlyKeys("title", "difficultyLevel");
+            verify(userRepository, times(1)).findByUsernameNormalized("usertest");
+            verify(challengeRepository, never()).save(ArgumentMatchers.any());
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.created(ChallengeSnapshot.of(challenge)));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the batch is empty or too large")
+        void shouldRejectEmptyOrOversizedBatch() {
+            List<ChallengeRequest> oversized = Collections.nCopies(ChallengeService.MAX_BATCH_SIZE + 1, validRequest);
+
+            assertThatThrownBy(() -> challengeService.addChallenges(List.of(), testUserDetail))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> challengeService.addChallenges(oversized, testUserDetail))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(challengeRepository, never()).saveAll(ArgumentMatchers.any());
+        }
+    }
+
+    @Nested
+    @DisplayName("transitionChallengeStatus(ChallengeStatusTransitionRequest, UserDetail)")
+    class TransitionChallengeStatusTests {
+        private UserDetail userDetail(Long id, String role) {
+            return new UserDetail(User.builder()
+                    .id(id)
+                    .username("user" + id)
+                    .password("encoded_password")
+                    .roles(Collections.singletonList(createRole(role)))
+                    .build());
+        }
+
+        private ChallengeSnapshot snapshot(Long id, Long userId) {
+            return new ChallengeSnapshot(id, "Title", "Description", Status.IN_PROGRESS, Classification.FINANCES, 3, userId);
+        }
+
+        @Test
+        @DisplayName("Should restrict a regular user to their own challenges and publish one event per row")
+        void shouldRestrictUserToOwnChallenges() {
+            ChallengeStatusTransitionRequest request = new ChallengeStatusTransitionRequest(null, null, Status.IN_PROGRESS, null, Status.NOT_COMPLETED_SATISFACTORILY);
+            List<ChallengeSnapshot> affected = List.of(snapshot(3L, 2L), snapshot(7L, 2L));
+            given(challengeRepository.lockSnapshotsMatching(request, Status.NOT_COMPLETED_SATISFACTORILY, 2L, Limit.of(ChallengeService.BULK_UPDATE_CHUNK_SIZE))).willReturn(affected);
+            given(challengeRepository.updateStatusMatching(request, List.of(3L, 7L), Status.NOT_COMPLETED_SATISFACTORILY, 2L)).willReturn(2);
+
+            ChallengeBulkUpdateResponse response = challengeService.transitionChallengeStatus(request, userDetail(2L, "ROLE_USER"));
+
+            assertThat(response.updated()).isEqualTo(2);
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.updated(affected.get(0), affected.get(0).withStatus(Status.NOT_COMPLETED_SATISFACTORILY)));
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.updated(affected.get(1), affected.get(1).withStatus(Status.NOT_COMPLETED_SATISFACTORILY)));
+        }
+
+        @Test
+        @DisplayName("Should not restrict the owner for admins")
+        void shouldNotRestrictAdmins() {
+            ChallengeStatusTransitionRequest request = new ChallengeStatusTransitionRequest(List.of(4L), null, null, null, Status.COMPLETED_SATISFACTORILY);
+            given(challengeRepository.lockSnapshotsMatching(request, Status.COMPLETED_SATISFACTORILY, null, Limit.of(ChallengeService.BULK_UPDATE_CHUNK_SIZE))).willReturn(List.of(snapshot(4L, 4L)));
+            given(challengeRepository.updateStatusMatching(request, List.of(4L), Status.COMPLETED_SATISFACTORILY, null)).willReturn(1);
+
+            ChallengeBulkUpdateResponse response = challengeService.transitionChallengeStatus(request, userDetail(1L, "ROLE_ADMIN"));
+
+            assertThat(response.updated()).isEqualTo(1);
+        }
+
+        @Test
+        @DisplayName("Should lock, update and commit one chunk at a time")
+        void shouldTransitionInChunks() {
+            ChallengeStatusTransitionRequest request = new ChallengeStatusTransitionRequest(null, null, Status.IN_PROGRESS, null, Status.PENDING);
+            List<ChallengeSnapshot> fullChunk = LongStream.range(1, 1 + ChallengeService.BULK_UPDATE_CHUNK_SIZE)
+                    .mapToObj(id -> snapshot(id, 4L))
+                    .toList();
+            List<ChallengeSnapshot> lastChunk = List.of(snapshot(5_000L, 4L));
+            given(challengeRepository.lockSnapshotsMatching(request, Status.PENDING, null, Limit.of(ChallengeService.BULK_UPDATE_CHUNK_SIZE)))
+                    .willReturn(fullChunk, lastChunk);
+            given(challengeRepository.updateStatusMatching(ArgumentMatchers.eq(request), ArgumentMatchers.anyList(),
+                    ArgumentMatchers.eq(Status.PENDING), ArgumentMatchers.isNull())).willReturn(ChallengeService.BULK_UPDATE_CHUNK_SIZE, 1);
+
+            ChallengeBulkUpdateResponse response = challengeService.transitionChallengeStatus(request, userDetail(1L, "ROLE_ADMIN"));
+
+            assertThat(response.updated()).isEqualTo(ChallengeService.BULK_UPDATE_CHUNK_SIZE + 1);
+            verify(transactionTemplate, times(2)).execute(ArgumentMatchers.any());
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.updated(lastChunk.get(0), lastChunk.get(0).withStatus(Status.PENDING)));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when neither ids nor a filter are given")
+        void shouldRejectRequestWithoutCriteria() {
+            ChallengeStatusTransitionRequest request = new ChallengeStatusTransitionRequest(List.of(), null, null, null, Status.PENDING);
+
+            assertThatThrownBy(() -> challengeService.transitionChallengeStatus(request, userDetail(1L, "ROLE_ADMIN")))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(challengeRepository, never()).updateStatusMatching(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+    }
+
+    @Nested
+    @DisplayName("deleteChallenges(ChallengeBulkDeleteRequest, UserDetail)")
+    class DeleteChallengesTests {
+        private final UserDetail userDetail = new UserDetail(User.builder()
+                .id(2L)
+                .username("usertest")
+                .password("encoded_password")
+                .roles(Collections.singletonList(createRole("ROLE_USER")))
+                .build());
+
+        private List<ChallengeSnapshot> snapshots(long firstId, int count) {
+            return LongStream.range(firstId, firstId + count)
+                    .mapToObj(id -> new ChallengeSnapshot(id, "Title", "Description", Status.PENDING, Classification.FINANCES, 2, 2L))
+                    .toList();
+        }
+
+        @Test
+        @DisplayName("Should delete in chunks restricted to the owner until a partial chunk is found")
+        void shouldDeleteInChunks() {
+            ChallengeBulkDeleteRequest request = new ChallengeBulkDeleteRequest(null, null, Status.PENDING, null);
+            List<ChallengeSnapshot> fullChunk = snapshots(1, ChallengeService.BULK_DELETE_CHUNK_SIZE);
+            List<ChallengeSnapshot> lastChunk = snapshots(1_000, 3);
+            given(challengeRepository.lockSnapshotsMatching(request, null, 2L, Limit.of(ChallengeService.BULK_DELETE_CHUNK_SIZE)))
+                    .willReturn(fullChunk, lastChunk);
+            given(challengeRepository.softDeleteByIdIn(ArgumentMatchers.anyList(), ArgumentMatchers.eq(2L), ArgumentMatchers.any(Instant.class)))
+                    .willReturn(ChallengeService.BULK_DELETE_CHUNK_SIZE, 3);
+
+            ChallengeBulkDeleteResponse response = challengeService.deleteChallenges(request, userDetail);
+
+            assertThat(response.deleted()).isEqualTo(ChallengeService.BULK_DELETE_CHUNK_SIZE + 3);
+            verify(transactionTemplate, times(2)).execute(ArgumentMatchers.any());
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.deleted(lastChunk.get(2)));
+            verify(eventPublisher, times(ChallengeService.BULK_DELETE_CHUNK_SIZE + 3)).publishEvent(ArgumentMatchers.any(ChallengeChangedEvent.class));
+            verify(challengeTombstoneRepository, times(2)).insertForChallenges(ArgumentMatchers.anyList(), ArgumentMatchers.any(Instant.class));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when neither ids nor a filter are given")
+        void shouldRejectRequestWithoutCriteria() {
+            ChallengeBulkDeleteRequest request = new ChallengeBulkDeleteRequest(null, null, null, null);
+
+            assertThatThrownBy(() -> challengeService.deleteChallenges(request, userDetail))
+                    .isInstanceOf(IllegalArgumentException.class);
+            verify(challengeRepository, never()).softDeleteByIdIn(ArgumentMatchers.any(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+    }
+
+    @Nested
+    @DisplayName("patchChallenge(Long, JsonNode, UserDetail, String)")
+    class PatchChallengeTests {
+        private final UserDetail ownerDetail = new UserDetail(User.builder()
+                .id(2L)
+                .username("usertest")
+                .password("encoded_password")
+                .roles(Collections.singletonList(createRole("ROLE_USER")))
+                .build());
+        private final VersionedChallenge current = new VersionedChallenge(5L, "Read more", "Read one novel each month", Status.PENDING,
+                Classification.PERSONAL_DEVELOPMENT, 3, "Spa day", 2L, "usertest", 4L);
+
+        private JsonNode patch(String json) throws Exception {
+            return objectMapper.readTree(json);
+        }
+
+        @Test
+        @DisplayName("Should write only the changed columns and publish the previous and patched rows")
+        void shouldUpdateOnlyChangedColumns() throws Exception {
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current));
+            given(challengeRepository.patchById(5L, 4L, Map.of("status", Status.IN_PROGRESS), 2L)).willReturn(1);
+            given(resourceVersions.challengeRepresentation()).willReturn("abc-0");
+
+            TaggedResponse<ChallengeResponse> result = challengeService.patchChallenge(5L,
+                    patch("{\"status\": \"IN_PROGRESS\", \"title\": \"Read more\"}"), ownerDetail, null);
+
+            verify(challengeRepository).findVersionedById(5L);
+            verify(challengeRepository, never()).findById(ArgumentMatchers.anyLong());
+            assertThat(result.body().status()).isEqualTo(Status.IN_PROGRESS);
+            assertThat(result.eTag()).isEqualTo("v5.abc-0");
+            verify(eventPublisher).publishEvent(ChallengeChangedEvent.updated(current.snapshot(), current.snapshot().withStatus(Status.IN_PROGRESS)));
+        }
+
+        @Test
+        @DisplayName("Should skip the update when the patch changes nothing")
+        void shouldSkipNoOpPatch() throws Exception {
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current));
+
+            TaggedResponse<ChallengeResponse> result = challengeService.patchChallenge(5L, patch("{\"difficultyLevel\": 3}"), ownerDetail, null);
+
+            assertThat(result.body()).isEqualTo(current.response());
+            verify(challengeRepository, never()).patchById(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the merged challenge is invalid or a field is read-only")
+        void shouldRejectInvalidPatches() throws Exception {
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current));
+
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"prize\": null}"), ownerDetail, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessageContaining("prize");
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"DONE\"}"), ownerDetail, null))
+                    .isInstanceOf(IllegalArgumentException.class);
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"username\": \"someone\"}"), ownerDetail, null))
+                    .isInstanceOf(IllegalArgumentException.class)
+                    .hasMessage("Field username cannot be patched");
+            verify(challengeRepository, never()).patchById(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should throw PreconditionFailedException before writing when If-Match names an older version")
+        void shouldRejectStaleIfMatchBeforeWriting() throws Exception {
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current));
+
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"IN_PROGRESS\"}"), ownerDetail, "\"v3.abc-0\""))
+                    .isInstanceOf(PreconditionFailedException.class);
+            verify(challengeRepository, never()).patchById(ArgumentMatchers.any(), ArgumentMatchers.anyLong(), ArgumentMatchers.any(), ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should let the owner predicate reject another user's patch and report it as AccessDeniedException")
+        void shouldRejectForeignPatchInTheUpdate() throws Exception {
+            UserDetail otherDetail = new UserDetail(User.builder()
+                    .id(3L)
+                    .username("other")
+                    .password("encoded_password")
+                    .roles(Collections.singletonList(createRole("ROLE_USER")))
+                    .build());
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current));
+            given(challengeRepository.patchById(5L, 4L, Map.of("status", Status.IN_PROGRESS), 3L)).willReturn(0);
+
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"IN_PROGRESS\"}"), otherDetail, null))
+                    .isInstanceOf(AccessDeniedException.class);
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should report a version moved by a concurrent writer as 412 with If-Match and 409 without it")
+        void shouldReportConcurrentWriterWhenNoRowMatched() throws Exception {
+            VersionedChallenge moved = current.patched(current.request());
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current), Optional.of(moved), Optional.of(current), Optional.of(moved));
+            given(challengeRepository.patchById(5L, 4L, Map.of("status", Status.IN_PROGRESS), 2L)).willReturn(0);
+
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"IN_PROGRESS\"}"), ownerDetail, "\"v4.abc-0\""))
+                    .isInstanceOf(PreconditionFailedException.class);
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"IN_PROGRESS\"}"), ownerDetail, null))
+                    .isInstanceOf(ConflictException.class);
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException when the row is deleted before the update")
+        void shouldReportDeletedRowWhenNoRowMatched() throws Exception {
+            given(challengeRepository.findVersionedById(5L)).willReturn(Optional.of(current), Optional.empty());
+            given(challengeRepository.patchById(5L, 4L, Map.of("status", Status.IN_PROGRESS), 2L)).willReturn(0);
+
+            assertThatThrownBy(() -> challengeService.patchChallenge(5L, patch("{\"status\": \"IN_PROGRESS\"}"), ownerDetail, null))
+                    .isInstanceOf(EntityNotFoundException.class);
         }
     }
 
@@ -270,8 +871,8 @@ public class ChallengeServiceTest {
                     .build();
             adminUserDetail = new UserDetail(adminUser);
 
-            ownedChallenge = new Challenge(100L, "Stretch my body", "Do 10 mins stretching every morning", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 3, "Buy myself a garmin watch", ownerUser);
-            otherChallenge = new Challenge(200L, "Do yoga", "Go to yoga class twice every week", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 1, "Treat myself to an ice-cream", otherUser);
+            ownedChallenge = new Challenge(100L, "Stretch my body", "Do 10 mins stretching every morning", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 3, "Buy myself a garmin watch", ownerUser, 0L, null, null, null);
+            otherChallenge = new Challenge(200L, "Do yoga", "Go to yoga class twice every week", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 1, "Treat myself to an ice-cream", otherUser, 0L, null, null, null);
 
             updateRequest = new ChallengeRequest("Updated Title", "Updated Description", Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 5, "Updated Prize");
 
@@ -370,6 +971,38 @@ public class ChallengeServiceTest {
             verify(challengeMapperImpl, never()).entityToDto(ArgumentMatchers.any(Challenge.class));
         }
 
+        @Test
+        @DisplayName("Should throw PreconditionFailedException when If-Match names an older version")
+        void shouldThrowPreconditionFailedException_whenIfMatchIsStale() {
+            Long challengeId = ownedChallenge.getId();
+            ownedChallenge.setVersion(3L);
+            given(challengeRepository.findById(challengeId)).willReturn(Optional.of(ownedChallenge));
+
+            assertThatThrownBy(() -> challengeService.updateChallenge(challengeId, updateRequest, ownerUserDetail, "\"v2.abc-0\""))
+                    .isInstanceOf(PreconditionFailedException.class);
+
+            assertThat(ownedChallenge.getTitle()).isEqualTo("Stretch my body");
+            verify(challengeRepository, never()).save(ArgumentMatchers.any(Challenge.class));
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("Should update and return the new version tag when If-Match names the current version")
+        void shouldUpdate_whenIfMatchIsCurrent() {
+            Long challengeId = ownedChallenge.getId();
+            ownedChallenge.setVersion(3L);
+            updatedOwnedChallengeEntity.setVersion(4L);
+            given(challengeRepository.findById(challengeId)).willReturn(Optional.of(ownedChallenge));
+            given(challengeRepository.save(ownedChallenge)).willReturn(updatedOwnedChallengeEntity);
+            given(resourceVersions.challengeRepresentation()).willReturn("abc-0");
+            given(challengeMapperImpl.entityToDto(updatedOwnedChallengeEntity)).willReturn(expectedResponse);
+
+            TaggedResponse<ChallengeResponse> result = challengeService.updateChallenge(challengeId, updateRequest, ownerUserDetail, "\"v3.abc-0\"");
+
+            assertThat(result).isEqualTo(new TaggedResponse<>(expectedResponse, "v4.abc-0"));
+            verify(challengeRepository).flush();
+        }
+
         @Test
         @DisplayName("Should throw IllegalArgumentException when UserDetail is missing or invalid")
         void shouldThrowIllegalArgumentException_whenUserDetailsIsInvalid() {
@@ -438,8 +1071,8 @@ public class ChallengeServiceTest {
                     .build();
             adminUserDetail = new UserDetail(adminUser);
 
-            ownedChallenge = new Challenge(100L, "Stretch my body", "Do 10 mins stretching every morning", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 3, "Buy myself a garmin watch", ownerUser);
-            otherChallenge = new Challenge(200L, "Do yoga", "Go to yoga class twice every week", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 1, "Treat myself to an ice-cream", otherUser);
+            ownedChallenge = new Challenge(100L, "Stretch my body", "Do 10 mins stretching every morning", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 3, "Buy myself a garmin watch", ownerUser, 0L, null, null, null);
+            otherChallenge = new Challenge(200L, "Do yoga", "Go to yoga class twice every week", Status.IN_PROGRESS, Classification.HEALTH_AND_WELLBEING, 1, "Treat myself to an ice-cream", otherUser, 0L, null, null, null);
         }
 
         @Test
@@ -452,7 +1085,9 @@ public class ChallengeServiceTest {
 
             assertThat(result).isEqualTo("Challenge with id " + challengeId + " has been deleted");
             verify(challengeRepository).findById(challengeId);
-            verify(challengeRepository).delete(ownedChallenge);
+            verify(challengeTombstoneRepository).insertForChallenges(ArgumentMatchers.eq(List.of(challengeId)), ArgumentMatchers.any(Instant.class));
+            verify(challengeRepository).save(ownedChallenge);
+            assertThat(ownedChallenge.getDeletedAt()).isNotNull();
         }
 
         @Test
@@ -466,7 +1101,7 @@ public class ChallengeServiceTest {
                     .hasMessage("You are not authorized to perform this action on this challenge.");
 
             verify(challengeRepository).findById(challengeId);
-            verify(challengeRepository, never()).delete(ArgumentMatchers.any(Challenge.class));
+            verify(challengeRepository, never()).save(ArgumentMatchers.any(Challenge.class));
         }
 
         @Test
@@ -479,7 +1114,7 @@ public class ChallengeServiceTest {
                     .hasMessage("User information is missing or invalid");
 
             verify(challengeRepository, never()).findById(ArgumentMatchers.anyLong());
-            verify(challengeRepository, never()).delete(ArgumentMatchers.any(Challenge.class));
+            verify(challengeRepository, never()).save(ArgumentMatchers.any(Challenge.class));
         }
 
         @Test
@@ -493,7 +1128,7 @@ public class ChallengeServiceTest {
                     .hasMessageContaining("Challenge not found with id " + nonExistentId);
 
             verify(challengeRepository).findById(nonExistentId);
-            verify(challengeRepository, never()).delete(ArgumentMatchers.any(Challenge.class));
+            verify(challengeRepository, never()).save(ArgumentMatchers.any(Challenge.class));
         }
     }
 }
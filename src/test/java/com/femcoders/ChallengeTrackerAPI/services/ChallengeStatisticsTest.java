@@ -0,0 +1,120 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeStatsResponse;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChallengeStatistics Unit Tests")
+public class ChallengeStatisticsTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Spy
+    TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+
+    @InjectMocks
+    ChallengeStatistics challengeStatistics;
+
+    private ChallengeSnapshot snapshot(Long id, Status status, Classification classification, int difficulty, Long userId) {
+        return new ChallengeSnapshot(id, "Title", "Description", status, classification, difficulty, userId);
+    }
+
+    @Test
+    @DisplayName("Should load global and per-user counters from the grouped query")
+    void shouldInitializeFromDatabase() {
+        given(challengeRepository.countByUserStatusAndClassification()).willReturn(List.of(
+                new ChallengeCountRow(1L, Status.PENDING, Classification.FINANCES, 2L, 6L),
+                new ChallengeCountRow(2L, Status.IN_PROGRESS, Classification.FINANCES, 1L, 5L)
+        ));
+
+        challengeStatistics.initialize();
+        ChallengeStatsResponse global = challengeStatistics.getGlobalStatistics();
+        ChallengeStatsResponse user = challengeStatistics.getUserStatistics(1L);
+
+        assertThat(global.total()).isEqualTo(3);
+        assertThat(global.byStatus()).containsEntry(Status.PENDING, 2L).containsEntry(Status.IN_PROGRESS, 1L);
+        assertThat(global.byClassification()).containsEntry(Classification.FINANCES, 3L);
+        assertThat(global.averageDifficulty()).isEqualTo(11.0 / 3);
+        assertThat(user.total()).isEqualTo(2);
+        assertThat(user.averageDifficulty()).isEqualTo(3.0);
+    }
+
+    @Test
+    @DisplayName("Should move counts between buckets on update and remove them on delete")
+    void shouldApplyEventsIncrementally() {
+        ChallengeSnapshot created = snapshot(1L, Status.PENDING, Classification.CREATIVITY_AND_RECREATION, 2, 1L);
+        ChallengeSnapshot updated = snapshot(1L, Status.COMPLETED_SATISFACTORILY, Classification.CREATIVITY_AND_RECREATION, 4, 1L);
+
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.created(created));
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.updated(created, updated));
+        ChallengeStatsResponse afterUpdate = challengeStatistics.getUserStatistics(1L);
+
+        assertThat(afterUpdate.total()).isEqualTo(1);
+        assertThat(afterUpdate.byStatus()).containsEntry(Status.PENDING, 0L).containsEntry(Status.COMPLETED_SATISFACTORILY, 1L);
+        assertThat(afterUpdate.averageDifficulty()).isEqualTo(4.0);
+
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.deleted(updated));
+
+        assertThat(challengeStatistics.getGlobalStatistics().total()).isZero();
+        assertThat(challengeStatistics.getGlobalStatistics().averageDifficulty()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should report and correct drift during reconciliation")
+    void shouldReconcileDrift() {
+        given(challengeRepository.countByUserStatusAndClassification()).willReturn(List.of(
+                new ChallengeCountRow(1L, Status.PENDING, Classification.FINANCES, 1L, 3L)
+        ));
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.created(snapshot(1L, Status.PENDING, Classification.FINANCES, 3, 1L)));
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.created(snapshot(2L, Status.PENDING, Classification.FINANCES, 3, 2L)));
+
+        int drifted = challengeStatistics.reconcile();
+
+        assertThat(drifted).isEqualTo(2);
+        assertThat(challengeStatistics.getGlobalStatistics().total()).isEqualTo(1);
+        assertThat(challengeStatistics.getUserStatistics(2L).total()).isZero();
+        assertThat(challengeStatistics.reconcile()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should keep events committed while the grouped query runs")
+    void shouldKeepEventsCommittedDuringRebuild() {
+        ChallengeSnapshot existing = snapshot(1L, Status.PENDING, Classification.FINANCES, 3, 1L);
+        ChallengeSnapshot committedMeanwhile = snapshot(2L, Status.IN_PROGRESS, Classification.FINANCES, 5, 1L);
+        challengeStatistics.onChallengeChanged(ChallengeChangedEvent.created(existing));
+        given(challengeRepository.countByUserStatusAndClassification()).willAnswer(invocation -> {
+            challengeStatistics.onChallengeChanged(ChallengeChangedEvent.created(committedMeanwhile));
+            return List.of(new ChallengeCountRow(1L, Status.PENDING, Classification.FINANCES, 1L, 3L));
+        });
+
+        int drifted = challengeStatistics.reconcile();
+
+        assertThat(drifted).isZero();
+        assertThat(challengeStatistics.getGlobalStatistics().total()).isEqualTo(2);
+        assertThat(challengeStatistics.getUserStatistics(1L).byStatus()).containsEntry(Status.IN_PROGRESS, 1L);
+    }
+}
@@ -0,0 +1,134 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChangeRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeChanges;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeSyncToken;
+import com.femcoders.ChallengeTrackerAPI.models.ChallengeTombstone;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Limit;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("ChallengeSyncService Unit Tests")
+public class ChallengeSyncServiceTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ChallengeTombstoneRepository challengeTombstoneRepository;
+
+    ChallengeSyncService challengeSyncService;
+
+    @BeforeEach
+    void setUp() {
+        challengeSyncService = new ChallengeSyncService(challengeRepository, challengeTombstoneRepository,
+                Duration.ofSeconds(2), Duration.ofDays(30));
+    }
+
+    private ChallengeChangeRow row(Long id, Instant updatedAt) {
+        return new ChallengeChangeRow(id, "Title", "Description", Status.PENDING, Classification.FINANCES, 3, "Prize", "Mary", updatedAt);
+    }
+
+    @Nested
+    @DisplayName("getChanges(Long userId, String since, int limit)")
+    class GetChangesTests {
+        @Test
+        @DisplayName("Should start a first sync from the beginning for upserts and from the horizon for deletes")
+        void shouldStartFirstSync() {
+            Instant updatedAt = Instant.parse("2026-01-01T10:00:00Z");
+            given(challengeRepository.findChangesAfter(eq(1L), eq(Instant.EPOCH), eq(0L), any(Instant.class), eq(Limit.of(3))))
+                    .willReturn(List.of(row(5L, updatedAt)));
+            given(challengeTombstoneRepository.findChangesAfter(eq(1L), any(Instant.class), eq(ChallengeSyncToken.AFTER_ALL_IDS),
+                    any(Instant.class), eq(Limit.of(3)))).willReturn(List.of());
+
+            ChallengeChanges changes = challengeSyncService.getChanges(1L, null, 2);
+
+            assertThat(changes.upserted()).extracting(ChallengeResponse::id).containsExactly(5L);
+            assertThat(changes.deleted()).isEmpty();
+            assertThat(changes.hasMore()).isFalse();
+            assertThat(changes.reset()).isFalse();
+            ChallengeSyncToken next = ChallengeSyncToken.decode(changes.token());
+            assertThat(next.upsertedId()).isEqualTo(ChallengeSyncToken.AFTER_ALL_IDS);
+            assertThat(next.upsertedAt()).isAfter(updatedAt).isBefore(Instant.now().minusSeconds(1));
+        }
+
+        @Test
+        @DisplayName("Should stop each stream at its last returned row when more rows are waiting")
+        void shouldContinueFromLastRows() {
+            Instant from = Instant.now().minus(1, ChronoUnit.HOURS).truncatedTo(ChronoUnit.MICROS);
+            Instant first = from.plusSeconds(1);
+            Instant second = from.plusSeconds(2);
+            String since = new ChallengeSyncToken(from, 3L, from, 4L).encode();
+            given(challengeRepository.findChangesAfter(eq(1L), eq(from), eq(3L), any(Instant.class), eq(Limit.of(2))))
+                    .willReturn(List.of(row(7L, first), row(8L, second)));
+            given(challengeTombstoneRepository.findChangesAfter(eq(1L), eq(from), eq(4L), any(Instant.class), eq(Limit.of(2))))
+                    .willReturn(List.of(new ChallengeTombstone(9L, 1L, first)));
+
+            ChallengeChanges changes = challengeSyncService.getChanges(1L, since, 1);
+
+            assertThat(changes.upserted()).extracting(ChallengeResponse::id).containsExactly(7L);
+            assertThat(changes.deleted()).containsExactly(9L);
+            assertThat(changes.hasMore()).isTrue();
+            ChallengeSyncToken next = ChallengeSyncToken.decode(changes.token());
+            assertThat(next.upsertedAt()).isEqualTo(first);
+            assertThat(next.upsertedId()).isEqualTo(7L);
+            assertThat(next.deletedId()).isEqualTo(ChallengeSyncToken.AFTER_ALL_IDS);
+        }
+
+        @Test
+        @DisplayName("Should reset a token older than the tombstone retention")
+        void shouldResetExpiredToken() {
+            Instant old = Instant.now().minus(31, ChronoUnit.DAYS).truncatedTo(ChronoUnit.MICROS);
+            String since = new ChallengeSyncToken(old, 3L, old, 4L).encode();
+            given(challengeRepository.findChangesAfter(eq(1L), eq(Instant.EPOCH), eq(0L), any(Instant.class), any(Limit.class)))
+                    .willReturn(List.of());
+            given(challengeTombstoneRepository.findChangesAfter(eq(1L), any(Instant.class), anyLong(), any(Instant.class), any(Limit.class)))
+                    .willReturn(List.of());
+
+            ChallengeChanges changes = challengeSyncService.getChanges(1L, since, 10);
+
+            assertThat(changes.reset()).isTrue();
+            verify(challengeRepository).findChangesAfter(eq(1L), eq(Instant.EPOCH), eq(0L), any(Instant.class), any(Limit.class));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException for an invalid token or limit")
+        void shouldRejectInvalidInput() {
+            assertThrows(IllegalArgumentException.class, () -> challengeSyncService.getChanges(1L, "not a token", 10));
+            assertThrows(IllegalArgumentException.class, () -> challengeSyncService.getChanges(1L, null, 0));
+            assertThrows(IllegalArgumentException.class, () -> challengeSyncService.getChanges(1L, null, ChallengeSyncService.MAX_SYNC_LIMIT + 1));
+        }
+    }
+
+    @Test
+    @DisplayName("Should round-trip sync tokens with microsecond timestamps")
+    void syncTokenShouldRoundTrip() {
+        ChallengeSyncToken token = new ChallengeSyncToken(Instant.parse("2026-03-04T05:06:07.123456Z"), 12L,
+                Instant.parse("2026-03-04T05:06:08Z"), ChallengeSyncToken.AFTER_ALL_IDS);
+
+        assertThat(ChallengeSyncToken.decode(token.encode())).isEqualTo(token);
+    }
+}
@@ -0,0 +1,54 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.models.Role;
+import com.femcoders.ChallengeTrackerAPI.repositories.RoleRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DefaultRole Unit Tests")
+public class DefaultRoleTest {
+    @Mock
+    RoleRepository roleRepository;
+
+    @InjectMocks
+    DefaultRole defaultRole;
+
+    @Test
+    @DisplayName("Should look the role up once and again only after an eviction")
+    void shouldCacheUntilEvicted() {
+        given(roleRepository.findByRoleNameIgnoreCase("ROLE_USER"))
+                .willReturn(Optional.of(new Role(1L, "ROLE_USER", null)), Optional.of(new Role(3L, "ROLE_USER", null)));
+
+        defaultRole.resolve();
+        assertThat(defaultRole.get().getId()).isEqualTo(1L);
+        assertThat(defaultRole.get().getId()).isEqualTo(1L);
+        verify(roleRepository, times(1)).findByRoleNameIgnoreCase("ROLE_USER");
+
+        defaultRole.evict();
+        assertThat(defaultRole.get().getId()).isEqualTo(3L);
+        assertThat(defaultRole.get().getRoleName()).isEqualTo("ROLE_USER");
+        verify(roleRepository, times(2)).findByRoleNameIgnoreCase("ROLE_USER");
+    }
+
+    @Test
+    @DisplayName("Should throw EntityNotFoundException when the role does not exist")
+    void shouldThrowWhenRoleIsMissing() {
+        given(roleRepository.findByRoleNameIgnoreCase("ROLE_USER")).willReturn(Optional.empty());
+
+        assertThrows(EntityNotFoundException.class, () -> defaultRole.get());
+    }
+}
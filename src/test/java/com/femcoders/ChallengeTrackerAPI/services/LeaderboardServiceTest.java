@@ -0,0 +1,185 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.challenge.ChallengeCountRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.LeaderboardEntry;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UsernameRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.exceptions.EntityNotFoundException;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Nested;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("LeaderboardService Unit Tests")
+public class LeaderboardServiceTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    @Mock
+    PlatformTransactionManager transactionManager;
+
+    @InjectMocks
+    LeaderboardService leaderboardService;
+
+    private UsernameRow username(Long id, String username) {
+        return new UsernameRow() {
+            public Long getId() {
+                return id;
+            }
+
+            public String getUsername() {
+                return username;
+            }
+        };
+    }
+
+    private ChallengeSnapshot snapshot(Long id, Status status, Classification classification, int difficulty, Long userId) {
+        return new ChallengeSnapshot(id, "Title", "Description", status, classification, difficulty, userId);
+    }
+
+    @Nested
+    @DisplayName("Leaderboard ranking")
+    class LeaderboardRankingTests {
+        @Test
+        @DisplayName("Should rank users by completed difficulty from the grouped counts")
+        void shouldRankUsersFromDatabase() {
+            given(challengeRepository.countByUserStatusAndClassification()).willReturn(List.of(
+                    new ChallengeCountRow(1L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 1L, 3L),
+                    new ChallengeCountRow(2L, Status.COMPLETED_SATISFACTORILY, Classification.CREATIVITY_AND_RECREATION, 2L, 8L),
+                    new ChallengeCountRow(3L, Status.PENDING, Classification.FINANCES, 4L, 20L)
+            ));
+            given(userRepository.findUsernamesByIdIn(anyCollection())).willReturn(List.of(username(1L, "Mary"), username(2L, "Brian")));
+
+            leaderboardService.rebuild();
+            List<LeaderboardEntry> leaderboard = leaderboardService.getLeaderboard(null, 10);
+
+            assertThat(leaderboard).containsExactly(
+                    new LeaderboardEntry(1, 2L, "Brian", 8),
+                    new LeaderboardEntry(2, 1L, "Mary", 3));
+        }
+
+        @Test
+        @DisplayName("Should replay events committed while the grouped query runs")
+        void shouldReplayEventsCommittedDuringRebuild() {
+            ChallengeSnapshot completed = snapshot(1L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 3, 1L);
+            ChallengeSnapshot reopened = snapshot(1L, Status.IN_PROGRESS, Classification.FINANCES, 3, 1L);
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(completed));
+            given(challengeRepository.countByUserStatusAndClassification()).willAnswer(invocation -> {
+                leaderboardService.onChallengeChanged(ChallengeChangedEvent.updated(completed, reopened));
+                leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(snapshot(2L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 5, 2L)));
+                return List.of(new ChallengeCountRow(1L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 1L, 3L));
+            });
+            given(userRepository.findUsernamesByIdIn(anyCollection())).willReturn(List.of(username(2L, "Brian")));
+
+            leaderboardService.rebuild();
+
+            assertThat(leaderboardService.getLeaderboard(null, 10)).containsExactly(new LeaderboardEntry(1, 2L, "Brian", 5));
+        }
+
+        @Test
+        @DisplayName("Should keep a separate ranking per classification")
+        void shouldRankPerClassification() {
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(snapshot(1L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 5, 1L)));
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(snapshot(2L, Status.COMPLETED_SATISFACTORILY, Classification.PERSONAL_RELATIONS, 2, 2L)));
+            given(userRepository.findUsernamesByIdIn(List.of(2L))).willReturn(List.of(username(2L, "Brian")));
+
+            List<LeaderboardEntry> leaderboard = leaderboardService.getLeaderboard(Classification.PERSONAL_RELATIONS, 10);
+
+            assertThat(leaderboard).containsExactly(new LeaderboardEntry(1, 2L, "Brian", 2));
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the limit is out of range")
+        void shouldRejectInvalidLimit() {
+            assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(null, 0));
+            assertThrows(IllegalArgumentException.class, () -> leaderboardService.getLeaderboard(null, LeaderboardService.MAX_LEADERBOARD_SIZE + 1));
+        }
+    }
+
+    @Nested
+    @DisplayName("User ranking")
+    class UserRankingTests {
+        @Test
+        @DisplayName("Should move a user up and down as status transitions are applied")
+        void shouldFollowStatusTransitions() {
+            ChallengeSnapshot pending = snapshot(1L, Status.PENDING, Classification.FINANCES, 4, 1L);
+            ChallengeSnapshot completed = snapshot(1L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 4, 1L);
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(snapshot(2L, Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 2, 2L)));
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.created(pending));
+            given(userRepository.findUsernamesByIdIn(List.of(1L))).willReturn(List.of(username(1L, "Mary")));
+
+            assertThat(leaderboardService.getUserRanking(1L, null)).isEqualTo(new LeaderboardEntry(null, 1L, "Mary", 0));
+
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.updated(pending, completed));
+            assertThat(leaderboardService.getUserRanking(1L, null)).isEqualTo(new LeaderboardEntry(1, 1L, "Mary", 4));
+
+            leaderboardService.onChallengeChanged(ChallengeChangedEvent.deleted(completed));
+            assertThat(leaderboardService.getUserRanking(1L, null)).isEqualTo(new LeaderboardEntry(null, 1L, "Mary", 0));
+        }
+
+        @Test
+        @DisplayName("Should throw EntityNotFoundException when the user does not exist")
+        void shouldThrowWhenUserDoesNotExist() {
+            given(userRepository.findUsernamesByIdIn(List.of(99L))).willReturn(List.of());
+
+            assertThrows(EntityNotFoundException.class, () -> leaderboardService.getUserRanking(99L, null));
+        }
+    }
+
+    @Test
+    @DisplayName("Should agree with a full sort after random score updates")
+    void rankedScoresShouldMatchFullSort() {
+        RankedScores scores = new RankedScores();
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long userId = random.nextInt(300);
+            long delta = random.nextInt(11) - 4;
+            scores.add(userId, delta);
+            long score = expected.getOrDefault(userId, 0L) + delta;
+            if (score > 0) {
+                expected.put(userId, score);
+            } else {
+                expected.remove(userId);
+            }
+        }
+
+        List<Long> sorted = new ArrayList<>(expected.keySet());
+        sorted.sort(Comparator.comparing((Long id) -> -expected.get(id)).thenComparing(id -> id));
+
+        assertThat(scores.size()).isEqualTo(sorted.size());
+        assertThat(scores.top(sorted.size())).isEqualTo(sorted);
+        for (int i = 0; i < sorted.size(); i++) {
+            assertThat(scores.rank(sorted.get(i))).isEqualTo(i + 1);
+        }
+    }
+}
@@ -0,0 +1,102 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.OutboxMessage;
+import com.femcoders.ChallengeTrackerAPI.events.OutboxSink;
+import com.femcoders.ChallengeTrackerAPI.models.OutboxEvent;
+import com.femcoders.ChallengeTrackerAPI.repositories.OutboxEventRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxRelay Unit Tests")
+public class OutboxRelayTest {
+    @Mock
+    OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    OutboxSink outboxSink;
+
+    OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        outboxRelay = new OutboxRelay(outboxEventRepository, outboxSink, transactionTemplate, 3);
+    }
+
+    private OutboxEvent event(Long id, String aggregateType, Long aggregateId) {
+        return new OutboxEvent(id, aggregateType, aggregateId, "UPDATED", "{}", Instant.now());
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Long> published() {
+        ArgumentCaptor<List<OutboxMessage>> messages = ArgumentCaptor.forClass(List.class);
+        verify(outboxSink).publish(messages.capture());
+        return messages.getValue().stream().map(OutboxMessage::id).toList();
+    }
+
+    @Test
+    @DisplayName("Should publish a locked batch in outbox order and delete it in bulk")
+    void shouldPublishAndDeleteBatch() {
+        given(outboxEventRepository.lockNextBatch(any())).willReturn(List.of(
+                event(1L, "challenge", 7L), event(2L, "user", 7L), event(3L, "challenge", 7L)));
+        given(outboxEventRepository.findPendingBefore(anyLong(), anyCollection(), anyCollection())).willReturn(List.of());
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertThat(relayed).isEqualTo(3);
+        assertThat(published()).containsExactly(1L, 2L, 3L);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(1L, 2L, 3L));
+        assertThat(outboxRelay.getStats().published()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("Should hold back events whose aggregate has an older event locked by another relay")
+    void shouldKeepAggregateOrderAcrossRelays() {
+        given(outboxEventRepository.lockNextBatch(any())).willReturn(List.of(
+                event(4L, "challenge", 1L), event(6L, "challenge", 2L), event(8L, "user", 2L)));
+        given(outboxEventRepository.findPendingBefore(anyLong(), anyCollection(), anyCollection()))
+                .willReturn(List.of(event(5L, "challenge", 2L)));
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertThat(relayed).isEqualTo(2);
+        assertThat(published()).containsExactly(4L, 8L);
+        verify(outboxEventRepository).deleteAllByIdInBatch(List.of(4L, 8L));
+    }
+
+    @Test
+    @DisplayName("Should keep the batch for a retry when the sink fails")
+    void shouldRetryWhenSinkFails() {
+        given(outboxEventRepository.lockNextBatch(any())).willReturn(List.of(event(1L, "challenge", 1L)));
+        given(outboxEventRepository.findPendingBefore(anyLong(), anyCollection(), anyCollection())).willReturn(List.of());
+        willThrow(new IllegalStateException("Broker unavailable")).given(outboxSink).publish(anyList());
+
+        int relayed = outboxRelay.relayBatch();
+
+        assertThat(relayed).isZero();
+        verify(outboxEventRepository, never()).deleteAllByIdInBatch(any());
+        assertThat(outboxRelay.getStats().failedBatches()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,84 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OutboxWriter Unit Tests")
+public class OutboxWriterTest {
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Spy
+    ObjectMapper objectMapper = new ObjectMapper();
+
+    @InjectMocks
+    OutboxWriter outboxWriter;
+
+    @AfterEach
+    void clearTransaction() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    private void beginTransaction() {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    @DisplayName("Should insert the events of one transaction as a single batch before commit")
+    void shouldBatchEventsBeforeCommit() {
+        beginTransaction();
+        ChallengeSnapshot challenge = new ChallengeSnapshot(3L, "Title", "Description", Status.PENDING, Classification.FINANCES, 2, 1L);
+
+        outboxWriter.onChallengeChanged(ChallengeChangedEvent.created(challenge));
+        outboxWriter.onUserChanged(UserChangedEvent.updated(1L));
+        verifyNoInteractions(jdbcTemplate);
+
+        TransactionSynchronizationUtils.triggerBeforeCommit(false);
+
+        ArgumentCaptor<List<Object[]>> rows = ArgumentCaptor.forClass(List.class);
+        verify(jdbcTemplate).batchUpdate(anyString(), rows.capture());
+        assertThat(rows.getValue()).hasSize(2);
+        assertThat(rows.getValue().get(0)).startsWith(OutboxWriter.CHALLENGE_AGGREGATE, 3L, "CREATED");
+        assertThat(rows.getValue().get(1)).startsWith(OutboxWriter.USER_AGGREGATE, 1L, "UPDATED");
+        assertThat((String) rows.getValue().get(0)[3]).contains("\"title\":\"Title\"");
+    }
+
+    @Test
+    @DisplayName("Should refuse events published outside a transaction")
+    void shouldRequireTransaction() {
+        assertThrows(IllegalStateException.class, () -> outboxWriter.onUserChanged(UserChangedEvent.deleted(1L)));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
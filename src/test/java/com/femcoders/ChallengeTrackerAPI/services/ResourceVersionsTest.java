@@ -0,0 +1,85 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DisplayName("ResourceVersions Unit Tests")
+public class ResourceVersionsTest {
+    private final ResourceVersions resourceVersions = new ResourceVersions();
+
+    private ChallengeSnapshot snapshot(Long id, Status status, Long userId) {
+        return new ChallengeSnapshot(id, "Title", "Description", status, Classification.FINANCES, 3, userId);
+    }
+
+    @Test
+    @DisplayName("Should change the list and owner representations when a challenge changes")
+    void shouldBumpListAndOwnerVersions() {
+        String challengeRepresentation = resourceVersions.challengeRepresentation();
+        String listETag = resourceVersions.challengeListETag(null, "q");
+        String ownerRepresentation = resourceVersions.userRepresentation(5L);
+        String otherUserRepresentation = resourceVersions.userRepresentation(6L);
+
+        resourceVersions.onChallengeChanged(ChallengeChangedEvent.updated(
+                snapshot(1L, Status.PENDING, 5L), snapshot(1L, Status.IN_PROGRESS, 5L)));
+
+        assertThat(resourceVersions.challengeListETag(null, "q")).isNotEqualTo(listETag);
+        assertThat(resourceVersions.userRepresentation(5L)).isNotEqualTo(ownerRepresentation);
+        assertThat(resourceVersions.userRepresentation(6L)).isEqualTo(otherUserRepresentation);
+        assertThat(resourceVersions.challengeRepresentation()).isEqualTo(challengeRepresentation);
+    }
+
+    @Test
+    @DisplayName("Should change the challenge representation when a user changes because responses embed the username")
+    void shouldBumpChallengeRepresentationOnUserChange() {
+        String challengeRepresentation = resourceVersions.challengeRepresentation();
+        String userRepresentation = resourceVersions.userRepresentation(5L);
+
+        resourceVersions.onUserChanged(UserChangedEvent.updated(5L));
+
+        assertThat(resourceVersions.challengeRepresentation()).isNotEqualTo(challengeRepresentation);
+        assertThat(resourceVersions.userRepresentation(5L)).isNotEqualTo(userRepresentation);
+    }
+
+    @Test
+    @DisplayName("Should match If-Match on the entity version only and ignore weak tags")
+    void shouldMatchIfMatchOnVersion() {
+        assertThat(EntityTags.matches(null, 3L)).isTrue();
+        assertThat(EntityTags.matches("*", 3L)).isTrue();
+        assertThat(EntityTags.matches("\"v3.other-7\"", 3L)).isTrue();
+        assertThat(EntityTags.matches("\"v2.abc-0\", \"v3.abc-0\"", 3L)).isTrue();
+        assertThat(EntityTags.matches("\"v2.abc-0\"", 3L)).isFalse();
+        assertThat(EntityTags.matches("\"v33.abc-0\"", 3L)).isFalse();
+        assertThat(EntityTags.matches("W/\"v3.abc-0\"", 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("Should give each viewer a distinct list ETag")
+    void shouldVaryListETagByViewer() {
+        assertThat(resourceVersions.challengeListETag(1L, "q"))
+                .isNotEqualTo(resourceVersions.challengeListETag(2L, "q"))
+                .isNotEqualTo(resourceVersions.challengeListETag(null, "q"));
+        assertThat(resourceVersions.challengeListETag(1L, "q"))
+                .isNotEqualTo(resourceVersions.challengeListETag(1L, "r"));
+    }
+
+    @Test
+    @DisplayName("Should retire a list ETag before commit and again after it")
+    void shouldBumpBeforeAndAfterCommit() {
+        ChallengeChangedEvent event = ChallengeChangedEvent.updated(snapshot(1L, Status.PENDING, 5L), snapshot(1L, Status.IN_PROGRESS, 5L));
+        String beforeChange = resourceVersions.challengeListETag(null, "q");
+
+        resourceVersions.beforeChallengeChanged(event);
+        String duringCommit = resourceVersions.challengeListETag(null, "q");
+        resourceVersions.onChallengeChanged(event);
+
+        assertThat(duringCommit).isNotEqualTo(beforeChange);
+        assertThat(resourceVersions.challengeListETag(null, "q")).isNotEqualTo(duringCommit).isNotEqualTo(beforeChange);
+    }
+}
@@ -0,0 +1,93 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.dtos.purge.PurgeStats;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("SoftDeletePurger Unit Tests")
+public class SoftDeletePurgerTest {
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Mock
+    UserRepository userRepository;
+
+    SoftDeletePurger softDeletePurger;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        softDeletePurger = new SoftDeletePurger(challengeRepository, archivedChallengeRepository, userRepository, transactionTemplate, 2, Duration.ofMinutes(1));
+    }
+
+    @Test
+    @DisplayName("Should purge challenges and archived challenges in batches before the users that owned them")
+    void shouldPurgeChallengesThenUsers() {
+        given(challengeRepository.findSoftDeletedIds(2)).willReturn(List.of(1L, 2L), List.of(3L));
+        given(challengeRepository.purgeByIdIn(List.of(1L, 2L))).willReturn(2);
+        given(challengeRepository.purgeByIdIn(List.of(3L))).willReturn(1);
+        given(archivedChallengeRepository.findIdsOwnedBySoftDeletedUsers(2)).willReturn(List.of(4L));
+        given(archivedChallengeRepository.purgeByIdIn(List.of(4L))).willReturn(1);
+        given(userRepository.findPurgeableIds(2)).willReturn(List.of(7L));
+        given(userRepository.purgeByIdIn(List.of(7L))).willReturn(1);
+
+        softDeletePurger.purge();
+        PurgeStats stats = softDeletePurger.getStats();
+
+        verify(userRepository).purgeRolesByUserIdIn(List.of(7L));
+        assertThat(stats.purgedChallenges()).isEqualTo(4);
+        assertThat(stats.purgedUsers()).isEqualTo(1);
+        assertThat(stats.runs()).isEqualTo(1);
+        assertThat(stats.lastRunRowsPerSecond()).isPositive();
+    }
+
+    @Test
+    @DisplayName("Should leave users for a later run when the time budget ends during the challenges")
+    void shouldStopAtTheDeadline() {
+        softDeletePurger = new SoftDeletePurger(challengeRepository, archivedChallengeRepository, userRepository,
+                new TransactionTemplate(mock(PlatformTransactionManager.class)), 2, Duration.ZERO);
+        given(challengeRepository.findSoftDeletedIds(2)).willReturn(List.of(1L, 2L));
+        given(challengeRepository.purgeByIdIn(List.of(1L, 2L))).willReturn(2);
+
+        softDeletePurger.purge();
+
+        verify(userRepository, never()).findPurgeableIds(2);
+        verify(userRepository, never()).purgeByIdIn(anyCollection());
+    }
+
+    @Test
+    @DisplayName("Should report the soft-deleted rows still waiting")
+    void shouldReportBacklog() {
+        given(challengeRepository.countSoftDeleted()).willReturn(12L);
+        given(archivedChallengeRepository.countOwnedBySoftDeletedUsers()).willReturn(2L);
+        given(userRepository.countSoftDeleted()).willReturn(3L);
+
+        PurgeStats stats = softDeletePurger.getStats();
+
+        assertThat(stats.challengeBacklog()).isEqualTo(14);
+        assertThat(stats.userBacklog()).isEqualTo(3);
+    }
+}
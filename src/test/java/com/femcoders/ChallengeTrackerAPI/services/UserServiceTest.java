@@ -1,10 +1,27 @@
 package com.femcoders.ChallengeTrackerAPI.services;
 
+import com.femcoders.ChallengeTrackerAPI.dtos.TaggedResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserCursor;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserMapperImpl;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserPage;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRequest;
 import com.femcoders.ChallengeTrackerAPI.dtos.user.UserResponse;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserRow;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserUpdateRequest;
+import com.femcoders.ChallengeTrackerAPI.dtos.user.UserValueRow;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.ChallengeSnapshot;
+import com.femcoders.ChallengeTrackerAPI.events.UserChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.events.UsernameChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.exceptions.ConflictException;
+import com.femcoders.ChallengeTrackerAPI.exceptions.PreconditionFailedException;
+import com.femcoders.ChallengeTrackerAPI.models.Classification;
 import com.femcoders.ChallengeTrackerAPI.models.Role;
+import com.femcoders.ChallengeTrackerAPI.models.Status;
 import com.femcoders.ChallengeTrackerAPI.models.User;
+import com.femcoders.ChallengeTrackerAPI.repositories.ArchivedChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeRepository;
+import com.femcoders.ChallengeTrackerAPI.repositories.ChallengeTombstoneRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.RoleRepository;
 import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
 import com.femcoders.ChallengeTrackerAPI.security.UserDetail;
@@ -14,11 +31,21 @@ import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentMatchers;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
-
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Limit;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.SQLException;
+import java.time.Instant;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
@@ -27,6 +54,7 @@ import java.util.Optional;
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.willThrow;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -42,7 +70,31 @@ public class UserServiceTest {
     RoleRepository roleRepository;
 
     @Mock
-    BCryptPasswordEncoder passwordEncoder;
+    PasswordEncoder passwordEncoder;
+
+    @Mock
+    ChallengeStatistics challengeStatistics;
+
+    @Mock
+    ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    ResourceVersions resourceVersions;
+
+    @Mock
+    ChallengeTombstoneRepository challengeTombstoneRepository;
+
+    @Mock
+    ChallengeRepository challengeRepository;
+
+    @Mock
+    ArchivedChallengeRepository archivedChallengeRepository;
+
+    @Mock
+    DefaultRole defaultRole;
+
+    @Spy
+    TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
 
     @InjectMocks
     UserService userService;
@@ -125,6 +177,70 @@ public class UserServiceTest {
         normalUserDetail = new UserDetail(normalUser);
     }
 
+    @Nested
+    @DisplayName("Get Users")
+    class GetUsers {
+        private UserRow row(Long id, String username) {
+            return new UserRow() {
+                public Long getId() {
+                    return id;
+                }
+
+                public String getUsername() {
+                    return username;
+                }
+
+                public String getEmail() {
+                    return username + "@example.com";
+                }
+            };
+        }
+
+        @Test
+        @DisplayName("Should load roles and challenge titles for the whole page in one query each")
+        void shouldBatchRolesAndChallengeTitles() {
+            UserRow first = row(1L, "testUser");
+            UserRow second = row(2L, "testUser2");
+            given(userRepository.findRowsAfter(0L, Limit.of(2))).willReturn(List.of(first, second));
+            given(userRepository.findRoleNamesByUserIdIn(List.of(1L, 2L))).willReturn(List.of(
+                    new UserValueRow(1L, "ROLE_USER"), new UserValueRow(2L, "ROLE_USER"), new UserValueRow(2L, "ROLE_ADMIN")));
+            given(challengeRepository.findTitlesByUserIdIn(List.of(1L, 2L))).willReturn(List.of(
+                    new UserValueRow(2L, "Read more"), new UserValueRow(2L, "Save money")));
+            given(userMapperImpl.rowToDto(ArgumentMatchers.any(UserRow.class), ArgumentMatchers.anyList(), ArgumentMatchers.anyList()))
+                    .willAnswer(invocation -> {
+                        UserRow row = invocation.getArgument(0);
+                        return new UserResponse(row.getId(), row.getUsername(), row.getEmail(), invocation.getArgument(1), invocation.getArgument(2));
+                    });
+
+            UserPage page = userService.getUsers(null, 2);
+
+            assertThat(page.users()).containsExactly(
+                    new UserResponse(1L, "testUser", "testUser@example.com", List.of(), List.of("ROLE_USER")),
+                    new UserResponse(2L, "testUser2", "testUser2@example.com", List.of("Read more", "Save money"), List.of("ROLE_USER", "ROLE_ADMIN")));
+            assertThat(UserCursor.decode(page.nextCursor())).isEqualTo(new UserCursor(2L));
+            verify(userRepository, never()).findAll();
+        }
+
+        @Test
+        @DisplayName("Should return no cursor on the last page")
+        void shouldReturnNoCursorOnLastPage() {
+            given(userRepository.findRowsAfter(2L, Limit.of(2))).willReturn(List.of());
+
+            UserPage page = userService.getUsers(new UserCursor(2L).encode(), 2);
+
+            assertThat(page.users()).isEmpty();
+            assertThat(page.nextCursor()).isNull();
+            verify(challengeRepository, never()).findTitlesByUserIdIn(ArgumentMatchers.anyCollection());
+        }
+
+        @Test
+        @DisplayName("Should throw IllegalArgumentException when the cursor or limit is invalid")
+        void shouldRejectInvalidCursorOrLimit() {
+            assertThrows(IllegalArgumentException.class, () -> userService.getUsers("not-a-cursor", 20));
+            assertThrows(IllegalArgumentException.class, () -> userService.getUsers(null, UserService.MAX_PAGE_SIZE + 1));
+        }
+    }
+
     @Nested
     @DisplayName("Register User")
     class RegisterUser {
@@ -135,18 +251,17 @@ public class UserServiceTest {
                     "user@example.com",
                     "NewPassword12345."
             );
-            Role defaultRole = new Role(1L, "ROLE_USER", new ArrayList<>());
+            Role role = new Role(1L, "ROLE_USER", new ArrayList<>());
 
             User newUserMocked = User.builder()
                     .id(null)
                     .username(request.username())
                     .email(request.email())
                     .password(request.password())
-                    .roles(new ArrayList<>(List.of(defaultRole)))
+                    .roles(new ArrayList<>(List.of(role)))
                     .build();
 
-            given(roleRepository.findByRoleNameIgnoreCase("ROLE_USER")).willReturn(Optional.of(defaultRole));
-            given(userRepository.existsByEmail(ArgumentMatchers.any(String.class))).willReturn(false);
+            given(defaultRole.get()).willReturn(role);
 
             given(userMapperImpl.dtoToEntity(
                     ArgumentMatchers.any(UserRequest.class),
@@ -154,8 +269,6 @@ public class UserServiceTest {
                     ArgumentMatchers.any(List.class)
             )).willReturn(newUserMocked);
 
-            given(userRepository.existsByUsername(ArgumentMatchers.any(String.class))).willReturn(false);
-
             UserResponse expectedUserResponse = new UserResponse (
                     1L,
                     newUserMocked.getUsername(),
@@ -172,17 +285,45 @@ public class UserServiceTest {
             assertThat(response.email()).isEqualTo(newUserMocked.getEmail());
             assertThat(response.roles()).contains("ROLE_USER");
 
-            verify(userRepository, times(1)).existsByUsername(request.username());
-            verify(userRepository, times(1)).existsByEmail(request.email());
-            verify(roleRepository, times(1)).findByRoleNameIgnoreCase("ROLE_USER");
+            verify(userRepository, never()).existsByUsernameNormalized(ArgumentMatchers.anyString());
+            verify(userRepository, never()).existsByEmailNormalized(ArgumentMatchers.anyString());
+            verify(roleRepository, never()).findByRoleNameIgnoreCase(ArgumentMatchers.anyString());
             verify(userMapperImpl, times(1)).dtoToEntity(
                     org.mockito.ArgumentMatchers.any(UserRequest.class),
                     org.mockito.ArgumentMatchers.any(List.class),
                     org.mockito.ArgumentMatchers.any(List.class)
             );
             verify(passwordEncoder, times(1)).encode(request.password());
-            verify(userRepository, times(1)).save(org.mockito.ArgumentMatchers.any(User.class));
+            verify(userRepository, times(1)).saveAndFlush(org.mockito.ArgumentMatchers.any(User.class));
             verify(userMapperImpl, times(1)).entityToDto(org.mockito.ArgumentMatchers.any(User.class));
+            verify(eventPublisher).publishEvent(UsernameChangedEvent.created("newuser"));
+        }
+
+        @Test
+        @DisplayName("should hash the password before opening the transaction")
+        void shouldHashBeforeOpeningTransaction() {
+            given(defaultRole.get()).willReturn(userRole);
+            given(passwordEncoder.encode("NewPassword12345.")).willReturn("$2a$12$hash");
+            given(userMapperImpl.dtoToEntity(ArgumentMatchers.any(UserRequest.class), ArgumentMatchers.anyList(), ArgumentMatchers.anyList()))
+                    .willReturn(User.builder().username("newuser").build());
+
+            userService.registerUser(new UserRequest("newuser", "user@example.com", "NewPassword12345."));
+
+            InOrder inOrder = inOrder(passwordEncoder, transactionTemplate, userRepository);
+            inOrder.verify(passwordEncoder).encode("NewPassword12345.");
+            inOrder.verify(transactionTemplate).execute(ArgumentMatchers.any());
+            inOrder.verify(userRepository).saveAndFlush(ArgumentMatchers.argThat(user -> "$2a$12$hash".equals(user.getPassword())));
+        }
+
+        @Test
+        @DisplayName("should drop the cached default role when the insert fails on something else than a taken name")
+        void shouldEvictDefaultRoleOnOtherIntegrityViolations() {
+            givenInsertRejectedBy("Referential integrity constraint violation: FK_USERS_ROLES_ROLE_ID");
+
+            assertThrows(DataIntegrityViolationException.class,
+                    () -> userService.registerUser(new UserRequest("newuser", "user@example.com", "NewPassword12345.")));
+
+            verify(defaultRole).evict();
         }
 
         @Test
@@ -194,15 +335,16 @@ public class UserServiceTest {
                     "newPassword123#"
             );
 
-            given(userRepository.existsByUsername(request.username())).willReturn(true);
+            givenInsertRejectedBy("Duplicate entry 'existinguser' for key 'users.uk_users_username_normalized'");
 
-            Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            Exception exception = assertThrows(ConflictException.class, () -> {
                 userService.registerUser(request);
 
             });
 
-            assertThat(exception.getMessage()).contains("Username is already taken.");
-            verify(userRepository, times(1)).existsByUsername(request.username());
+            assertThat(exception.getMessage()).contains("Username is already taken");
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+            verify(defaultRole, never()).evict();
         }
 
         @Test
@@ -214,19 +356,121 @@ public class UserServiceTest {
                     "newPassword123#"
             );
 
-            given(userRepository.existsByUsername(request.username())).willReturn(false);
-            given(userRepository.existsByEmail(request.email())).willReturn(true);
+            givenInsertRejectedBy("Duplicate entry 'existing@example.com' for key 'users.uk_users_email_normalized'");
 
-            Exception exception = assertThrows(IllegalArgumentException.class, () -> {
+            Exception exception = assertThrows(ConflictException.class, () -> {
                 userService.registerUser(request);
             });
 
             assertThat(exception.getMessage()).contains("Email is already registered");
-            verify(userRepository, times(1)).existsByUsername(request.username());
-            verify(userRepository, times(1)).existsByEmail(request.email());
-            verify(roleRepository, never()).findByRoleNameIgnoreCase(org.mockito.ArgumentMatchers.anyString());
+            verify(userRepository, never()).existsByEmailNormalized(org.mockito.ArgumentMatchers.anyString());
+        }
+
+        private void givenInsertRejectedBy(String message) {
+            given(defaultRole.get()).willReturn(userRole);
+            given(userMapperImpl.dtoToEntity(ArgumentMatchers.any(UserRequest.class), ArgumentMatchers.anyList(), ArgumentMatchers.anyList()))
+                    .willReturn(User.builder().username("newuser").build());
+            given(userRepository.saveAndFlush(ArgumentMatchers.any(User.class)))
+                    .willThrow(new DataIntegrityViolationException("could not execute statement", new SQLException(message)));
         }
 
     }
 
+    @Nested
+    @DisplayName("Update User")
+    class UpdateUser {
+        @Test
+        @DisplayName("should throw PreconditionFailedException when If-Match names an older version")
+        void shouldRejectStaleIfMatch() {
+            normalUser.setVersion(5L);
+            given(userRepository.findById(100L)).willReturn(Optional.of(normalUser));
+            UserUpdateRequest request = new UserUpdateRequest(null, "changed@test.com", null, null);
+
+            assertThrows(PreconditionFailedException.class,
+                    () -> userService.updateUser(100L, request, normalUserDetail, "\"v4.abc-0\""));
+
+            assertThat(normalUser.getEmail()).isEqualTo("admin_user@test.com");
+            verify(userRepository, never()).save(ArgumentMatchers.any(User.class));
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("should save and return the new version tag when If-Match is current")
+        void shouldUpdateWithCurrentIfMatch() {
+            normalUser.setVersion(5L);
+            given(userRepository.findById(100L)).willReturn(Optional.of(normalUser));
+            given(userRepository.save(normalUser)).willAnswer(invocation -> {
+                normalUser.setVersion(6L);
+                return normalUser;
+            });
+            given(resourceVersions.userRepresentation(100L)).willReturn("abc-0");
+            given(userMapperImpl.entityToDto(normalUser)).willReturn(testUserResponse);
+            UserUpdateRequest request = new UserUpdateRequest(null, "changed@test.com", null, null);
+
+            TaggedResponse<UserResponse> result = userService.updateUser(100L, request, normalUserDetail, "\"v5.abc-0\"");
+
+            assertThat(result).isEqualTo(new TaggedResponse<>(testUserResponse, "v6.abc-0"));
+            verify(userRepository).flush();
+        }
+
+        @Test
+        @DisplayName("should reject another user's password change before hashing or opening a transaction")
+        void shouldRejectForeignPasswordChangeBeforeHashing() {
+            UserUpdateRequest request = new UserUpdateRequest(null, null, "NewPassword12345.", null);
+
+            assertThrows(AccessDeniedException.class,
+                    () -> userService.updateUser(100L, request, new UserDetail(testUser2), null));
+
+            verify(passwordEncoder, never()).encode(ArgumentMatchers.anyString());
+            verify(transactionTemplate, never()).execute(ArgumentMatchers.any());
+        }
+
+        @Test
+        @DisplayName("should throw ConflictException when the renamed username violates the unique index")
+        void shouldMapRenameConflictFromFlush() {
+            given(userRepository.findById(100L)).willReturn(Optional.of(normalUser));
+            given(userRepository.save(normalUser)).willReturn(normalUser);
+            willThrow(new DataIntegrityViolationException("could not execute statement",
+                    new SQLException("Unique index or primary key violation: \"PUBLIC.UK_USERS_USERNAME_NORMALIZED\"")))
+                    .given(userRepository).flush();
+            UserUpdateRequest request = new UserUpdateRequest("takenName", null, null, null);
+
+            ConflictException exception = assertThrows(ConflictException.class,
+                    () -> userService.updateUser(100L, request, normalUserDetail, null));
+
+            assertThat(exception.getMessage()).isEqualTo("Username is already taken");
+            verify(userRepository, never()).findByUsernameNormalized(ArgumentMatchers.anyString());
+            verify(eventPublisher, never()).publishEvent(ArgumentMatchers.any());
+        }
+    }
+
+    @Test
+    @DisplayName("Should publish DELETED events from snapshots without loading the user's challenges")
+    void shouldDeleteUserFromChallengeSnapshots() {
+        ChallengeSnapshot live = new ChallengeSnapshot(7L, "Title", "Description", Status.PENDING, Classification.FINANCES, 2, 100L);
+        ChallengeSnapshot archived = new ChallengeSnapshot(8L, "Title", "Description", Status.COMPLETED_SATISFACTORILY, Classification.FINANCES, 3, 100L);
+        User spiedUser = spy(normalUser);
+        given(userRepository.findById(100L)).willReturn(Optional.of(spiedUser));
+        given(challengeRepository.lockSnapshotsByUserId(100L)).willReturn(List.of(live));
+        given(archivedChallengeRepository.findSnapshotsByUserId(100L)).willReturn(List.of(archived));
+
+        userService.deleteUser(100L, new UserDetail(testUser2));
+
+        verify(spiedUser, never()).getChallenges();
+        verify(eventPublisher).publishEvent(ChallengeChangedEvent.deleted(live));
+        verify(eventPublisher).publishEvent(ChallengeChangedEvent.deleted(archived));
+        verify(eventPublisher).publishEvent(UserChangedEvent.deleted(100L));
+        verify(challengeRepository).softDeleteByUserId(ArgumentMatchers.eq(100L), ArgumentMatchers.any(Instant.class));
+    }
+
+    @Test
+    @DisplayName("Should only replace the hash that was checked when a login rehashes the password")
+    void shouldUpdatePasswordWithoutTouchingTheVersion() {
+        normalUser.setPassword("$2a$10$old");
+
+        userService.updatePassword(normalUserDetail, "$2a$12$new");
+
+        verify(userRepository).updatePassword("admin_user_test", "$2a$10$old", "$2a$12$new");
+        verify(userRepository, never()).save(ArgumentMatchers.any(User.class));
+    }
 }
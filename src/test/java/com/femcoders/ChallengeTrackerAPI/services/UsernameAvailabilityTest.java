@@ -0,0 +1,113 @@
+package com.femcoders.ChallengeTrackerAPI.services;
+
+import com.femcoders.ChallengeTrackerAPI.events.UsernameChangedEvent;
+import com.femcoders.ChallengeTrackerAPI.repositories.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("UsernameAvailability Unit Tests")
+public class UsernameAvailabilityTest {
+    @Mock
+    UserRepository userRepository;
+
+    UsernameAvailability usernameAvailability;
+
+    @BeforeEach
+    void setUp() {
+        TransactionTemplate transactionTemplate = new TransactionTemplate(mock(PlatformTransactionManager.class));
+        usernameAvailability = new UsernameAvailability(userRepository, transactionTemplate, 1_000, 0.01);
+        given(userRepository.streamUsernamesNormalized()).willReturn(Stream.of("mary", "brian"));
+        usernameAvailability.rebuild();
+    }
+
+    @Test
+    @DisplayName("Should answer for names the filter has never seen without a query")
+    void shouldSkipDatabaseForUnknownNames() {
+        assertThat(usernameAvailability.check("Niamh").available()).isTrue();
+
+        verify(userRepository, never()).existsByUsernameNormalized(anyString());
+        assertThat(usernameAvailability.getDatabaseChecks()).isZero();
+    }
+
+    @Test
+    @DisplayName("Should confirm names the filter has seen against the database")
+    void shouldCheckDatabaseForKnownNames() {
+        given(userRepository.existsByUsernameNormalized("mary")).willReturn(true);
+
+        assertThat(usernameAvailability.check("MARY").available()).isFalse();
+        assertThat(usernameAvailability.getDatabaseChecks()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Should follow registrations, renames and deletions")
+    void shouldFollowUsernameChanges() {
+        usernameAvailability.onUsernameChanged(UsernameChangedEvent.created("carmen"));
+        usernameAvailability.onUsernameChanged(UsernameChangedEvent.renamed("brian", "bryan"));
+        usernameAvailability.onUsernameChanged(UsernameChangedEvent.deleted("mary"));
+        given(userRepository.existsByUsernameNormalized(anyString())).willReturn(true);
+
+        assertThat(usernameAvailability.check("carmen").available()).isFalse();
+        assertThat(usernameAvailability.check("bryan").available()).isFalse();
+        assertThat(usernameAvailability.check("brian").available()).isTrue();
+        assertThat(usernameAvailability.check("mary").available()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should keep changes committed while the usernames are being scanned")
+    void shouldReplayChangesCommittedDuringRebuild() {
+        given(userRepository.streamUsernamesNormalized()).willAnswer(invocation -> {
+            usernameAvailability.onUsernameChanged(UsernameChangedEvent.created("carmen"));
+            usernameAvailability.onUsernameChanged(UsernameChangedEvent.renamed("brian", "bryan"));
+            return Stream.of("mary");
+        });
+        given(userRepository.existsByUsernameNormalized(anyString())).willReturn(true);
+
+        usernameAvailability.rebuild();
+
+        assertThat(usernameAvailability.check("carmen").available()).isFalse();
+        assertThat(usernameAvailability.check("bryan").available()).isFalse();
+        assertThat(usernameAvailability.check("mary").available()).isFalse();
+        assertThat(usernameAvailability.check("brian").available()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Should throw IllegalArgumentException when the username is blank")
+    void shouldRejectBlankUsername() {
+        assertThrows(IllegalArgumentException.class, () -> usernameAvailability.check(" "));
+    }
+
+    @Test
+    @DisplayName("Should keep the false positive rate near the configured one")
+    void filterShouldStayNearConfiguredFalsePositiveRate() {
+        CountingBloomFilter filter = new CountingBloomFilter(10_000, 0.01);
+        for (int i = 0; i < 10_000; i++) {
+            filter.add("user" + i);
+        }
+        int falsePositives = 0;
+        for (int i = 0; i < 10_000; i++) {
+            assertThat(filter.mightContain("user" + i)).isTrue();
+            if (filter.mightContain("other" + i)) {
+                falsePositives++;
+            }
+        }
+
+        assertThat(falsePositives).isLessThan(200);
+    }
+}
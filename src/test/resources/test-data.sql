@@ -1,3 +1,6 @@
+DELETE FROM challenge_tombstones;
+DELETE FROM outbox_events;
+DELETE FROM archived_challenges;
 DELETE FROM users_roles;
 DELETE FROM challenges  ;
 DELETE FROM roles;
@@ -8,11 +11,11 @@ INSERT INTO roles(id, role_name) VALUES
 (1, 'ROLE_USER'),
 (2, 'ROLE_ADMIN');
 
-INSERT INTO users(id, username, email, password) VALUES
-(1, 'Mary', 'mary1234@gmail.com', '$2a$12$JQdTEKNfVFd5MgXOPP1/0eYiDCwvQxCJyBBd/Z46oG/Qy9PZw3fri'),
-(2, 'Carmen', 'carmen@example.com', '$2a$12$1uJRArQDAExM/rPq1khp.ua4ZWldvOvOlMeaEt/YPld9KDJamx6F2'),
-(3, 'Niamh', 'niamh@example.com', '$2a$12$ZsJ1tKF1YSG0PA7QabPDMO3Pb6f1OG.HPcMK9BWVFe1GH7BR6sDQW'),
-(4, 'Brian', 'brian@example.com', '$2a$12$DVmuDBhlkLslaR7U0M/vA.hLXYpHYnVcsvnM2k35ISTu7/eXclxMqMary.123');
+INSERT INTO users(id, username, email, password, username_normalized, email_normalized) VALUES
+(1, 'Mary', 'mary1234@gmail.com', '$2a$12$JQdTEKNfVFd5MgXOPP1/0eYiDCwvQxCJyBBd/Z46oG/Qy9PZw3fri', 'mary', 'mary1234@gmail.com'),
+(2, 'Carmen', 'carmen@example.com', '$2a$12$1uJRArQDAExM/rPq1khp.ua4ZWldvOvOlMeaEt/YPld9KDJamx6F2', 'carmen', 'carmen@example.com'),
+(3, 'Niamh', 'niamh@example.com', '$2a$12$ZsJ1tKF1YSG0PA7QabPDMO3Pb6f1OG.HPcMK9BWVFe1GH7BR6sDQW', 'niamh', 'niamh@example.com'),
+(4, 'Brian', 'brian@example.com', '$2a$12$DVmuDBhlkLslaR7U0M/vA.hLXYpHYnVcsvnM2k35ISTu7/eXclxMqMary.123', 'brian', 'brian@example.com');
 
 
 INSERT INTO users_roles(user_id, role_id) VALUES
@@ -26,4 +29,7 @@ INSERT INTO challenges(id, title, description, status, classification, difficult
 (2, 'Eat more fruit and veg', 'Eat one salad and 3 pieces of fruit every day for a month', 'PENDING', 'HEALTH_AND_WELLBEING', 2, 'Trip to the theatre with Sara', 2),
 (3, 'Improve social connections by meeting more with the girls', 'Meet for a coffee once each week with Sara, Clara and/or Marie and continue until New Year', 'IN_PROGRESS', 'PERSONAL_RELATIONS', 1, 'Buy myself a 3-session ticket for massage', 1),
 (4, 'Go to the gym more', 'Go to the gym 3 times every week all year 2025', 'IN_PROGRESS', 'HEALTH_AND_WELLBEING', 4, 'Go for a weekend away to Killarney', 4),
-(5, 'Meditation', 'Meditate at least 5 days a week in the morning first thing for at least 10 mins.', 'IN_PROGRESS', 'HEALTH_AND_WELLBEING', 4, 'Go for a weekend away to Killarney in January.', 4);
\ No newline at end of file
+(5, 'Meditation', 'Meditate at least 5 days a week in the morning first thing for at least 10 mins.', 'IN_PROGRESS', 'HEALTH_AND_WELLBEING', 4, 'Go for a weekend away to Killarney in January.', 4);
+
+UPDATE id_generators SET next_id = GREATEST(next_id, (SELECT COALESCE(MAX(id), 0) + 1 FROM challenges))
+WHERE entity_name = 'challenges';